@@ -0,0 +1,52 @@
+package org.trashbot.commands;
+
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.storage.DataPersistence;
+import org.trashbot.storage.TransactionalStorage;
+import org.trashbot.tasks.Task;
+
+/**
+ * Starts a transaction, after which changes to the tasks are kept in memory until they are
+ * committed with {@link CommitCommand} or undone with {@link RollbackCommand}.
+ *
+ * <p>Example usage:
+ * <pre>
+ * BeginCommand cmd = new BeginCommand(transactions);
+ * cmd.execute(taskList, storage);
+ * </pre>
+ * </p>
+ *
+ * @see TransactionalStorage
+ */
+public class BeginCommand implements Command {
+    /**
+     * The storage whose transactions this command controls
+     */
+    private final TransactionalStorage transactions;
+
+    /**
+     * Constructs a new BeginCommand.
+     *
+     * @param transactions The storage whose transactions this command controls
+     */
+    public BeginCommand(TransactionalStorage transactions) {
+        this.transactions = transactions;
+    }
+
+    /**
+     * Starts the transaction, after which changes to the task list are recorded until it ends.
+     *
+     * @param tasks   The list of tasks the transaction changes
+     * @param storage The data persistence mechanism (unused in this implementation)
+     * @return String containing the command's output message
+     * @throws DukeException if a transaction is already in progress
+     */
+    @Override
+    public String execute(List<Task> tasks, DataPersistence storage) throws DukeException {
+        transactions.begin(tasks);
+        return " Okay, I've started a transaction.\n"
+                + " Your changes will be saved when you commit, or undone if you roll back.";
+    }
+}
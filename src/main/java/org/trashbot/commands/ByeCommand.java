@@ -1,7 +1,9 @@
 package org.trashbot.commands;
 
+import java.io.IOException;
 import java.util.List;
 
+import org.trashbot.exceptions.DukeException;
 import org.trashbot.storage.DataPersistence;
 import org.trashbot.tasks.Task;
 
@@ -19,16 +21,19 @@ public class ByeCommand implements Command {
     /**
      * Executes the command, which terminates the program.
      * <p>
-     * This method calls {@link System#exit(int)} with a status code of 0,
-     * indicating a normal termination of the application.
+     * This method flushes any pending writes in the storage and signals the
+     * caller to terminate the application.
      * </p>
      *
      * @param tasks the current list of tasks (not used in this command)
-     * @param storage the data persistence object (not used in this command)
+     * @param storage the data persistence object to flush before exiting
      * @return String containing the command's output message
+     * @throws IOException if the pending writes cannot be flushed
+     * @see DataPersistence#flush()
      */
     @Override
-    public String execute(List<Task> tasks, DataPersistence storage) {
+    public String execute(List<Task> tasks, DataPersistence storage) throws DukeException, IOException {
+        storage.flush();
         return STRING_END_OF_PROGRAM;
     }
 }
@@ -21,4 +21,30 @@ public interface Command {
      * @throws IOException   if an I/O error occurs during file operation
      */
     String execute(List<Task> tasks, DataPersistence storage) throws DukeException, IOException;
+
+    /**
+     * Execute the command and write the command's output to the given sink as it is produced.
+     * The output is the same as that of {@link #execute}; commands that list tasks write it
+     * one row at a time, so that it is never held in memory as a whole.
+     *
+     * @param tasks   list of tasks to operate on
+     * @param storage storage with save/load operation
+     * @param output  where the command's output is written
+     * @throws DukeException if a custom error occurs during execution
+     * @throws IOException   if an I/O error occurs during file operation or while writing the output
+     */
+    default void writeTo(List<Task> tasks, DataPersistence storage, Appendable output)
+            throws DukeException, IOException {
+        output.append(execute(tasks, storage));
+    }
+
+    /**
+     * Checks whether the command only reads the task list, so that running it again on an
+     * unchanged list produces the same output.
+     *
+     * @return true if the command neither changes the tasks nor touches the storage
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
 }
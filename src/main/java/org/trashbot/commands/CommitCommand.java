@@ -0,0 +1,53 @@
+package org.trashbot.commands;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.storage.DataPersistence;
+import org.trashbot.storage.TransactionalStorage;
+import org.trashbot.tasks.Task;
+
+/**
+ * Ends the current transaction and saves every change made during it with a single write.
+ *
+ * <p>Example usage:
+ * <pre>
+ * CommitCommand cmd = new CommitCommand(transactions);
+ * cmd.execute(taskList, storage);
+ * </pre>
+ * </p>
+ *
+ * @see BeginCommand
+ * @see TransactionalStorage
+ */
+public class CommitCommand implements Command {
+    /**
+     * The storage whose transactions this command controls
+     */
+    private final TransactionalStorage transactions;
+
+    /**
+     * Constructs a new CommitCommand.
+     *
+     * @param transactions The storage whose transactions this command controls
+     */
+    public CommitCommand(TransactionalStorage transactions) {
+        this.transactions = transactions;
+    }
+
+    /**
+     * Commits the transaction.
+     *
+     * @param tasks   The list of tasks changed by the transaction
+     * @param storage The data persistence mechanism (unused in this implementation)
+     * @return String containing the command's output message
+     * @throws DukeException if no transaction is in progress
+     * @throws IOException   if the changes cannot be saved
+     */
+    @Override
+    public String execute(List<Task> tasks, DataPersistence storage) throws DukeException, IOException {
+        int changeCount = transactions.commit();
+        return String.format(" Got it. I've saved the %d change(s) made in this transaction.", changeCount);
+    }
+}
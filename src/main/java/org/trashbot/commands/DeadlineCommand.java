@@ -6,6 +6,7 @@ import java.util.List;
 import org.trashbot.exceptions.DukeException;
 import org.trashbot.exceptions.EmptyDescriptionException;
 import org.trashbot.exceptions.InvalidFormatException;
+import org.trashbot.search.TaskIndex;
 import org.trashbot.storage.DataPersistence;
 import org.trashbot.tasks.Deadline;
 import org.trashbot.tasks.Task;
@@ -32,6 +33,7 @@ import org.trashbot.tasks.Task;
 public class DeadlineCommand implements Command {
     private static final String STRING_BY = "/by";
     private final String input;
+    private final TaskIndex index;
 
     /**
      * Constructs a new DeadlineCommand with the specified input string.
@@ -40,7 +42,19 @@ public class DeadlineCommand implements Command {
      *              information in the format "task /by deadline"
      */
     public DeadlineCommand(String input) {
+        this(input, TaskIndex.NONE);
+    }
+
+    /**
+     * Constructs a new DeadlineCommand with the specified input string.
+     *
+     * @param input The raw input string containing both the task description and deadline
+     *              information in the format "task /by deadline"
+     * @param index The search index to notify after the new task is added
+     */
+    public DeadlineCommand(String input, TaskIndex index) {
         this.input = input;
+        this.index = index;
     }
 
     /**
@@ -57,7 +71,7 @@ public class DeadlineCommand implements Command {
      *                                or is not in the correct format
      * @throws IOException            if there is an error saving the task list to storage
      * @see Deadline
-     * @see DataPersistence#save(List)
+     * @see DataPersistence#append(List, Task)
      */
     @Override
     public String execute(List<Task> tasks, DataPersistence storage)
@@ -76,7 +90,8 @@ public class DeadlineCommand implements Command {
         Task newTask = new Deadline(input);
 
         tasks.add(newTask);
-        storage.save(tasks);
+        storage.append(tasks, newTask);
+        index.added(tasks, newTask);
 
         return String.format(" Got it. I've added this task:\n  %s\n Now you have %d tasks in the list.",
                 newTask, tasks.size());
@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 
 import org.trashbot.exceptions.DukeException;
 import org.trashbot.exceptions.InvalidFormatException;
+import org.trashbot.search.TaskIndex;
 import org.trashbot.storage.DataPersistence;
 import org.trashbot.tasks.Task;
 
@@ -37,13 +38,29 @@ public class DeleteCommand implements Command {
      */
     private final int[] taskIds;
 
+    /**
+     * The search index to notify after the tasks are deleted
+     */
+    private final TaskIndex index;
+
     /**
      * Constructs a new DeleteCommand for n tasks
      *
      * @param taskIds n number of tasks to delete
      */
     public DeleteCommand(int... taskIds) {
+        this(TaskIndex.NONE, taskIds);
+    }
+
+    /**
+     * Constructs a new DeleteCommand for n tasks that keeps the given index up to date
+     *
+     * @param index   the search index to notify after the tasks are deleted
+     * @param taskIds n number of tasks to delete
+     */
+    public DeleteCommand(TaskIndex index, int... taskIds) {
         this.taskIds = taskIds;
+        this.index = index;
         Arrays.sort(this.taskIds);
     }
 
@@ -61,7 +78,7 @@ public class DeleteCommand implements Command {
      * @throws InvalidFormatException if any task ID is out of range (less than 0 or
      *                               greater than or equal to the size of the task list)
      * @throws IOException           if there is an error saving the task list to storage
-     * @see DataPersistence#save(List)
+     * @see DataPersistence#remove(List, List, int...)
      */
     @Override
     public String execute(List<Task> tasks, DataPersistence storage) throws DukeException, IOException {
@@ -82,7 +99,10 @@ public class DeleteCommand implements Command {
                 .sorted(Collections.reverseOrder())
                 .forEach(id -> removedTasks.add(tasks.remove((int) id)));
 
-        storage.save(tasks);
+        List<Task> removedInOrder = new ArrayList<>(removedTasks);
+        Collections.reverse(removedInOrder);
+        storage.remove(tasks, removedInOrder, taskIds);
+        index.removed(tasks, taskIds);
 
         String removedTasksMessage = removedTasks.stream()
                 .map(Task::toString)
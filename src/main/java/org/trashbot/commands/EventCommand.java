@@ -6,6 +6,7 @@ import java.util.List;
 import org.trashbot.exceptions.DukeException;
 import org.trashbot.exceptions.EmptyDescriptionException;
 import org.trashbot.exceptions.InvalidFormatException;
+import org.trashbot.search.TaskIndex;
 import org.trashbot.storage.DataPersistence;
 import org.trashbot.tasks.Event;
 import org.trashbot.tasks.Task;
@@ -34,6 +35,7 @@ public class EventCommand implements Command {
     private static final String STRING_FROM = "/from";
     private static final String STRING_TO = "/to";
     private final String input;
+    private final TaskIndex index;
 
     /**
      * Constructs a new EventCommand with the specified input string.
@@ -42,7 +44,19 @@ public class EventCommand implements Command {
      *              information in the format "task /from date/time /to date/time"
      */
     public EventCommand(String input) {
+        this(input, TaskIndex.NONE);
+    }
+
+    /**
+     * Constructs a new EventCommand with the specified input string.
+     *
+     * @param input The raw input string containing both the task description and event
+     *              information in the format "task /from date/time /to date/time"
+     * @param index The search index to notify after the new task is added
+     */
+    public EventCommand(String input, TaskIndex index) {
         this.input = input;
+        this.index = index;
     }
 
     /**
@@ -59,7 +73,7 @@ public class EventCommand implements Command {
      *                                or is not in the correct format
      * @throws IOException            if there is an error saving the task list to storage
      * @see Event
-     * @see DataPersistence#save(List)
+     * @see DataPersistence#append(List, Task)
      */
     @Override
     public String execute(List<Task> tasks, DataPersistence storage)
@@ -74,7 +88,8 @@ public class EventCommand implements Command {
 
         Task newTask = new Event(input);
         tasks.add(newTask);
-        storage.save(tasks);
+        storage.append(tasks, newTask);
+        index.added(tasks, newTask);
 
         return String.format(" Got it. I've added this task:\n  %s\n Now you have %d tasks in the list.",
                 newTask, tasks.size());
@@ -1,7 +1,10 @@
 package org.trashbot.commands;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.trashbot.search.SearchIndex;
 import org.trashbot.storage.DataPersistence;
 import org.trashbot.tasks.Task;
 
@@ -13,6 +16,10 @@ import org.trashbot.tasks.Task;
  * <p>The command expects input in the format: "find &lt;keyword&gt;"
  * where &lt;keyword&gt; is the search term to match against task descriptions.</p>
  *
+ * <p>The fuzzy forms "find~ &lt;keywords&gt;" and "find --fuzzy &lt;keywords&gt;" instead match
+ * tasks that have, for every keyword, a word within a small edit distance of it, so that
+ * typos still find the intended tasks.</p>
+ *
  * <p>Example usage:
  * <pre>
  * FindCommand cmd = new FindCommand("cry");
@@ -20,20 +27,69 @@ import org.trashbot.tasks.Task;
  * </pre>
  * </p>
  *
- * @see Command
+ * @see RowCommand
  * @see Task
  */
-public class FindCommand implements Command {
+public class FindCommand implements RowCommand {
+    /**
+     * Command word that selects fuzzy matching
+     */
+    public static final String FUZZY_KEYWORD = "find~";
+
+    private static final String FUZZY_FLAG = "--fuzzy";
+
     private final String searchTerm;
+    private final boolean isFuzzy;
+
+    /**
+     * The search index used to answer the query, or null to scan every task
+     */
+    private final SearchIndex index;
+
+    /**
+     * Renders the rows of a scan, in parallel on large lists
+     */
+    private final ParallelRenderer renderer;
 
     /**
-     * Constructs a new FindCommand with the specified search term.
+     * Constructs a new FindCommand with the specified search term that scans every task.
      *
      * @param term The raw input string containing both the command and search term
      *             in the format "find searchTerm"
      */
     public FindCommand(String term) {
-        this.searchTerm = term.substring(5).trim().toLowerCase();
+        this(term, null);
+    }
+
+    /**
+     * Constructs a new FindCommand with the specified search term that uses the given index.
+     *
+     * @param term  The raw input string containing both the command and search term
+     *              in the format "find searchTerm"
+     * @param index The search index used to answer the query, or null to scan every task
+     */
+    public FindCommand(String term, SearchIndex index) {
+        this(term, index, ParallelRenderer.DEFAULT);
+    }
+
+    /**
+     * Constructs a new FindCommand that renders a scan with the given renderer.
+     *
+     * @param term     The raw input string in the format "find searchTerm"
+     * @param index    The search index used to answer the query, or null to scan every task
+     * @param renderer Renders the rows of a scan
+     */
+    FindCommand(String term, SearchIndex index, ParallelRenderer renderer) {
+        if (term.toLowerCase().startsWith(FUZZY_KEYWORD)) {
+            this.isFuzzy = true;
+            this.searchTerm = term.substring(FUZZY_KEYWORD.length()).trim().toLowerCase();
+        } else {
+            String argument = term.substring(5).trim();
+            this.isFuzzy = argument.split("\\s", 2)[0].equalsIgnoreCase(FUZZY_FLAG);
+            this.searchTerm = (isFuzzy ? argument.substring(FUZZY_FLAG.length()) : argument).trim().toLowerCase();
+        }
+        this.index = index;
+        this.renderer = renderer;
     }
 
     /**
@@ -49,23 +105,144 @@ public class FindCommand implements Command {
      */
     @Override
     public String execute(List<Task> tasks, DataPersistence storage) {
-        List<Task> matchingTasks = tasks.stream()
-                .filter(task -> task.getDescription().toLowerCase().contains(searchTerm))
-                .toList();
+        StringBuilder rows;
+        if (isIndexed()) {
+            rows = renderPositions(tasks, findPositions(tasks));
+        } else {
+            rows = renderer.render(tasks, (list, position, output) -> {
+                Task task = list.get(position);
+                if (task.getDescription().toLowerCase().contains(searchTerm)) {
+                    appendRow(output, position, task);
+                }
+            });
+        }
 
-        if (matchingTasks.isEmpty()) {
+        if (rows.length() == 0) {
             return "____________________________________________________________\n"
                     + " No matching tasks found!\n"
                     + "____________________________________________________________";
         }
 
         StringBuilder output = new StringBuilder(" Here are the matching tasks in the list:\n");
-        for (Task task : matchingTasks) {
-            output.append(" ").append(tasks.indexOf(task) + 1).append(".").append(task).append("\n");
-        }
+        output.append(rows);
 
         return "____________________________________________________________\n"
                 + output.toString().trim() + "\n"
                 + "____________________________________________________________";
     }
+
+    /**
+     * Writes the same output as {@link #execute}, one matching task at a time, so that the
+     * output of a broad search is never built in memory.
+     *
+     * @param tasks   The list of tasks to search through
+     * @param storage The data persistence mechanism (unused in this implementation)
+     * @param output  Where the output is written
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    public void writeTo(List<Task> tasks, DataPersistence storage, Appendable output) throws IOException {
+        int matchCount = 0;
+        if (isIndexed()) {
+            for (int position : findPositions(tasks)) {
+                writeRow(output, matchCount++, position, tasks.get(position));
+            }
+        } else {
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                if (task.getDescription().toLowerCase().contains(searchTerm)) {
+                    writeRow(output, matchCount++, i, task);
+                }
+            }
+        }
+
+        if (matchCount == 0) {
+            output.append("____________________________________________________________\n")
+                    .append(" No matching tasks found!\n");
+        }
+        output.append("____________________________________________________________");
+    }
+
+    /**
+     * Copies the matching tasks into rows.
+     *
+     * @param tasks The list of tasks to search through
+     * @return the rows of the matching tasks, in list order
+     */
+    @Override
+    public List<TaskRow> selectRows(List<Task> tasks) {
+        List<TaskRow> rows = new ArrayList<>();
+        if (isIndexed()) {
+            for (int position : findPositions(tasks)) {
+                rows.add(TaskRow.of(position, tasks.get(position)));
+            }
+            return rows;
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.getDescription().toLowerCase().contains(searchTerm)) {
+                rows.add(TaskRow.of(i, task));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public String describe(List<TaskRow> rows) {
+        return rows.isEmpty()
+                ? "No matching tasks found!"
+                : "Here are the " + rows.size() + " matching tasks in the list:";
+    }
+
+    /**
+     * Checks whether the query is answered from a search index rather than by a scan.
+     */
+    private boolean isIndexed() {
+        return isFuzzy || index != null;
+    }
+
+    /**
+     * Looks up the positions of the matching tasks in the search index.
+     *
+     * @param tasks The list of tasks to search through
+     * @return 0-based positions of the matching tasks, in list order
+     */
+    private List<Integer> findPositions(List<Task> tasks) {
+        if (isFuzzy) {
+            SearchIndex fuzzyIndex = index != null ? index : new SearchIndex();
+            return fuzzyIndex.findFuzzy(tasks, searchTerm);
+        }
+        return index.find(tasks, searchTerm);
+    }
+
+    /**
+     * Renders the rows of the tasks at the given positions.
+     *
+     * @param tasks     The list of tasks
+     * @param positions 0-based positions of the matching tasks, in list order
+     * @return the rendered rows
+     */
+    private static StringBuilder renderPositions(List<Task> tasks, List<Integer> positions) {
+        StringBuilder rows = new StringBuilder();
+        for (int position : positions) {
+            appendRow(rows, position, tasks.get(position));
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the row of a matching task, preceded by the header if it is the first match.
+     */
+    private static void writeRow(Appendable output, int matchCount, int position, Task task) throws IOException {
+        if (matchCount == 0) {
+            output.append("____________________________________________________________\n")
+                    .append("Here are the matching tasks in the list:\n");
+        }
+        output.append(" ").append(String.valueOf(position + 1)).append(".").append(task.toString()).append("\n");
+    }
+
+    private static void appendRow(StringBuilder output, int position, Task task) {
+        output.append(" ").append(position + 1).append(".").append(task).append("\n");
+    }
 }
@@ -1,5 +1,7 @@
 package org.trashbot.commands;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.trashbot.storage.DataPersistence;
@@ -33,10 +35,31 @@ import org.trashbot.tasks.Task;
  * </pre>
  * </p>
  *
- * @see Command
+ * @see RowCommand
  * @see Task
  */
-public class ListCommand implements Command {
+public class ListCommand implements RowCommand {
+    /**
+     * Renders the rows, in parallel on large lists
+     */
+    private final ParallelRenderer renderer;
+
+    /**
+     * Constructs a new ListCommand.
+     */
+    public ListCommand() {
+        this(ParallelRenderer.DEFAULT);
+    }
+
+    /**
+     * Constructs a new ListCommand that renders with the given renderer.
+     *
+     * @param renderer Renders the rows of the list
+     */
+    ListCommand(ParallelRenderer renderer) {
+        this.renderer = renderer;
+    }
+
     /**
      * Executes the list command by displaying all tasks in the task list.
      * The method formats the output with sequential numbering and decorative borders.
@@ -56,12 +79,57 @@ public class ListCommand implements Command {
         }
 
         StringBuilder output = new StringBuilder(" Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            output.append(" ").append(i + 1).append(".").append(tasks.get(i)).append("\n");
-        }
+        output.append(renderer.render(tasks, (list, position, rows) ->
+                rows.append(" ").append(position + 1).append(".").append(list.get(position)).append("\n")));
 
         return "____________________________________________________________\n"
                 + output.toString().trim() + "\n"
                 + "____________________________________________________________";
     }
+
+    /**
+     * Writes the same output as {@link #execute}, one task at a time, so that the output of a
+     * long list is never built in memory.
+     *
+     * @param tasks   The list of tasks to be displayed
+     * @param storage The data persistence mechanism (unused in this implementation)
+     * @param output  Where the output is written
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    public void writeTo(List<Task> tasks, DataPersistence storage, Appendable output) throws IOException {
+        if (tasks.isEmpty()) {
+            output.append("List is empty!");
+            return;
+        }
+
+        output.append("____________________________________________________________\n")
+                .append("Here are the tasks in your list:\n");
+        for (int i = 0; i < tasks.size(); i++) {
+            output.append(" ").append(String.valueOf(i + 1)).append(".").append(tasks.get(i).toString()).append("\n");
+        }
+        output.append("____________________________________________________________");
+    }
+
+    /**
+     * Copies every task in the task list into a row.
+     *
+     * @param tasks The list of tasks to be displayed
+     * @return the rows of all tasks
+     */
+    @Override
+    public List<TaskRow> selectRows(List<Task> tasks) {
+        List<TaskRow> rows = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            rows.add(TaskRow.of(i, tasks.get(i)));
+        }
+        return rows;
+    }
+
+    @Override
+    public String describe(List<TaskRow> rows) {
+        return rows.isEmpty()
+                ? "List is empty!"
+                : "Here are the " + rows.size() + " tasks in your list:";
+    }
 }
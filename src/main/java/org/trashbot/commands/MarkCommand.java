@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.trashbot.exceptions.DukeException;
 import org.trashbot.exceptions.InvalidFormatException;
+import org.trashbot.search.TaskIndex;
 import org.trashbot.storage.DataPersistence;
 import org.trashbot.tasks.Task;
 
@@ -43,6 +44,11 @@ public class MarkCommand implements Command {
      */
     private boolean isMarkedAsDone;
 
+    /**
+     * The search index to notify after the task is marked
+     */
+    private final TaskIndex index;
+
     /**
      * Constructs a new MarkCommand for the specified task number and completion status.
      *
@@ -50,8 +56,20 @@ public class MarkCommand implements Command {
      * @param isMarkedAsDone True to mark the task as done, false to mark as not done
      */
     public MarkCommand(int taskNum, boolean isMarkedAsDone) {
+        this(taskNum, isMarkedAsDone, TaskIndex.NONE);
+    }
+
+    /**
+     * Constructs a new MarkCommand that keeps the given search index up to date.
+     *
+     * @param taskNum    The index of the task to be marked (0-based index)
+     * @param isMarkedAsDone True to mark the task as done, false to mark as not done
+     * @param index      The search index to notify after the task is marked
+     */
+    public MarkCommand(int taskNum, boolean isMarkedAsDone, TaskIndex index) {
         this.taskNum = taskNum;
         this.isMarkedAsDone = isMarkedAsDone;
+        this.index = index;
     }
 
     /**
@@ -70,7 +88,7 @@ public class MarkCommand implements Command {
      * @throws IOException            if there is an error saving the task list to storage
      * @see Task#markAsDone()
      * @see Task#markAsNotDone()
-     * @see DataPersistence#save(List)
+     * @see DataPersistence#update(List, int, boolean)
      */
     @Override
     public String execute(List<Task> tasks, DataPersistence storage) throws DukeException, IOException {
@@ -83,6 +101,7 @@ public class MarkCommand implements Command {
         }
 
         Task task = tasks.get(taskNum);
+        boolean wasDone = task.isDone();
         String message;
 
         if (isMarkedAsDone) {
@@ -93,7 +112,8 @@ public class MarkCommand implements Command {
             message = String.format(" Okay, I've marked this task as not done:\n  %s", task);
         }
 
-        storage.save(tasks);
+        storage.update(tasks, taskNum, wasDone);
+        index.updated(tasks, taskNum);
         return message;
     }
 }
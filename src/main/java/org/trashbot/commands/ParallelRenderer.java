@@ -0,0 +1,142 @@
+package org.trashbot.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * Renders the rows of a scan-based command over ranges of the task list in parallel.
+ *
+ * <p>Lists shorter than the threshold are rendered sequentially on the calling thread. Longer
+ * lists are split in half on a {@link ForkJoinPool} down to ranges of a few thousand tasks;
+ * every range filters and renders its own rows into a separate buffer, and the buffers are
+ * concatenated in list order, so the result is exactly that of a sequential pass.</p>
+ *
+ * <p>The threshold can be set with the system property {@code trashbot.parallelThreshold}.</p>
+ *
+ * @see ListCommand
+ * @see FindCommand
+ */
+class ParallelRenderer {
+    /**
+     * Default number of tasks from which rendering runs in parallel
+     */
+    static final int DEFAULT_THRESHOLD = 50_000;
+
+    /**
+     * Renderer using the configured threshold and the common pool
+     */
+    static final ParallelRenderer DEFAULT = new ParallelRenderer(
+            Integer.getInteger("trashbot.parallelThreshold", DEFAULT_THRESHOLD), ForkJoinPool.commonPool());
+
+    /**
+     * Renderer that never runs in parallel
+     */
+    static final ParallelRenderer SEQUENTIAL = new ParallelRenderer(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+
+    private static final int MIN_RANGE_SIZE = 4_096;
+    private static final int RANGES_PER_THREAD = 4;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a renderer.
+     *
+     * @param threshold number of tasks from which rendering runs in parallel
+     * @param pool      the pool that renders the ranges
+     */
+    ParallelRenderer(int threshold, ForkJoinPool pool) {
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Renders one row of output, if any, for a task.
+     */
+    @FunctionalInterface
+    interface RowRenderer {
+        /**
+         * Appends the row for the task at the given position, or nothing if it is filtered out.
+         *
+         * @param tasks    the list of tasks
+         * @param position the 0-based position of the task
+         * @param output   the buffer of the range being rendered
+         */
+        void render(List<Task> tasks, int position, StringBuilder output);
+    }
+
+    /**
+     * Renders the rows of every task in list order.
+     *
+     * @param tasks    the list of tasks
+     * @param renderer renders the row of a single task
+     * @return the concatenated rows
+     */
+    StringBuilder render(List<Task> tasks, RowRenderer renderer) {
+        int size = tasks.size();
+        if (size < threshold || pool.getParallelism() <= 1) {
+            return renderRange(tasks, renderer, 0, size);
+        }
+
+        int rangeSize = Math.max(MIN_RANGE_SIZE, size / (pool.getParallelism() * RANGES_PER_THREAD) + 1);
+        List<StringBuilder> parts = pool.invoke(new RangeTask(tasks, renderer, 0, size, rangeSize));
+
+        int length = 0;
+        for (StringBuilder part : parts) {
+            length += part.length();
+        }
+        StringBuilder output = new StringBuilder(length);
+        for (StringBuilder part : parts) {
+            output.append(part);
+        }
+        return output;
+    }
+
+    private static StringBuilder renderRange(List<Task> tasks, RowRenderer renderer, int from, int to) {
+        StringBuilder output = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            renderer.render(tasks, i, output);
+        }
+        return output;
+    }
+
+    /**
+     * Splits a range of positions in half until it is small enough, then renders it.
+     */
+    private static class RangeTask extends RecursiveTask<List<StringBuilder>> {
+        private final List<Task> tasks;
+        private final RowRenderer renderer;
+        private final int from;
+        private final int to;
+        private final int rangeSize;
+
+        RangeTask(List<Task> tasks, RowRenderer renderer, int from, int to, int rangeSize) {
+            this.tasks = tasks;
+            this.renderer = renderer;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+        }
+
+        @Override
+        protected List<StringBuilder> compute() {
+            if (to - from <= rangeSize) {
+                List<StringBuilder> parts = new ArrayList<>();
+                parts.add(renderRange(tasks, renderer, from, to));
+                return parts;
+            }
+
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(tasks, renderer, from, middle, rangeSize);
+            RangeTask right = new RangeTask(tasks, renderer, middle, to, rangeSize);
+            right.fork();
+            List<StringBuilder> parts = left.compute();
+            parts.addAll(right.join());
+            return parts;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.trashbot.commands;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.query.Expression;
+import org.trashbot.query.Plan;
+import org.trashbot.query.QueryParser;
+import org.trashbot.query.QueryPlanner;
+import org.trashbot.search.SearchIndex;
+import org.trashbot.storage.DataPersistence;
+import org.trashbot.tasks.Task;
+
+/**
+ * Handles structured queries over the task list, combining predicates on the task type,
+ * completion status, due date and description.
+ *
+ * <p>The command expects input in the format: "query &lt;expression&gt;", for example
+ * "query type:deadline done:false due&lt;2026-12-01 text:report". Predicates are combined with
+ * AND (implied between adjacent predicates), OR, NOT and parentheses; see
+ * {@link org.trashbot.query.Predicate} for the available predicates.</p>
+ *
+ * <p>"query explain &lt;expression&gt;" shows the plan chosen for the expression, with the
+ * estimated number of tasks produced by each step, instead of running it.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * QueryCommand cmd = new QueryCommand("query done:false OR due&lt;2026-01-01", index);
+ * cmd.execute(taskList, storage);
+ * </pre>
+ * </p>
+ *
+ * @see Command
+ * @see QueryPlanner
+ */
+public class QueryCommand implements Command {
+    private static final String EXPLAIN = "explain";
+
+    private final String query;
+    private final boolean isExplain;
+
+    /**
+     * The search index used to answer the query, or null to plan against a fresh one
+     */
+    private final SearchIndex index;
+
+    /**
+     * Constructs a new QueryCommand for the given input.
+     *
+     * @param input The raw input string in the format "query [explain] expression"
+     * @param index The search index used to answer the query, or null to plan against a fresh one
+     */
+    public QueryCommand(String input, SearchIndex index) {
+        String argument = input.substring(5).trim();
+        String[] parts = argument.split("\\s+", 2);
+        this.isExplain = parts[0].equalsIgnoreCase(EXPLAIN);
+        this.query = isExplain
+                ? (parts.length > 1 ? parts[1] : "")
+                : argument;
+        this.index = index;
+    }
+
+    /**
+     * Executes the query, or describes its plan in explain mode.
+     *
+     * @param tasks   The list of tasks to query
+     * @param storage The data persistence mechanism (unused in this implementation)
+     * @return String containing the command's output message
+     * @throws DukeException if the query cannot be parsed
+     */
+    @Override
+    public String execute(List<Task> tasks, DataPersistence storage) throws DukeException {
+        Expression expression = new QueryParser(query).parse();
+        SearchIndex searchIndex = index != null ? index : new SearchIndex();
+        Plan plan = new QueryPlanner(tasks, searchIndex).plan(expression);
+
+        if (isExplain) {
+            return "____________________________________________________________\n"
+                    + " Query: " + expression + "\n"
+                    + " Plan:\n"
+                    + plan.explain().indent(2)
+                    + "____________________________________________________________";
+        }
+
+        BitSet matchingTasks = plan.execute(tasks, searchIndex);
+        if (matchingTasks.isEmpty()) {
+            return "____________________________________________________________\n"
+                    + " No matching tasks found!\n"
+                    + "____________________________________________________________";
+        }
+
+        StringBuilder output = new StringBuilder(" Here are the matching tasks in the list:\n");
+        for (int i = matchingTasks.nextSetBit(0); i >= 0; i = matchingTasks.nextSetBit(i + 1)) {
+            output.append(" ").append(i + 1).append(".").append(tasks.get(i)).append("\n");
+        }
+
+        return "____________________________________________________________\n"
+                + output.toString().trim() + "\n"
+                + "____________________________________________________________";
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package org.trashbot.commands;
+
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.search.TaskIndex;
+import org.trashbot.storage.DataPersistence;
+import org.trashbot.storage.TransactionalStorage;
+import org.trashbot.tasks.Task;
+
+/**
+ * Ends the current transaction and restores the task list to what it was when the transaction
+ * began, without writing anything.
+ *
+ * <p>Example usage:
+ * <pre>
+ * RollbackCommand cmd = new RollbackCommand(transactions, index);
+ * cmd.execute(taskList, storage);
+ * </pre>
+ * </p>
+ *
+ * @see BeginCommand
+ * @see TransactionalStorage
+ */
+public class RollbackCommand implements Command {
+    /**
+     * The storage whose transactions this command controls
+     */
+    private final TransactionalStorage transactions;
+
+    /**
+     * The search index to notify after the list is restored
+     */
+    private final TaskIndex index;
+
+    /**
+     * Constructs a new RollbackCommand.
+     *
+     * @param transactions The storage whose transactions this command controls
+     * @param index        The search index to notify after the list is restored
+     */
+    public RollbackCommand(TransactionalStorage transactions, TaskIndex index) {
+        this.transactions = transactions;
+        this.index = index;
+    }
+
+    /**
+     * Rolls back the transaction.
+     *
+     * @param tasks   The list of tasks changed by the transaction, which is restored in place
+     * @param storage The data persistence mechanism (unused in this implementation)
+     * @return String containing the command's output message
+     * @throws DukeException if no transaction is in progress
+     */
+    @Override
+    public String execute(List<Task> tasks, DataPersistence storage) throws DukeException {
+        int changeCount = transactions.rollback(tasks);
+        if (changeCount > 0) {
+            index.replaced(tasks);
+        }
+        return String.format(" Okay, I've undone the %d change(s) made in this transaction.\n"
+                + " Now you have %d tasks in the list.", changeCount, tasks.size());
+    }
+}
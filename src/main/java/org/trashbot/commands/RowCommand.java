@@ -0,0 +1,39 @@
+package org.trashbot.commands;
+
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+
+/**
+ * A read-only command whose result is a list of tasks, which can be returned as rows instead of
+ * text so that a graphical front end can display, sort and filter large results without
+ * rendering them into one string.
+ *
+ * <p>{@link #execute} still returns the full text, as shown by the command line.</p>
+ *
+ * @see TaskRow
+ */
+public interface RowCommand extends Command {
+    /**
+     * Selects the tasks of the result, in list order.
+     *
+     * @param tasks list of tasks to operate on
+     * @return the rows of the result
+     * @throws DukeException if a custom error occurs during execution
+     */
+    List<TaskRow> selectRows(List<Task> tasks) throws DukeException;
+
+    /**
+     * Returns the line shown above the rows, or in their place if there are none.
+     *
+     * @param rows the rows returned by {@link #selectRows}
+     * @return a short description of the result
+     */
+    String describe(List<TaskRow> rows);
+
+    @Override
+    default boolean isReadOnly() {
+        return true;
+    }
+}
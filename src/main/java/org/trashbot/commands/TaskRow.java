@@ -0,0 +1,58 @@
+package org.trashbot.commands;
+
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Event;
+import org.trashbot.tasks.Task;
+
+/**
+ * One task in the result of a {@link RowCommand}, copied out of the task list so that it can be
+ * displayed while the list keeps changing.
+ *
+ * <p>{@link #toString()} renders the row exactly as the text output of the command does, for
+ * example "3.[D][X] submit report (by: Sep 11 2026 1:33pm)".</p>
+ *
+ * @param number      the 1-based position of the task in the list
+ * @param type        "T", "D" or "E" for todos, deadlines and events
+ * @param isDone      whether the task is done
+ * @param description the description of the task
+ * @param details     the due date of a deadline or the period of an event, or empty
+ */
+public record TaskRow(int number, String type, boolean isDone, String description, String details) {
+    /**
+     * Copies a task into a row.
+     *
+     * @param position the 0-based position of the task in the list
+     * @param task     the task
+     * @return the row of the task
+     */
+    public static TaskRow of(int position, Task task) {
+        String type;
+        String details;
+        if (task instanceof Deadline deadline) {
+            type = "D";
+            details = "by: " + deadline.getDateTime();
+        } else if (task instanceof Event event) {
+            type = "E";
+            details = "from: " + event.getFrom() + " to: " + event.getTo();
+        } else {
+            type = "T";
+            details = "";
+        }
+        return new TaskRow(position + 1, type, task.isDone(), task.getDescription(), details);
+    }
+
+    /**
+     * Gets the status icon for display purposes.
+     *
+     * @return "X" if the task is done, " " otherwise
+     */
+    public String statusIcon() {
+        return isDone ? "X" : " ";
+    }
+
+    @Override
+    public String toString() {
+        return number + ".[" + type + "][" + statusIcon() + "] " + description
+                + (details.isEmpty() ? "" : " (" + details + ")");
+    }
+}
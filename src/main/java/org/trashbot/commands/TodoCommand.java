@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.trashbot.exceptions.DukeException;
 import org.trashbot.exceptions.EmptyDescriptionException;
+import org.trashbot.search.TaskIndex;
 import org.trashbot.storage.DataPersistence;
 import org.trashbot.tasks.Task;
 import org.trashbot.tasks.Todo;
@@ -40,6 +41,11 @@ public class TodoCommand implements Command {
      */
     private final String input;
 
+    /**
+     * The search index to notify after the new task is added
+     */
+    private final TaskIndex index;
+
     /**
      * Constructs a new TodoCommand with the specified input string.
      *
@@ -47,7 +53,19 @@ public class TodoCommand implements Command {
      *              (should be in the format "todo description")
      */
     public TodoCommand(String input) {
+        this(input, TaskIndex.NONE);
+    }
+
+    /**
+     * Constructs a new TodoCommand with the specified input string.
+     *
+     * @param input The raw input string containing the todo task description
+     *              (should be in the format "todo description")
+     * @param index The search index to notify after the new task is added
+     */
+    public TodoCommand(String input, TaskIndex index) {
         this.input = input;
+        this.index = index;
     }
 
     /**
@@ -66,7 +84,7 @@ public class TodoCommand implements Command {
      *                                   (4 characters or less after trimming)
      * @throws IOException               if there is an error saving the task list to storage
      * @see Todo
-     * @see DataPersistence#save(List)
+     * @see DataPersistence#append(List, Task)
      */
     @Override
     public String execute(List<Task> tasks, DataPersistence storage) throws DukeException, IOException {
@@ -76,7 +94,8 @@ public class TodoCommand implements Command {
 
         Task newTask = new Todo(input);
         tasks.add(newTask);
-        storage.save(tasks);
+        storage.append(tasks, newTask);
+        index.added(tasks, newTask);
 
         return String.format(" Got it. I've added this task:\n  %s\n Now you have %d tasks in the list.",
                 newTask, tasks.size());
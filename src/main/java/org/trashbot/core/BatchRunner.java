@@ -0,0 +1,177 @@
+package org.trashbot.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.storage.DeferredStorage;
+import org.trashbot.storage.StorageFactory;
+
+/**
+ * Replays commands from a script or standard input through a {@link TrashBot} without
+ * starting the user interface, for seeding and migrating task lists in bulk.
+ *
+ * <p>Every non-empty line is one command; lines starting with {@code #} are comments. The
+ * script ends at its last line or at {@code bye}. The tasks are persisted through a
+ * {@link DeferredStorage}, so instead of every command rewriting the save file, the list is
+ * saved once at the end, or additionally after every N commands if a flush interval is
+ * given. No changes are written while a transaction is open, and a transaction that the
+ * script leaves open is rolled back at the end. Responses are printed as they are produced,
+ * so listing a large task list does not build its whole output in memory. A summary of the
+ * throughput is printed to standard error when the script ends.</p>
+ *
+ * <p>Usage:
+ * <pre>
+ * java -cp TrashBot.jar org.trashbot.core.BatchRunner [--save FILE] [--flush-every N] [--quiet] [SCRIPT]
+ * </pre>
+ * The save file defaults to the one used by the application. Without a script, or with
+ * {@code -}, commands are read from standard input. {@code --quiet} suppresses the responses.</p>
+ *
+ * @see TrashBot
+ */
+public class BatchRunner {
+    private static final String DEFAULT_SAVE_FILE = "./data/TrashBot.sav";
+    private static final String STANDARD_INPUT = "-";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String ROLLBACK = "rollback";
+
+    private final TrashBot trashBot;
+    private final DeferredStorage storage;
+    private final int flushInterval;
+
+    /**
+     * Creates a runner for a bot whose changes are recorded by the given storage.
+     *
+     * @param trashBot      the bot that executes the commands
+     * @param storage       the storage the bot was created with
+     * @param flushInterval number of commands after which pending changes are written, or 0 to
+     *                      write only at the end
+     */
+    public BatchRunner(TrashBot trashBot, DeferredStorage storage, int flushInterval) {
+        assert flushInterval >= 0 : "Flush interval cannot be negative";
+        this.trashBot = trashBot;
+        this.storage = storage;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Executes every command read from the script and writes the pending changes at the end.
+     *
+     * @param script    the commands, one per line
+     * @param responses where the responses are printed, or null to discard them
+     * @return the number of commands, writes and the time taken
+     * @throws IOException if the script cannot be read or the tasks cannot be saved
+     */
+    public BatchReport run(BufferedReader script, PrintStream responses) throws IOException {
+        long start = System.nanoTime();
+        int commandCount = 0;
+        int writesBefore = storage.getWriteCount();
+        Appendable output = responses != null ? responses : Writer.nullWriter();
+
+        String line;
+        while ((line = script.readLine()) != null) {
+            String input = line.trim();
+            if (input.isEmpty() || input.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+
+            commandCount++;
+            if (!trashBot.handle(input, output)) {
+                break;
+            }
+            if (responses != null) {
+                responses.println();
+            }
+            if (flushInterval > 0 && commandCount % flushInterval == 0 && !trashBot.isInTransaction()) {
+                flush();
+            }
+        }
+        if (trashBot.isInTransaction()) {
+            trashBot.handle(ROLLBACK, output);
+            if (responses != null) {
+                responses.println();
+            }
+        }
+        flush();
+
+        return new BatchReport(commandCount, storage.getWriteCount() - writesBefore, System.nanoTime() - start);
+    }
+
+    private void flush() throws IOException {
+        try {
+            storage.flush();
+        } catch (DukeException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs a script against a save file.
+     *
+     * @param args the options and the script, see the class description
+     */
+    public static void main(String[] args) {
+        String saveFile = DEFAULT_SAVE_FILE;
+        String scriptFile = STANDARD_INPUT;
+        int flushInterval = 0;
+        boolean isQuiet = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case "--save" -> saveFile = args[++i];
+                case "--flush-every" -> flushInterval = Integer.parseInt(args[++i]);
+                case "--quiet" -> isQuiet = true;
+                default -> scriptFile = args[i];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            System.err.println("Usage: BatchRunner [--save FILE] [--flush-every N] [--quiet] [SCRIPT]");
+            System.exit(2);
+        }
+
+        try (BufferedReader script = scriptFile.equals(STANDARD_INPUT)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(scriptFile), StandardCharsets.UTF_8)) {
+            DeferredStorage storage = new DeferredStorage(StorageFactory.create(saveFile));
+            TrashBot trashBot = new TrashBot(storage);
+            BatchReport report = new BatchRunner(trashBot, storage, Math.max(flushInterval, 0))
+                    .run(script, isQuiet ? null : System.out);
+            trashBot.shutdown();
+            System.err.println(report);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The outcome of replaying a script.
+     *
+     * @param commandCount number of commands executed
+     * @param writeCount   number of times the task list was saved
+     * @param elapsedNanos time taken, including the saves
+     */
+    public record BatchReport(int commandCount, int writeCount, long elapsedNanos) {
+        /**
+         * Returns the number of commands executed per second.
+         *
+         * @return the throughput
+         */
+        public double getCommandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commandCount * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Processed %,d commands in %.1f ms (%,.0f commands/s) with %d write(s)",
+                    commandCount, elapsedNanos / 1e6, getCommandsPerSecond(), writeCount);
+        }
+    }
+}
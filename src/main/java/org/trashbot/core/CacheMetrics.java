@@ -0,0 +1,11 @@
+package org.trashbot.core;
+
+/**
+ * A point-in-time view of the counters of the response cache of a {@link TrashBot}.
+ *
+ * @param hitCount  number of read-only commands answered from the cache
+ * @param missCount number of read-only commands that had to be executed
+ * @param size      number of responses currently cached, including stale ones
+ */
+public record CacheMetrics(long hitCount, long missCount, int size) {
+}
@@ -0,0 +1,283 @@
+package org.trashbot.core;
+
+import java.util.Arrays;
+
+import org.trashbot.commands.BeginCommand;
+import org.trashbot.commands.ByeCommand;
+import org.trashbot.commands.Command;
+import org.trashbot.commands.CommitCommand;
+import org.trashbot.commands.DeadlineCommand;
+import org.trashbot.commands.DeleteCommand;
+import org.trashbot.commands.EventCommand;
+import org.trashbot.commands.FindCommand;
+import org.trashbot.commands.ListCommand;
+import org.trashbot.commands.MarkCommand;
+import org.trashbot.commands.QueryCommand;
+import org.trashbot.commands.RollbackCommand;
+import org.trashbot.commands.TodoCommand;
+import org.trashbot.exceptions.UnknownInputException;
+import org.trashbot.search.SearchIndex;
+import org.trashbot.storage.TransactionalStorage;
+
+/**
+ * Turns user input into a {@link Command} in a single pass, without using exceptions for
+ * control flow.
+ *
+ * <p>The command word is matched case-insensitively against a trie built once from
+ * {@link CommandType}, character by character as it is read, so unknown words are rejected
+ * without splitting, case-converting or copying the input. Task numbers are parsed in place.
+ * Malformed input is reported through a {@link ParseResult} instead of an exception.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * ParseResult result = new CommandParser(index, transactions).parse("mark 2");
+ * if (result.isSuccess()) {
+ *     result.command().execute(tasks, storage);
+ * }
+ * </pre>
+ * </p>
+ *
+ * @see TrashBot
+ */
+class CommandParser {
+    private static final KeywordTrie KEYWORDS = new KeywordTrie();
+
+    /**
+     * Returned by {@link #parseInt(CharSequence, int, int)} for text that is not an int
+     */
+    private static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private final SearchIndex searchIndex;
+    private final TransactionalStorage transactions;
+
+    /**
+     * Creates a parser whose commands maintain the given index and transactions.
+     *
+     * @param searchIndex  the index passed to the commands that change or search the tasks
+     * @param transactions the storage whose transactions are controlled by begin, commit and rollback
+     */
+    CommandParser(SearchIndex searchIndex, TransactionalStorage transactions) {
+        this.searchIndex = searchIndex;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Parses the input into a command.
+     *
+     * @param input the raw command string
+     * @return the command, or the message explaining why the input is invalid
+     */
+    ParseResult parse(String input) {
+        if (input == null || input.isBlank()) {
+            return ParseResult.failure(UnknownInputException.describe("Command cannot be empty"));
+        }
+
+        int wordEnd = input.indexOf(' ');
+        if (wordEnd < 0) {
+            wordEnd = input.length();
+        }
+        CommandType type = KEYWORDS.match(input, wordEnd);
+        if (type == null) {
+            return ParseResult.failure(UnknownInputException.describe(input.substring(0, wordEnd).toLowerCase()));
+        }
+
+        return switch (type) {
+        case TODO -> ParseResult.success(new TodoCommand(input, searchIndex));
+        case DEADLINE -> ParseResult.success(new DeadlineCommand(input, searchIndex));
+        case EVENT -> ParseResult.success(new EventCommand(input, searchIndex));
+        case LIST -> ParseResult.success(new ListCommand());
+        case DELETE -> parseDelete(input, wordEnd);
+        case MARK -> parseMark(input, wordEnd, true);
+        case UNMARK -> parseMark(input, wordEnd, false);
+        case FIND -> ParseResult.success(new FindCommand(input, searchIndex));
+        case QUERY -> ParseResult.success(new QueryCommand(input, searchIndex));
+        case BEGIN -> ParseResult.success(new BeginCommand(transactions));
+        case COMMIT -> ParseResult.success(new CommitCommand(transactions));
+        case ROLLBACK -> ParseResult.success(new RollbackCommand(transactions, searchIndex));
+        case BYE -> ParseResult.success(new ByeCommand());
+        };
+    }
+
+    /**
+     * Parses the whitespace-separated task numbers after the command word.
+     */
+    private ParseResult parseDelete(String input, int wordEnd) {
+        if (wordEnd == input.length()) {
+            return ParseResult.failure("Please specify task number(s) to delete");
+        }
+
+        int[] taskIds = new int[4];
+        int count = 0;
+        int position = skipWhitespace(input, wordEnd + 1);
+        do {
+            int end = position;
+            while (end < input.length() && !Character.isWhitespace(input.charAt(end))) {
+                end++;
+            }
+
+            long taskNumber = parseInt(input, position, end);
+            if (taskNumber == NOT_AN_INT) {
+                return ParseResult.failure(input.substring(position, end) + " is out of bounds");
+            }
+            if (count == taskIds.length) {
+                taskIds = Arrays.copyOf(taskIds, count * 2);
+            }
+            taskIds[count++] = (int) taskNumber - 1;
+            position = skipWhitespace(input, end);
+        } while (position < input.length());
+
+        return ParseResult.success(new DeleteCommand(searchIndex, Arrays.copyOf(taskIds, count)));
+    }
+
+    /**
+     * Parses the single task number after the command word.
+     */
+    private ParseResult parseMark(String input, int wordEnd, boolean isDone) {
+        int start = skipWhitespace(input, Math.min(wordEnd + 1, input.length()));
+        int end = input.length();
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        if (start >= end) {
+            return ParseResult.failure("Please specify a task number to mark");
+        }
+
+        long taskNumber = parseInt(input, start, end);
+        if (taskNumber == NOT_AN_INT) {
+            return ParseResult.failure(input + " is out of bounds");
+        }
+        return ParseResult.success(new MarkCommand((int) taskNumber - 1, isDone, searchIndex));
+    }
+
+    private static int skipWhitespace(String input, int from) {
+        int position = from;
+        while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Parses a decimal int with an optional sign, accepting exactly what
+     * {@link Integer#parseInt(String)} accepts.
+     *
+     * @param text  the text containing the number
+     * @param start index of the first character of the number
+     * @param end   index just past the last character of the number
+     * @return the value, or {@link #NOT_AN_INT} if the text is not a valid int
+     */
+    static long parseInt(CharSequence text, int start, int end) {
+        if (start >= end) {
+            return NOT_AN_INT;
+        }
+
+        boolean isNegative = text.charAt(start) == '-';
+        int position = text.charAt(start) == '-' || text.charAt(start) == '+' ? start + 1 : start;
+        if (position == end) {
+            return NOT_AN_INT;
+        }
+
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = Character.digit(text.charAt(position), 10);
+            if (digit < 0) {
+                return NOT_AN_INT;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return NOT_AN_INT;
+            }
+        }
+
+        value = isNegative ? -value : value;
+        return value > Integer.MAX_VALUE ? NOT_AN_INT : value;
+    }
+
+    /**
+     * The outcome of parsing: either a command or an error message.
+     *
+     * @param command the parsed command, or null if parsing failed
+     * @param error   the reason parsing failed, or null if it succeeded
+     */
+    record ParseResult(Command command, String error) {
+        static ParseResult success(Command command) {
+            return new ParseResult(command, null);
+        }
+
+        static ParseResult failure(String error) {
+            return new ParseResult(null, error);
+        }
+
+        boolean isSuccess() {
+            return command != null;
+        }
+    }
+
+    /**
+     * A trie over the lowercase command words, with transitions for ASCII letters and '~'.
+     */
+    private static class KeywordTrie {
+        private static final int ALPHABET_SIZE = 27;
+        private static final int TILDE = 26;
+
+        private int[][] transitions = new int[1][ALPHABET_SIZE];
+        private CommandType[] terminals = new CommandType[1];
+        private int nodeCount = 1;
+
+        KeywordTrie() {
+            for (CommandType type : CommandType.values()) {
+                add(type.name().toLowerCase(), type);
+            }
+            add(FindCommand.FUZZY_KEYWORD, CommandType.FIND);
+        }
+
+        /**
+         * Returns the command type spelled by the first characters of the input, ignoring case.
+         *
+         * @param input the raw input
+         * @param end   index just past the command word
+         * @return the command type, or null if the word is not a command
+         */
+        CommandType match(String input, int end) {
+            int node = 0;
+            for (int i = 0; i < end; i++) {
+                int symbol = symbolOf(input.charAt(i));
+                if (symbol < 0) {
+                    return null;
+                }
+                node = transitions[node][symbol];
+                if (node == 0) {
+                    return null;
+                }
+            }
+            return terminals[node];
+        }
+
+        private void add(String word, CommandType type) {
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int symbol = symbolOf(word.charAt(i));
+                if (transitions[node][symbol] == 0) {
+                    if (nodeCount == transitions.length) {
+                        transitions = Arrays.copyOf(transitions, nodeCount * 2);
+                        terminals = Arrays.copyOf(terminals, nodeCount * 2);
+                    }
+                    transitions[nodeCount] = new int[ALPHABET_SIZE];
+                    transitions[node][symbol] = nodeCount++;
+                }
+                node = transitions[node][symbol];
+            }
+            terminals[node] = type;
+        }
+
+        private static int symbolOf(char c) {
+            if (c >= 'a' && c <= 'z') {
+                return c - 'a';
+            }
+            if (c >= 'A' && c <= 'Z') {
+                return c - 'A';
+            }
+            return c == '~' ? TILDE : -1;
+        }
+    }
+}
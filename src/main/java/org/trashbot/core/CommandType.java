@@ -13,5 +13,9 @@ public enum CommandType {
     MARK,
     UNMARK,
     FIND,
+    QUERY,
+    BEGIN,
+    COMMIT,
+    ROLLBACK,
     BYE
 }
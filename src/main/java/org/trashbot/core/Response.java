@@ -0,0 +1,33 @@
+package org.trashbot.core;
+
+import java.util.List;
+
+import org.trashbot.commands.TaskRow;
+
+/**
+ * The response to a command as returned by {@link TrashBot#respond(String)}: a message and,
+ * for commands that list tasks, the listed tasks as rows.
+ *
+ * @param text the message, which for a list of tasks only describes it
+ * @param rows the listed tasks, or empty
+ */
+public record Response(String text, List<TaskRow> rows) {
+    /**
+     * Creates a response that consists of a message only.
+     *
+     * @param text the message
+     * @return the response
+     */
+    public static Response of(String text) {
+        return new Response(text, List.of());
+    }
+
+    /**
+     * Checks whether the response lists tasks.
+     *
+     * @return true if there are rows to display
+     */
+    public boolean hasRows() {
+        return !rows.isEmpty();
+    }
+}
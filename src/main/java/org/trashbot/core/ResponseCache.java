@@ -0,0 +1,103 @@
+package org.trashbot.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of the responses to read-only commands.
+ *
+ * <p>Every response is stamped with the modification generation of the task list it was
+ * computed from. A lookup only hits if the stamp equals the current generation, so a single
+ * increment of the generation by a mutating command invalidates every entry at once, without
+ * visiting them. Stale entries are dropped when they are next looked up or evicted.</p>
+ *
+ * <p>The cache is safe for use by concurrent readers.</p>
+ *
+ * @see TrashBot
+ */
+class ResponseCache {
+    /**
+     * Default maximum number of cached responses
+     */
+    static final int DEFAULT_CAPACITY = 64;
+
+    private final Map<String, Entry> entries;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Creates a cache holding at most the given number of responses.
+     *
+     * @param capacity maximum number of cached responses
+     */
+    ResponseCache(int capacity) {
+        assert capacity > 0 : "Capacity must be positive";
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the response cached for the command at the given generation.
+     *
+     * @param key        the normalized command
+     * @param generation the current modification generation
+     * @return the cached response, or null on a miss
+     */
+    synchronized String get(String key, long generation) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.generation() != generation) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return entry.response();
+    }
+
+    /**
+     * Caches the response of a command.
+     *
+     * @param key        the normalized command
+     * @param generation the modification generation the response was computed at
+     * @param response   the response
+     */
+    synchronized void put(String key, long generation, String response) {
+        entries.put(key, new Entry(generation, response));
+    }
+
+    /**
+     * Returns the cache counters.
+     *
+     * @return a snapshot of the counters
+     */
+    synchronized CacheMetrics getMetrics() {
+        return new CacheMetrics(hitCount, missCount, entries.size());
+    }
+
+    /**
+     * Normalizes a command so that inputs that differ only in the case of the command word, or
+     * in the whitespace around the arguments, share an entry. The command word is split off
+     * exactly as {@link TrashBot} does it, and the arguments keep their case, because it is up
+     * to the command to ignore it.
+     *
+     * @param input the raw command
+     * @return the cache key
+     */
+    static String keyOf(String input) {
+        String[] parts = input.split(" ", 2);
+        String commandWord = parts[0].toLowerCase();
+        return parts.length > 1
+                ? commandWord + " " + parts[1].trim()
+                : commandWord;
+    }
+
+    private record Entry(long generation, String response) {
+    }
+}
@@ -2,19 +2,23 @@ package org.trashbot.core;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-import org.trashbot.commands.ByeCommand;
 import org.trashbot.commands.Command;
-import org.trashbot.commands.DeadlineCommand;
-import org.trashbot.commands.DeleteCommand;
-import org.trashbot.commands.EventCommand;
-import org.trashbot.commands.FindCommand;
-import org.trashbot.commands.ListCommand;
-import org.trashbot.commands.MarkCommand;
-import org.trashbot.commands.TodoCommand;
+import org.trashbot.commands.RowCommand;
+import org.trashbot.commands.TaskRow;
 import org.trashbot.exceptions.DukeException;
-import org.trashbot.exceptions.UnknownInputException;
-import org.trashbot.storage.FileStorage;
+import org.trashbot.search.SearchIndex;
+import org.trashbot.storage.DataPersistence;
+import org.trashbot.storage.StorageFactory;
+import org.trashbot.storage.TransactionalStorage;
 import org.trashbot.tasks.Task;
 
 /**
@@ -28,13 +32,55 @@ import org.trashbot.tasks.Task;
  *   <li>Response handling and formatting</li>
  * </ul>
  * </p>
+ * <p>
+ * {@link #handle(String)} and {@link #submit(String)} may be called by any number of threads.
+ * Read-only commands run concurrently under the read lock; every other command runs alone
+ * under the write lock, so changes are applied one at a time. Transactions are shared by
+ * all callers. {@link #processCommand(String)} and {@link #getResponse()} keep the response
+ * in the bot and are meant for a single caller.
+ * </p>
  *
  */
 public class TrashBot {
     private static final String DEFAULT_RESPONSE = "I've processed your command.";
+    private static final String END_OF_PROGRAM = "END_PROGRAM";
+
+    /**
+     * Length of the longest response kept in the response cache, so that a few listings of a
+     * large task list cannot fill the memory
+     */
+    private static final int MAX_CACHED_RESPONSE_LENGTH = 1 << 18;
+
+    /**
+     * Length of the output a streamed command produces under the read lock before the lock is
+     * released to write it out
+     */
+    private static final int STREAM_PAGE_LENGTH = 1 << 13;
+
+    /**
+     * Ends a streamed response that was cut short because the tasks changed while it was written
+     */
+    private static final String STREAM_INTERRUPTED = "\n(The task list changed while it was being sent, "
+            + "so the rest was left out. Please try again.)";
     private final List<Task> tasks;
-    private final FileStorage storage;
+    private final DataPersistence storage;
+    private final TransactionalStorage transactions;
+    private final SearchIndex searchIndex;
+    private final CommandParser parser;
+    private final ResponseCache responseCache;
     private final StringBuilder currentResponse;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Runs the commands passed to {@link #submit(String)}
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Number of mutating commands executed so far, which stamps cached responses.
+     * Written under the write lock and read under either lock.
+     */
+    private long generation;
 
     /**
      * Constructs a new TrashBot instance and initializes it with a storage file.
@@ -44,9 +90,70 @@ public class TrashBot {
      * @throws IOException if there is an issue reading from or writing to the storage file
      */
     public TrashBot(String storageFilePath) throws IOException {
-        this.storage = new FileStorage(storageFilePath);
+        this(StorageFactory.create(storageFilePath));
+    }
+
+    /**
+     * Constructs a new TrashBot instance backed by the given storage.
+     * It loads the tasks from the storage into memory.
+     *
+     * @param storage the persistence backend used to load and save tasks
+     * @throws IOException if there is an issue reading from the storage
+     */
+    public TrashBot(DataPersistence storage) throws IOException {
+        TransactionalStorage transactions = new TransactionalStorage(storage);
+        this.storage = transactions;
+        this.transactions = transactions;
         this.tasks = storage.load();
+        this.searchIndex = new SearchIndex();
+        this.parser = new CommandParser(searchIndex, transactions);
+        this.responseCache = new ResponseCache(ResponseCache.DEFAULT_CAPACITY);
         this.currentResponse = new StringBuilder();
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new WorkerFactory());
+    }
+
+    /**
+     * Writes out any changes that the storage has not persisted yet, closes the storage, and
+     * stops the threads that run submitted commands once they are done.
+     * Should be called before the application exits; the bot must not be used afterwards.
+     *
+     * @throws IOException if the pending changes cannot be written
+     */
+    public void shutdown() throws IOException {
+        executor.shutdown();
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            storage.close();
+        } catch (DukeException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a transaction started with {@code begin} is still open.
+     *
+     * @return true between begin and the matching commit or rollback
+     */
+    public boolean isInTransaction() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return transactions.isActive();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the hit and miss counters of the cache of read-only command responses.
+     *
+     * @return a snapshot of the cache counters
+     */
+    public CacheMetrics getCacheMetrics() {
+        return responseCache.getMetrics();
     }
 
     /**
@@ -80,201 +187,331 @@ public class TrashBot {
                 : "Input cannot be empty";
 
         currentResponse.setLength(0);
-
-        try {
-            executeCommand(input);
-        } catch (DukeException | IOException e) {
-            handleCommandError(e);
-        }
+        currentResponse.append(handle(input));
     }
 
     /**
-     * Executes the parsed command and stores the output in the response buffer.
+     * Processes a command on a worker thread.
      *
-     * @param input the raw command string to execute
-     * @throws DukeException if there is an error in command execution
-     * @throws IOException if there is an error in file operations
+     * @param input the command string
+     * @return a future completed with the response, as returned by {@link #handle(String)}
      */
-    private void executeCommand(String input) throws DukeException, IOException {
-        Command command = parseCommand(input);
-        String output = command.execute(tasks, storage);
-        currentResponse.append(output);
+    public CompletableFuture<String> submit(String input) {
+        return CompletableFuture.supplyAsync(() -> handle(input), executor);
     }
 
     /**
-     * Handles exceptions that occur during command execution by formatting
-     * them into appropriate error messages.
+     * Processes a command and returns its response, which is an error message if the command
+     * is invalid or fails. Safe to call from several threads at once.
      *
-     * @param e the exception that occurred during command execution
+     * @param input the command string
+     * @return the response to the command
      */
-    private void handleCommandError(Exception e) {
-        String errorPrefix = e instanceof IOException ? "Error: " : "";
-        currentResponse.append(errorPrefix)
-                .append(e.getMessage());
+    public String handle(String input) {
+        CommandParser.ParseResult result = parser.parse(input);
+        if (!result.isSuccess()) {
+            return result.error();
+        }
+
+        Command command = result.command();
+        try {
+            return command.isReadOnly()
+                    ? executeRead(command, input)
+                    : executeWrite(command);
+        } catch (DukeException | IOException e) {
+            return describeError(e);
+        }
     }
 
     /**
-     * Parses the user's input command string into a Command object.
+     * Processes a command like {@link #handle(String)}, but writes the response to the given
+     * sink as it is produced, so that commands that list many tasks never build their whole
+     * response in memory. Safe to call from several threads at once.
      * <p>
-     * This method performs the following steps:
-     * <ol>
-     *   <li>Validates the input is not null or empty</li>
-     *   <li>Determines the command type</li>
-     *   <li>Creates and returns the appropriate Command object</li>
-     * </ol>
+     * A read-only command renders its output a page at a time under the read lock, and each page
+     * is written to the sink with the lock released, so a slow sink never delays the commands
+     * that change the tasks. If the tasks change between two pages, the response ends with a
+     * note saying so instead of mixing two versions of the list. Streamed responses are served
+     * from the response cache when possible, and are added to it unless they are too long to keep.
      * </p>
      *
-     * @param input the command string to parse
-     * @return a Command object corresponding to the input command
-     * @throws UnknownInputException if the command type is not recognized or input is invalid
+     * @param input the command string
+     * @param output where the response is written
+     * @return false if the command ends the program, in which case nothing is written
+     * @throws IOException if the response cannot be written to the sink
      */
-    private Command parseCommand(String input) throws UnknownInputException {
-        checkInput(input);
-        CommandType type = getCommandType(input);
+    public boolean handle(String input, Appendable output) throws IOException {
+        CommandParser.ParseResult result = parser.parse(input);
+        if (!result.isSuccess()) {
+            output.append(result.error());
+            return true;
+        }
 
-        assert !input.trim().isEmpty()
-                : "Input cannot be empty";
+        Command command = result.command();
+        if (command.isReadOnly()) {
+            try {
+                streamRead(command, input, output);
+            } catch (DukeException e) {
+                output.append(describeError(e));
+            }
+            return true;
+        }
 
-        return generateCommand(type, input);
+        String response;
+        try {
+            response = executeWrite(command);
+        } catch (DukeException | IOException e) {
+            response = describeError(e);
+        }
+        if (response.equals(END_OF_PROGRAM)) {
+            return false;
+        }
+        output.append(response);
+        return true;
     }
 
     /**
-     * Extracts and validates the command type from the input string.
+     * Processes a command like {@link #handle(String)}, but returns the tasks listed by
+     * commands such as list and find as rows, without rendering them into the text.
+     * Safe to call from several threads at once.
      *
-     * @param input the raw command string
-     * @return the CommandType enum value corresponding to the command
-     * @throws UnknownInputException if the command type is not recognized
+     * @param input the command string
+     * @return the response to the command
      */
-    private CommandType getCommandType(String input) throws UnknownInputException {
-        String command = input.split(" ", 2)[0].toLowerCase();
+    public Response respond(String input) {
+        CommandParser.ParseResult result = parser.parse(input);
+        if (!result.isSuccess()) {
+            return Response.of(result.error());
+        }
 
+        Command command = result.command();
         try {
-            return CommandType.valueOf(command.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new UnknownInputException(command);
+            if (command instanceof RowCommand rowCommand) {
+                return selectRows(rowCommand);
+            }
+            return Response.of(command.isReadOnly()
+                    ? executeRead(command, input)
+                    : executeWrite(command));
+        } catch (DukeException | IOException e) {
+            return Response.of(describeError(e));
         }
     }
 
     /**
-     * Validates that the input string is not null or empty.
+     * Executes a command that may change the tasks, excluding every other command.
+     * <p>
+     * The generation is advanced even if the command fails, since it may have changed the
+     * tasks before failing.
+     * </p>
      *
-     * @param input the command string to validate
-     * @throws UnknownInputException if the input is null or empty
+     * @param command the command to execute
+     * @return the output of the command
+     * @throws DukeException if there is an error in command execution
+     * @throws IOException if there is an error in file operations
      */
-    private void checkInput(String input) throws UnknownInputException {
-        if (input == null || input.trim().isEmpty()) {
-            throw new UnknownInputException("Command cannot be empty");
+    private String executeWrite(Command command) throws DukeException, IOException {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            return command.execute(tasks, storage);
+        } finally {
+            generation++;
+            writeLock.unlock();
         }
     }
 
     /**
-     * Creates the appropriate Command object based on the command type and input.
+     * Executes a read-only command alongside other read-only commands.
      * <p>
-     * This method handles the creation of specific command objects for each supported
-     * command type, including parsing any necessary parameters from the input string.
+     * The output is served from the response cache while no mutating command has run since
+     * it was computed. Outputs longer than {@link #MAX_CACHED_RESPONSE_LENGTH} are not cached.
      * </p>
      *
-     * @param type the type of command to create
-     * @param input the raw command string containing any parameters
-     * @return the created Command object
-     * @throws UnknownInputException if the command parameters are invalid
+     * @param command the command to execute
+     * @param input the raw command string, which keys the cache
+     * @return the output of the command
+     * @throws DukeException if there is an error in command execution
+     * @throws IOException if there is an error in file operations
      */
-    private Command generateCommand(CommandType type, String input) throws UnknownInputException {
-        return switch (type) {
-        case TODO -> new TodoCommand(input);
-        case DEADLINE -> new DeadlineCommand(input);
-        case EVENT -> new EventCommand(input);
-        case LIST -> new ListCommand();
-        case DELETE -> generateDeleteCommand(input);
-        case MARK -> generateMarkCommand(input, true);
-        case UNMARK -> generateMarkCommand(input, false);
-        case FIND -> new FindCommand(input);
-        case BYE -> new ByeCommand();
-        };
+    private String executeRead(Command command, String input) throws DukeException, IOException {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            String key = ResponseCache.keyOf(input);
+            String output = responseCache.get(key, generation);
+            if (output == null) {
+                output = command.execute(tasks, storage);
+                if (output.length() <= MAX_CACHED_RESPONSE_LENGTH) {
+                    responseCache.put(key, generation, output);
+                }
+            }
+            return output;
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
-     * Creates a DeleteCommand object from the input string.
-     * <p>
-     * Extracts and validates the task ID from the input string, adjusting it
-     * to be zero-based for internal use.
-     * </p>
+     * Writes the output of a read-only command to a sink, alongside other read-only commands.
+     * Nothing is written to the sink while the read lock is held.
      *
-     * @param input the command string containing the task ID to delete
-     * @return a DeleteCommand object configured with the specified task ID
-     * @throws UnknownInputException if the task ID is invalid or missing
+     * @param command the command to execute
+     * @param input the raw command string, which keys the cache
+     * @param output where the output is written
+     * @throws DukeException if there is an error in command execution
+     * @throws IOException if the output cannot be written
      */
-    private DeleteCommand generateDeleteCommand(String input) throws UnknownInputException {
-        assert input != null
-                : "Input cannot be null";
-
+    private void streamRead(Command command, String input, Appendable output) throws DukeException, IOException {
+        String rest;
+        Lock readLock = lock.readLock();
+        readLock.lock();
         try {
-            String[] parts = input.split(" ", 2);
-            if (parts.length < 2) {
-                throw new ArrayIndexOutOfBoundsException("Please specify task number(s) to delete");
-            }
-
-            String[] taskIdStrings = parts[1].trim().split("\\s+");
-            int[] taskIds = new int[taskIdStrings.length];
-
-            for (int i = 0; i < taskIdStrings.length; i++) {
-                try {
-                    taskIds[i] = Integer.parseInt(taskIdStrings[i]) - 1;
-                } catch (Exception e) {
-                    throw new IndexOutOfBoundsException(taskIdStrings[i] + " is out of bounds");
+            String key = ResponseCache.keyOf(input);
+            rest = responseCache.get(key, generation);
+            if (rest == null) {
+                PagingAppendable pages = new PagingAppendable(output);
+                command.writeTo(tasks, storage, pages);
+                if (pages.isComplete()) {
+                    responseCache.put(key, generation, pages.toString());
                 }
+                rest = pages.getPage();
             }
-
-            if (taskIds.length == 0) {
-                throw new UnknownInputException("Please specify task number(s) to delete");
-            }
-
-            return new DeleteCommand(taskIds);
-        } catch (NumberFormatException e) {
-            throw new UnknownInputException("Invalid task number format");
+        } catch (TasksChangedException e) {
+            rest = STREAM_INTERRUPTED;
+        } finally {
+            readLock.unlock();
         }
+        output.append(rest);
     }
 
     /**
-     * Creates a MarkCommand object from the input string.
+     * Copies the tasks listed by a command into rows, alongside other read-only commands.
      * <p>
-     * Extracts and validates the task ID from the input string, adjusting it
-     * to be zero-based for internal use. The isDone parameter determines whether
-     * the task should be marked as complete or incomplete.
+     * Rows are not cached, since they are a snapshot that the caller may hold on to.
      * </p>
      *
-     * @param input the command string containing the task ID to mark
-     * @param isDone true to mark the task as done, false to mark it as not done
-     * @return a MarkCommand object configured with the specified task ID and status
-     * @throws UnknownInputException if the task ID is invalid or missing
+     * @param command the command to execute
+     * @return the description and the rows of the result
+     * @throws DukeException if there is an error in command execution
      */
-    private MarkCommand generateMarkCommand(String input, boolean isDone) throws UnknownInputException {
+    private Response selectRows(RowCommand command) throws DukeException {
+        Lock readLock = lock.readLock();
+        readLock.lock();
         try {
-            int taskId = getTaskId(input);
-            return new MarkCommand(taskId - 1, isDone);
-        } catch (NumberFormatException e) {
-            throw new IndexOutOfBoundsException(input + " is out of bounds");
-        } catch (IndexOutOfBoundsException e) {
-            throw new IndexOutOfBoundsException("Please specify a task number to mark");
+            List<TaskRow> rows = command.selectRows(tasks);
+            return new Response(command.describe(rows), rows);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Formats an exception that occurred during command execution into an error message.
+     *
+     * @param e the exception that occurred during command execution
+     * @return the error message
+     */
+    private static String describeError(Exception e) {
+        String errorPrefix = e instanceof IOException ? "Error: " : "";
+        return errorPrefix + e.getMessage();
+    }
+
+    /**
+     * Creates the daemon threads that run submitted commands, so that they never keep the
+     * application alive.
+     */
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "trashbot-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Signals that the tasks changed while the read lock was released between two pages.
+     */
+    private static class TasksChangedException extends IOException {
+        TasksChangedException() {
+            super("The tasks changed while the response was being written");
         }
     }
 
     /**
-     * Extract(s) the task ID(s) from the input string.
+     * Collects the output of a read-only command into pages, and writes each full page to a sink
+     * with the read lock released. The command resumes once the lock is taken again, unless a
+     * mutating command ran meanwhile. A copy of the output is kept for the response cache until
+     * it grows longer than {@link #MAX_CACHED_RESPONSE_LENGTH}.
      * <p>
-     * Splits the input string and parses the second part as an integer task ID.
+     * Must be written to by a thread holding the read lock once.
      * </p>
-     *
-     * @param input the command string containing the task ID
-     * @return the parsed task ID as an integer
-     * @throws NumberFormatException if the task ID is not a valid integer
-     * @throws ArrayIndexOutOfBoundsException if no task ID is provided
      */
-    private int getTaskId(String input) {
-        String[] split = input.split(" ", 2);
-        if (split.length < 2 || split[1].trim().isEmpty()) {
-            throw new ArrayIndexOutOfBoundsException("No task ID provided");
+    private class PagingAppendable implements Appendable {
+        private final Appendable sink;
+        private final long startGeneration = generation;
+        private final StringBuilder page = new StringBuilder();
+        private StringBuilder copy = new StringBuilder();
+
+        PagingAppendable(Appendable sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Checks whether the copy holds everything written so far.
+         */
+        boolean isComplete() {
+            return copy != null;
+        }
+
+        /**
+         * Returns the output that has not been written to the sink yet.
+         */
+        String getPage() {
+            return page.toString();
+        }
+
+        @Override
+        public Appendable append(CharSequence text) throws IOException {
+            page.append(text);
+            if (copy != null) {
+                copy = copy.length() + text.length() <= MAX_CACHED_RESPONSE_LENGTH ? copy.append(text) : null;
+            }
+            if (page.length() >= STREAM_PAGE_LENGTH) {
+                writePage();
+            }
+            return this;
+        }
+
+        private void writePage() throws IOException {
+            Lock readLock = lock.readLock();
+            readLock.unlock();
+            try {
+                sink.append(page);
+            } finally {
+                readLock.lock();
+            }
+            page.setLength(0);
+            if (generation != startGeneration) {
+                throw new TasksChangedException();
+            }
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) throws IOException {
+            return append(text.subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            return append(String.valueOf(c));
+        }
+
+        @Override
+        public String toString() {
+            return copy == null ? "" : copy.toString();
         }
-        return Integer.parseInt(split[1].trim());
     }
 }
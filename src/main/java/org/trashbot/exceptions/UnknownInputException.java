@@ -12,9 +12,20 @@ public class UnknownInputException extends DukeException {
      * @param input the detail message, which can be retrieved later by the {@link #getMessage()} method.
      */
     public UnknownInputException(String input) {
-        super("The input "
+        super(describe(input));
+    }
+
+    /**
+     * Returns the message for an unknown input, for callers that report it without throwing.
+     *
+     * @param input the input that was not recognised
+     * @return the detail message of an {@code UnknownInputException} for the input
+     */
+    public static String describe(String input) {
+        return "The input "
                 + input
                 + " is unknown!\n"
-                + " Available input: todo, deadline, delete, event, mark, unmark, list, find, bye");
+                + " Available input: todo, deadline, delete, event, mark, unmark, list, find, query,"
+                + " begin, commit, rollback, bye";
     }
 }
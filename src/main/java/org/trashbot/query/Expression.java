@@ -0,0 +1,61 @@
+package org.trashbot.query;
+
+import java.util.List;
+
+/**
+ * A parsed query: a tree of {@link Predicate}s combined with AND, OR and NOT.
+ *
+ * @see QueryParser
+ * @see QueryPlanner
+ */
+public interface Expression {
+    /**
+     * Matches the tasks that match every operand.
+     *
+     * @param operands the expressions to combine, at least two
+     */
+    record And(List<Expression> operands) implements Expression {
+        @Override
+        public String toString() {
+            return join(operands, " AND ");
+        }
+    }
+
+    /**
+     * Matches the tasks that match at least one operand.
+     *
+     * @param operands the expressions to combine, at least two
+     */
+    record Or(List<Expression> operands) implements Expression {
+        @Override
+        public String toString() {
+            return join(operands, " OR ");
+        }
+    }
+
+    /**
+     * Matches the tasks that do not match the operand.
+     *
+     * @param operand the expression to negate
+     */
+    record Not(Expression operand) implements Expression {
+        @Override
+        public String toString() {
+            return operand instanceof Predicate
+                    ? "NOT " + operand
+                    : "NOT (" + operand + ")";
+        }
+    }
+
+    private static String join(List<Expression> operands, String operator) {
+        StringBuilder text = new StringBuilder();
+        for (Expression operand : operands) {
+            if (text.length() > 0) {
+                text.append(operator);
+            }
+            boolean isNested = operand instanceof And || operand instanceof Or;
+            text.append(isNested ? "(" + operand + ")" : operand.toString());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,266 @@
+package org.trashbot.query;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.trashbot.search.SearchIndex;
+import org.trashbot.tasks.Task;
+
+/**
+ * One step of an executable query plan, producing the positions of the matching tasks.
+ *
+ * <p>Plans are built by {@link QueryPlanner}, each with the number of tasks it is expected to
+ * produce, and can be printed with {@link #explain()} without being executed.</p>
+ */
+public abstract class Plan {
+    private final int estimate;
+
+    private Plan(int estimate) {
+        this.estimate = estimate;
+    }
+
+    /**
+     * Returns the number of tasks this step is expected to produce.
+     *
+     * @return the estimated cardinality
+     */
+    public int getEstimate() {
+        return estimate;
+    }
+
+    /**
+     * Runs this step.
+     *
+     * @param tasks the list of tasks
+     * @param index the indexes over the list
+     * @return a new bitset of the matching positions
+     */
+    public abstract BitSet execute(List<Task> tasks, SearchIndex index);
+
+    /**
+     * Describes the plan as an indented tree, one step per line, with the steps that run first
+     * nested deepest.
+     *
+     * @return the plan description
+     */
+    public String explain() {
+        StringBuilder output = new StringBuilder();
+        explain(output, 0);
+        return output.toString();
+    }
+
+    /**
+     * Describes this step on a single line, without its inputs.
+     *
+     * @return the step description
+     */
+    abstract String describe();
+
+    /**
+     * Returns the steps whose results this step consumes.
+     *
+     * @return the inputs, in execution order
+     */
+    abstract List<Plan> getInputs();
+
+    private void explain(StringBuilder output, int depth) {
+        output.append("  ".repeat(depth)).append(describe()).append(" (est. ").append(estimate).append(")\n");
+        for (Plan input : getInputs()) {
+            input.explain(output, depth + 1);
+        }
+    }
+
+    /**
+     * Looks up the tasks matching a predicate in its index.
+     */
+    static class Lookup extends Plan {
+        private final Predicate predicate;
+
+        Lookup(Predicate predicate, int estimate) {
+            super(estimate);
+            this.predicate = predicate;
+        }
+
+        Predicate getPredicate() {
+            return predicate;
+        }
+
+        @Override
+        public BitSet execute(List<Task> tasks, SearchIndex index) {
+            return predicate.lookup(tasks, index);
+        }
+
+        @Override
+        String describe() {
+            return "Index lookup " + predicate + " using " + predicate.getIndexName();
+        }
+
+        @Override
+        List<Plan> getInputs() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Tests a predicate against every task.
+     */
+    static class Scan extends Plan {
+        private final Predicate predicate;
+
+        Scan(Predicate predicate, int estimate) {
+            super(estimate);
+            this.predicate = predicate;
+        }
+
+        Predicate getPredicate() {
+            return predicate;
+        }
+
+        @Override
+        public BitSet execute(List<Task> tasks, SearchIndex index) {
+            BitSet positions = new BitSet();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (predicate.test(tasks.get(i))) {
+                    positions.set(i);
+                }
+            }
+            return positions;
+        }
+
+        @Override
+        String describe() {
+            return "Full scan " + predicate;
+        }
+
+        @Override
+        List<Plan> getInputs() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Tests a predicate against the tasks produced by another step.
+     */
+    static class Filter extends Plan {
+        private final Predicate predicate;
+        private final Plan input;
+
+        Filter(Predicate predicate, Plan input, int estimate) {
+            super(estimate);
+            this.predicate = predicate;
+            this.input = input;
+        }
+
+        @Override
+        public BitSet execute(List<Task> tasks, SearchIndex index) {
+            BitSet positions = input.execute(tasks, index);
+            for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                if (!predicate.test(tasks.get(i))) {
+                    positions.clear(i);
+                }
+            }
+            return positions;
+        }
+
+        @Override
+        String describe() {
+            return "Filter " + predicate;
+        }
+
+        @Override
+        List<Plan> getInputs() {
+            return List.of(input);
+        }
+    }
+
+    /**
+     * Keeps the tasks produced by every input.
+     */
+    static class Intersect extends Plan {
+        private final List<Plan> inputs;
+
+        Intersect(List<Plan> inputs, int estimate) {
+            super(estimate);
+            this.inputs = inputs;
+        }
+
+        @Override
+        public BitSet execute(List<Task> tasks, SearchIndex index) {
+            BitSet positions = inputs.get(0).execute(tasks, index);
+            for (int i = 1; i < inputs.size() && !positions.isEmpty(); i++) {
+                positions.and(inputs.get(i).execute(tasks, index));
+            }
+            return positions;
+        }
+
+        @Override
+        String describe() {
+            return "Intersect";
+        }
+
+        @Override
+        List<Plan> getInputs() {
+            return inputs;
+        }
+    }
+
+    /**
+     * Keeps the tasks produced by any input.
+     */
+    static class Union extends Plan {
+        private final List<Plan> inputs;
+
+        Union(List<Plan> inputs, int estimate) {
+            super(estimate);
+            this.inputs = inputs;
+        }
+
+        @Override
+        public BitSet execute(List<Task> tasks, SearchIndex index) {
+            BitSet positions = inputs.get(0).execute(tasks, index);
+            for (int i = 1; i < inputs.size(); i++) {
+                positions.or(inputs.get(i).execute(tasks, index));
+            }
+            return positions;
+        }
+
+        @Override
+        String describe() {
+            return "Union";
+        }
+
+        @Override
+        List<Plan> getInputs() {
+            return inputs;
+        }
+    }
+
+    /**
+     * Keeps the tasks not produced by the input.
+     */
+    static class Complement extends Plan {
+        private final Plan input;
+
+        Complement(Plan input, int estimate) {
+            super(estimate);
+            this.input = input;
+        }
+
+        @Override
+        public BitSet execute(List<Task> tasks, SearchIndex index) {
+            BitSet positions = input.execute(tasks, index);
+            positions.flip(0, tasks.size());
+            return positions;
+        }
+
+        @Override
+        String describe() {
+            return "Complement";
+        }
+
+        @Override
+        List<Plan> getInputs() {
+            return List.of(input);
+        }
+    }
+}
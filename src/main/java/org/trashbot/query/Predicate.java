@@ -0,0 +1,337 @@
+package org.trashbot.query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.List;
+
+import org.trashbot.exceptions.InvalidFormatException;
+import org.trashbot.search.AttributeIndex;
+import org.trashbot.search.SearchIndex;
+import org.trashbot.search.TrigramIndex;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Task;
+
+/**
+ * A single condition on a task, such as {@code done:false} or {@code due<2026-12-01}.
+ *
+ * <p>Supported predicates:
+ * <ul>
+ *   <li>{@code type:todo}, {@code type:deadline}, {@code type:event}</li>
+ *   <li>{@code done:true}, {@code done:false}</li>
+ *   <li>{@code due<DATE}, {@code due<=DATE}, {@code due>DATE}, {@code due>=DATE} and
+ *       {@code due:DATE}, with DATE as yyyy-MM-dd; only deadlines have a due date</li>
+ *   <li>{@code text:VALUE}, or a bare word, for a case-insensitive substring of the
+ *       description; the value may be quoted to include spaces</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Besides testing a single task, a predicate can estimate how many tasks match it and look
+ * them up in an index, which is what {@link QueryPlanner} chooses between.</p>
+ */
+public abstract class Predicate implements Expression {
+    private final String source;
+
+    private Predicate(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Parses a predicate.
+     *
+     * @param text     the predicate as written, without quotes
+     * @param isQuoted true if the whole word was quoted, so it can only be a text search
+     * @return the parsed predicate
+     * @throws InvalidFormatException if the field or value is not recognised
+     */
+    public static Predicate parse(String text, boolean isQuoted) throws InvalidFormatException {
+        if (isQuoted) {
+            return new Contains(text);
+        }
+
+        String lowered = text.toLowerCase();
+        if (lowered.startsWith("type:")) {
+            return new OfType(parseType(lowered.substring(5)));
+        }
+        if (lowered.startsWith("done:")) {
+            return new WithStatus(parseBoolean(lowered.substring(5)));
+        }
+        if (lowered.startsWith("text:")) {
+            return new Contains(text.substring(5));
+        }
+        if (lowered.startsWith("due")) {
+            return parseDue(lowered);
+        }
+        if (lowered.indexOf(':') > 0) {
+            throw new InvalidFormatException("Unknown query field: " + text.substring(0, text.indexOf(':'))
+                    + "\n Available fields: type, done, due, text");
+        }
+        return new Contains(text);
+    }
+
+    /**
+     * Checks whether a single task matches.
+     *
+     * @param task the task to check
+     * @return true if the task matches, false otherwise
+     */
+    public abstract boolean test(Task task);
+
+    /**
+     * Estimates how many tasks match, using the index statistics only.
+     *
+     * @param tasks the list of tasks
+     * @param index the indexes over the list
+     * @return the estimated number of matching tasks
+     */
+    public abstract int estimate(List<Task> tasks, SearchIndex index);
+
+    /**
+     * Checks whether the matching tasks can be looked up in an index instead of testing every
+     * task.
+     *
+     * @return true if {@link #lookup(List, SearchIndex)} is supported, false otherwise
+     */
+    public boolean isIndexed() {
+        return true;
+    }
+
+    /**
+     * Looks up the positions of the matching tasks in an index.
+     *
+     * @param tasks the list of tasks
+     * @param index the indexes over the list
+     * @return a new bitset of the matching positions
+     */
+    public abstract BitSet lookup(List<Task> tasks, SearchIndex index);
+
+    /**
+     * Estimates the work of {@link #lookup(List, SearchIndex)}, in units of one task tested.
+     *
+     * <p>The default is the number of matches, which suits indexes that visit each match.</p>
+     *
+     * @param tasks the list of tasks
+     * @param index the indexes over the list
+     * @return the estimated cost of the lookup
+     */
+    public int lookupCost(List<Task> tasks, SearchIndex index) {
+        return estimate(tasks, index);
+    }
+
+    /**
+     * Describes the index used by {@link #lookup(List, SearchIndex)}.
+     *
+     * @return a short name of the index
+     */
+    public abstract String getIndexName();
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static AttributeIndex.Type parseType(String value) throws InvalidFormatException {
+        for (AttributeIndex.Type type : AttributeIndex.Type.values()) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new InvalidFormatException("Unknown task type: " + value
+                + "\n Available types: todo, deadline, event");
+    }
+
+    private static boolean parseBoolean(String value) throws InvalidFormatException {
+        return switch (value) {
+        case "true" -> true;
+        case "false" -> false;
+        default -> throw new InvalidFormatException("done: expects true or false, not " + value);
+        };
+    }
+
+    private static Predicate parseDue(String text) throws InvalidFormatException {
+        String operator;
+        if (text.startsWith("due<=") || text.startsWith("due>=")) {
+            operator = text.substring(3, 5);
+        } else if (text.startsWith("due<") || text.startsWith("due>") || text.startsWith("due:")
+                || text.startsWith("due=")) {
+            operator = text.substring(3, 4);
+        } else {
+            throw new InvalidFormatException("Invalid due predicate: " + text
+                    + "\n Use due<DATE, due<=DATE, due>DATE, due>=DATE or due:DATE");
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(text.substring(3 + operator.length()));
+        } catch (DateTimeParseException e) {
+            throw new InvalidFormatException("Invalid date in " + text + ". Please use yyyy-MM-dd.");
+        }
+
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime startOfNextDay = date.plusDays(1).atStartOfDay();
+        return switch (operator) {
+        case "<" -> new DueIn(text, null, startOfDay);
+        case "<=" -> new DueIn(text, null, startOfNextDay);
+        case ">" -> new DueIn(text, startOfNextDay, null);
+        case ">=" -> new DueIn(text, startOfDay, null);
+        default -> new DueIn(text, startOfDay, startOfNextDay);
+        };
+    }
+
+    /**
+     * Matches tasks of one type.
+     */
+    private static class OfType extends Predicate {
+        private final AttributeIndex.Type type;
+
+        OfType(AttributeIndex.Type type) {
+            super("type:" + type.name().toLowerCase());
+            this.type = type;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return AttributeIndex.Type.of(task) == type;
+        }
+
+        @Override
+        public int estimate(List<Task> tasks, SearchIndex index) {
+            return index.getAttributeIndex().countOfType(tasks, type);
+        }
+
+        @Override
+        public BitSet lookup(List<Task> tasks, SearchIndex index) {
+            return index.getAttributeIndex().ofType(tasks, type);
+        }
+
+        @Override
+        public int lookupCost(List<Task> tasks, SearchIndex index) {
+            // a bitmap is combined a machine word at a time
+            return tasks.size() / Long.SIZE + 1;
+        }
+
+        @Override
+        public String getIndexName() {
+            return "type bitmap";
+        }
+    }
+
+    /**
+     * Matches tasks with one completion status.
+     */
+    private static class WithStatus extends Predicate {
+        private final boolean isDone;
+
+        WithStatus(boolean isDone) {
+            super("done:" + isDone);
+            this.isDone = isDone;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.isDone() == isDone;
+        }
+
+        @Override
+        public int estimate(List<Task> tasks, SearchIndex index) {
+            return index.getAttributeIndex().countWithStatus(tasks, isDone);
+        }
+
+        @Override
+        public BitSet lookup(List<Task> tasks, SearchIndex index) {
+            return index.getAttributeIndex().withStatus(tasks, isDone);
+        }
+
+        @Override
+        public int lookupCost(List<Task> tasks, SearchIndex index) {
+            // a bitmap is combined a machine word at a time
+            return tasks.size() / Long.SIZE + 1;
+        }
+
+        @Override
+        public String getIndexName() {
+            return "done bitmap";
+        }
+    }
+
+    /**
+     * Matches deadlines due in a half-open range of times.
+     */
+    private static class DueIn extends Predicate {
+        private final LocalDateTime from;
+        private final LocalDateTime until;
+
+        DueIn(String source, LocalDateTime from, LocalDateTime until) {
+            super(source);
+            this.from = from;
+            this.until = until;
+        }
+
+        @Override
+        public boolean test(Task task) {
+            if (!(task instanceof Deadline deadline)) {
+                return false;
+            }
+            LocalDateTime due = deadline.getDeadline();
+            return (from == null || !due.isBefore(from)) && (until == null || due.isBefore(until));
+        }
+
+        @Override
+        public int estimate(List<Task> tasks, SearchIndex index) {
+            return index.getAttributeIndex().countDueBetween(tasks, from, until);
+        }
+
+        @Override
+        public BitSet lookup(List<Task> tasks, SearchIndex index) {
+            return index.getAttributeIndex().dueBetween(tasks, from, until);
+        }
+
+        @Override
+        public String getIndexName() {
+            return "deadline index";
+        }
+    }
+
+    /**
+     * Matches tasks whose description contains a substring, ignoring case.
+     */
+    private static class Contains extends Predicate {
+        private final String term;
+
+        Contains(String term) {
+            super(term.contains(" ") ? "text:\"" + term.toLowerCase() + "\"" : "text:" + term.toLowerCase());
+            this.term = term.toLowerCase();
+        }
+
+        @Override
+        public boolean test(Task task) {
+            return task.getDescription().toLowerCase().contains(term);
+        }
+
+        @Override
+        public int estimate(List<Task> tasks, SearchIndex index) {
+            return index.getTrigramIndex().estimate(tasks, term);
+        }
+
+        @Override
+        public boolean isIndexed() {
+            // terms without a trigram can only be answered by a scan
+            return term.length() >= TrigramIndex.GRAM_LENGTH;
+        }
+
+        @Override
+        public BitSet lookup(List<Task> tasks, SearchIndex index) {
+            BitSet positions = new BitSet();
+            for (int position : index.find(tasks, term)) {
+                positions.set(position);
+            }
+            return positions;
+        }
+
+        @Override
+        public String getIndexName() {
+            return "trigram index";
+        }
+    }
+}
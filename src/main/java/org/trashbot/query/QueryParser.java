@@ -0,0 +1,175 @@
+package org.trashbot.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.trashbot.exceptions.InvalidFormatException;
+
+/**
+ * Parses the text of a query into an {@link Expression}.
+ *
+ * <p>Grammar, with AND, OR and NOT matched case-insensitively and AND implied between
+ * adjacent terms:
+ * <pre>
+ * expression := term (OR term)*
+ * term       := factor ([AND] factor)*
+ * factor     := NOT factor | '(' expression ')' | predicate
+ * </pre>
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * Expression query = new QueryParser("type:deadline done:false due&lt;2026-12-01").parse();
+ * </pre>
+ * </p>
+ *
+ * @see Predicate
+ */
+public class QueryParser {
+    private final List<Token> tokens;
+    private int next;
+
+    /**
+     * Creates a parser for the given query text.
+     *
+     * @param text the query text
+     * @throws InvalidFormatException if a quoted value is not closed
+     */
+    public QueryParser(String text) throws InvalidFormatException {
+        this.tokens = tokenize(text);
+    }
+
+    /**
+     * Parses the whole query.
+     *
+     * @return the parsed expression
+     * @throws InvalidFormatException if the query is empty or malformed
+     */
+    public Expression parse() throws InvalidFormatException {
+        if (tokens.isEmpty()) {
+            throw new InvalidFormatException("Please specify a query, e.g. query type:deadline done:false");
+        }
+
+        Expression expression = parseExpression();
+        if (next < tokens.size()) {
+            throw new InvalidFormatException("Unexpected " + tokens.get(next).text() + " in query");
+        }
+        return expression;
+    }
+
+    private Expression parseExpression() throws InvalidFormatException {
+        List<Expression> operands = new ArrayList<>();
+        operands.add(parseTerm());
+        while (isOperator("or")) {
+            next++;
+            operands.add(parseTerm());
+        }
+        return operands.size() == 1
+                ? operands.get(0)
+                : new Expression.Or(operands);
+    }
+
+    private Expression parseTerm() throws InvalidFormatException {
+        List<Expression> operands = new ArrayList<>();
+        operands.add(parseFactor());
+        while (next < tokens.size() && !isOperator("or") && !isSymbol(")")) {
+            if (isOperator("and")) {
+                next++;
+            }
+            operands.add(parseFactor());
+        }
+        return operands.size() == 1
+                ? operands.get(0)
+                : new Expression.And(operands);
+    }
+
+    private Expression parseFactor() throws InvalidFormatException {
+        if (next >= tokens.size()) {
+            throw new InvalidFormatException("Query ends unexpectedly");
+        }
+
+        if (isOperator("not")) {
+            next++;
+            return new Expression.Not(parseFactor());
+        }
+        if (isSymbol("(")) {
+            next++;
+            Expression expression = parseExpression();
+            if (!isSymbol(")")) {
+                throw new InvalidFormatException("Missing ) in query");
+            }
+            next++;
+            return expression;
+        }
+
+        Token token = tokens.get(next);
+        if (token.isSymbol() || isOperator("and") || isOperator("or")) {
+            throw new InvalidFormatException("Unexpected " + token.text() + " in query");
+        }
+        next++;
+        return Predicate.parse(token.text(), token.isQuoted());
+    }
+
+    private boolean isOperator(String operator) {
+        if (next >= tokens.size()) {
+            return false;
+        }
+        Token token = tokens.get(next);
+        return !token.isQuoted() && !token.isSymbol() && token.text().equalsIgnoreCase(operator);
+    }
+
+    private boolean isSymbol(String symbol) {
+        return next < tokens.size() && tokens.get(next).isSymbol() && tokens.get(next).text().equals(symbol);
+    }
+
+    /**
+     * Splits the query into words and parentheses. Double quotes group characters, including
+     * spaces and parentheses, into a single word.
+     */
+    private static List<Token> tokenize(String text) throws InvalidFormatException {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '(' || c == ')') {
+                tokens.add(new Token(String.valueOf(c), false, true));
+                i++;
+                continue;
+            }
+
+            StringBuilder word = new StringBuilder();
+            boolean isQuoted = c == '"';
+            boolean isInQuotes = false;
+            while (i < text.length()) {
+                c = text.charAt(i);
+                if (c == '"') {
+                    isInQuotes = !isInQuotes;
+                } else if (!isInQuotes && (Character.isWhitespace(c) || c == '(' || c == ')')) {
+                    break;
+                } else {
+                    word.append(c);
+                }
+                i++;
+            }
+            if (isInQuotes) {
+                throw new InvalidFormatException("Missing closing quote in query");
+            }
+            tokens.add(new Token(word.toString(), isQuoted, false));
+        }
+        return tokens;
+    }
+
+    /**
+     * A word or parenthesis of the query.
+     *
+     * @param text     the text of the token, without quotes
+     * @param isQuoted true if the token started with a quote
+     * @param isSymbol true if the token is a parenthesis
+     */
+    private record Token(String text, boolean isQuoted, boolean isSymbol) {
+    }
+}
@@ -0,0 +1,127 @@
+package org.trashbot.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.trashbot.search.SearchIndex;
+import org.trashbot.tasks.Task;
+
+/**
+ * Turns an {@link Expression} into a {@link Plan} that uses the available indexes.
+ *
+ * <p>For a conjunction, the planner starts from the operand with the fewest estimated matches
+ * that an index can produce, then applies every other predicate either as a filter over the
+ * candidates so far or, if looking it up is cheaper than testing every candidate, as an index
+ * lookup that is intersected with them. Disjunctions and negations combine the plans of their
+ * operands. A predicate that no index can answer is only scanned for if nothing narrower is
+ * available.</p>
+ *
+ * <p>Estimates come from exact index counts where available and otherwise from upper bounds,
+ * and conjunctions assume that their operands are independent.</p>
+ *
+ * @see Plan
+ */
+public class QueryPlanner {
+    private final List<Task> tasks;
+    private final SearchIndex index;
+
+    /**
+     * Creates a planner for queries over the given list.
+     *
+     * @param tasks the list of tasks
+     * @param index the indexes over the list
+     */
+    public QueryPlanner(List<Task> tasks, SearchIndex index) {
+        this.tasks = tasks;
+        this.index = index;
+    }
+
+    /**
+     * Chooses a plan for the expression.
+     *
+     * @param expression the parsed query
+     * @return the plan to execute
+     */
+    public Plan plan(Expression expression) {
+        if (expression instanceof Predicate predicate) {
+            return planPredicate(predicate);
+        }
+        if (expression instanceof Expression.Not not) {
+            Plan input = plan(not.operand());
+            return new Plan.Complement(input, tasks.size() - input.getEstimate());
+        }
+        if (expression instanceof Expression.Or or) {
+            return planOr(or);
+        }
+        return planAnd((Expression.And) expression);
+    }
+
+    private Plan planPredicate(Predicate predicate) {
+        int estimate = predicate.estimate(tasks, index);
+        return predicate.isIndexed()
+                ? new Plan.Lookup(predicate, estimate)
+                : new Plan.Scan(predicate, estimate);
+    }
+
+    private Plan planOr(Expression.Or or) {
+        List<Plan> inputs = new ArrayList<>();
+        long estimate = 0;
+        for (Expression operand : or.operands()) {
+            Plan input = plan(operand);
+            inputs.add(input);
+            estimate += input.getEstimate();
+        }
+        return new Plan.Union(inputs, (int) Math.min(estimate, tasks.size()));
+    }
+
+    private Plan planAnd(Expression.And and) {
+        List<Plan> inputs = new ArrayList<>();
+        for (Expression operand : and.operands()) {
+            inputs.add(plan(operand));
+        }
+        inputs.sort(Comparator.comparingInt(Plan::getEstimate));
+
+        Plan driver = inputs.get(0);
+        for (Plan input : inputs) {
+            if (!(input instanceof Plan.Scan)) {
+                driver = input;
+                break;
+            }
+        }
+        inputs.remove(driver);
+
+        Plan current = driver;
+        for (Plan input : inputs) {
+            int estimate = combinedEstimate(current.getEstimate(), input.getEstimate());
+            Predicate predicate = predicateOf(input);
+            if (predicate != null && (input instanceof Plan.Scan
+                    || predicate.lookupCost(tasks, index) >= current.getEstimate())) {
+                current = new Plan.Filter(predicate, current, estimate);
+            } else {
+                current = new Plan.Intersect(List.of(current, input), estimate);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Estimates the size of an intersection, assuming the two sides are independent.
+     */
+    private int combinedEstimate(int left, int right) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        return (int) Math.ceil((double) left * right / tasks.size());
+    }
+
+    private static Predicate predicateOf(Plan plan) {
+        if (plan instanceof Plan.Lookup lookup) {
+            return lookup.getPredicate();
+        }
+        if (plan instanceof Plan.Scan scan) {
+            return scan.getPredicate();
+        }
+        return null;
+    }
+}
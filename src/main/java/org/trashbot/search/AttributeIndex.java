@@ -0,0 +1,272 @@
+package org.trashbot.search;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Event;
+import org.trashbot.tasks.Task;
+
+/**
+ * Indexes the structured attributes of tasks by position: a bitmap of completed tasks, a bitmap
+ * per task type, and the deadlines sorted by due time.
+ *
+ * <p>Appends and status changes are applied in place. Deletes shift every later position, so
+ * they discard the index, which is rebuilt in one pass on the next lookup. Like the other
+ * indexes it is built lazily.</p>
+ *
+ * <p>Lookups return fresh bitsets over positions that the caller may modify, and the counts are
+ * exact, so they double as cardinality estimates for a query planner.</p>
+ *
+ * <p>As with the other indexes, lookups may run concurrently with each other but not with
+ * changes.</p>
+ *
+ * @see SearchIndex
+ */
+public class AttributeIndex implements TaskIndex {
+    /**
+     * The kinds of task that can be looked up.
+     */
+    public enum Type {
+        TODO,
+        DEADLINE,
+        EVENT;
+
+        /**
+         * Returns the type of the given task.
+         *
+         * @param task the task to classify
+         * @return the type of the task
+         */
+        public static Type of(Task task) {
+            if (task instanceof Deadline) {
+                return DEADLINE;
+            }
+            return task instanceof Event ? EVENT : TODO;
+        }
+    }
+
+    private final BitSet done = new BitSet();
+    private final BitSet[] types = new BitSet[Type.values().length];
+
+    /**
+     * One entry per deadline, ascending: the due minute in the high 32 bits and the position in
+     * the low 32 bits, so that deadlines due at the same minute stay in list order
+     */
+    private long[] dueEntries = new long[0];
+    private int dueCount;
+
+    private boolean isBuilt;
+    private int size;
+
+    /**
+     * Creates an empty index that is built on first use.
+     */
+    public AttributeIndex() {
+        for (int i = 0; i < types.length; i++) {
+            types[i] = new BitSet();
+        }
+    }
+
+    @Override
+    public void added(List<Task> tasks, Task task) {
+        if (!isBuilt) {
+            return;
+        }
+        if (size != tasks.size() - 1) {
+            isBuilt = false;
+            return;
+        }
+
+        index(task, size++);
+    }
+
+    @Override
+    public void removed(List<Task> tasks, int... positions) {
+        isBuilt = false;
+    }
+
+    @Override
+    public void updated(List<Task> tasks, int position) {
+        if (isBuilt && size == tasks.size()) {
+            done.set(position, tasks.get(position).isDone());
+        }
+    }
+
+    @Override
+    public void replaced(List<Task> tasks) {
+        isBuilt = false;
+    }
+
+    /**
+     * Returns the positions of the tasks with the given completion status.
+     *
+     * @param tasks  the list of tasks
+     * @param isDone the completion status to look up
+     * @return a new bitset of positions
+     */
+    public BitSet withStatus(List<Task> tasks, boolean isDone) {
+        ensureBuilt(tasks);
+        BitSet positions = (BitSet) done.clone();
+        if (!isDone) {
+            positions.flip(0, size);
+        }
+        return positions;
+    }
+
+    /**
+     * Counts the tasks with the given completion status.
+     *
+     * @param tasks  the list of tasks
+     * @param isDone the completion status to count
+     * @return the number of such tasks
+     */
+    public int countWithStatus(List<Task> tasks, boolean isDone) {
+        ensureBuilt(tasks);
+        int doneCount = done.cardinality();
+        return isDone ? doneCount : size - doneCount;
+    }
+
+    /**
+     * Returns the positions of the tasks of the given type.
+     *
+     * @param tasks the list of tasks
+     * @param type  the type to look up
+     * @return a new bitset of positions
+     */
+    public BitSet ofType(List<Task> tasks, Type type) {
+        ensureBuilt(tasks);
+        return (BitSet) types[type.ordinal()].clone();
+    }
+
+    /**
+     * Counts the tasks of the given type.
+     *
+     * @param tasks the list of tasks
+     * @param type  the type to count
+     * @return the number of such tasks
+     */
+    public int countOfType(List<Task> tasks, Type type) {
+        ensureBuilt(tasks);
+        return types[type.ordinal()].cardinality();
+    }
+
+    /**
+     * Returns the positions of the deadlines due in the given range.
+     *
+     * @param tasks the list of tasks
+     * @param from  the earliest due time, inclusive, or null for no lower bound
+     * @param until the latest due time, exclusive, or null for no upper bound
+     * @return a new bitset of positions
+     */
+    public BitSet dueBetween(List<Task> tasks, LocalDateTime from, LocalDateTime until) {
+        ensureBuilt(tasks);
+        BitSet positions = new BitSet();
+        for (int i = lowerBound(from, 0); i < lowerBound(until, dueCount); i++) {
+            positions.set((int) dueEntries[i]);
+        }
+        return positions;
+    }
+
+    /**
+     * Counts the deadlines due in the given range.
+     *
+     * @param tasks the list of tasks
+     * @param from  the earliest due time, inclusive, or null for no lower bound
+     * @param until the latest due time, exclusive, or null for no upper bound
+     * @return the number of such deadlines
+     */
+    public int countDueBetween(List<Task> tasks, LocalDateTime from, LocalDateTime until) {
+        ensureBuilt(tasks);
+        return Math.max(0, lowerBound(until, dueCount) - lowerBound(from, 0));
+    }
+
+    private synchronized void ensureBuilt(List<Task> tasks) {
+        if (isBuilt && size == tasks.size()) {
+            return;
+        }
+
+        done.clear();
+        for (BitSet type : types) {
+            type.clear();
+        }
+        dueCount = 0;
+        size = 0;
+        isBuilt = true;
+        for (Task task : tasks) {
+            done.set(size, task.isDone());
+            types[Type.of(task).ordinal()].set(size);
+            if (task instanceof Deadline deadline) {
+                appendDue(entryOf(deadline, size));
+            }
+            size++;
+        }
+        Arrays.sort(dueEntries, 0, dueCount);
+    }
+
+    private void index(Task task, int position) {
+        done.set(position, task.isDone());
+        types[Type.of(task).ordinal()].set(position);
+        if (!(task instanceof Deadline deadline)) {
+            return;
+        }
+
+        // the new position is the largest, so the entry goes after every deadline due no later
+        long entry = entryOf(deadline, position);
+        appendDue(entry);
+        int index = dueCount - 1;
+        while (index > 0 && dueEntries[index - 1] > entry) {
+            dueEntries[index] = dueEntries[index - 1];
+            index--;
+        }
+        dueEntries[index] = entry;
+    }
+
+    private void appendDue(long entry) {
+        if (dueCount == dueEntries.length) {
+            dueEntries = Arrays.copyOf(dueEntries, Math.max(16, dueCount * 2));
+        }
+        dueEntries[dueCount++] = entry;
+    }
+
+    /**
+     * Returns the index of the first deadline due at or after the given time.
+     *
+     * @param time         the due time to look up
+     * @param defaultIndex the index to return if the time is null
+     */
+    private int lowerBound(LocalDateTime time, int defaultIndex) {
+        if (time == null) {
+            return defaultIndex;
+        }
+
+        long key = (long) minuteOf(time) << Integer.SIZE;
+        int low = 0;
+        int high = dueCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dueEntries[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long entryOf(Deadline deadline, int position) {
+        return ((long) minuteOf(deadline.getDeadline()) << Integer.SIZE) | position;
+    }
+
+    /**
+     * Returns the minutes since the epoch, clamped to the range of an int, which covers
+     * several thousand years either side of it.
+     */
+    private static int minuteOf(LocalDateTime time) {
+        long minutes = Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, minutes));
+    }
+}
@@ -0,0 +1,253 @@
+package org.trashbot.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A Burkhard-Keller tree over a set of words, answering "which words are within edit distance
+ * k of this one" without comparing the query against every word.
+ *
+ * <p>Each child of a node is labelled with its Levenshtein distance to the node. By the triangle
+ * inequality, a word within distance k of the query can only lie below children labelled
+ * {@code d - k} to {@code d + k}, where d is the distance from the query to the node, so a
+ * search with a small k visits a small part of the tree.</p>
+ *
+ * <p>Distances to the query are computed with Myers' bit-parallel algorithm, one machine word
+ * per character of the visited word, for queries of up to 64 characters.</p>
+ *
+ * <p>Words can only be added. Callers that need deletions filter the results, and rebuild the
+ * tree from scratch with {@link #clear()} when too many words have gone stale.</p>
+ */
+class BkTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Adds a word to the tree. Adding a word that is already present has no effect.
+     *
+     * @param word the word to add
+     */
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+
+        Pattern pattern = new Pattern(word);
+        Node node = root;
+        while (true) {
+            int distance = pattern.distanceTo(node.word);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.childAt(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Finds the words within the given edit distance of the query.
+     *
+     * @param query       the word to look up
+     * @param maxDistance the largest number of single-character insertions, deletions or
+     *                    substitutions allowed
+     * @return the matching words, in no particular order
+     */
+    List<String> search(String query, int maxDistance) {
+        List<String> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+
+        Pattern pattern = new Pattern(query);
+        List<Node> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = pattern.distanceTo(node.word);
+            if (distance <= maxDistance) {
+                matches.add(node.word);
+            }
+
+            for (int i = 0; i < node.childCount; i++) {
+                if (Math.abs(node.distances[i] - distance) <= maxDistance) {
+                    pending.add(node.children[i]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of distinct words in the tree.
+     *
+     * @return number of words
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every word.
+     */
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two words.
+     *
+     * @param a    the first word
+     * @param b    the second word
+     * @param rows two scratch rows of at least {@code b.length() + 1} entries
+     * @return the number of single-character edits that turn one word into the other
+     */
+    static int distance(String a, String b, int[][] rows) {
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Allocates the scratch rows for computing distances to the given word.
+     *
+     * @param word the word that is compared against others
+     * @return two rows of {@code word.length() + 1} entries
+     */
+    static int[][] newRows(String word) {
+        return new int[][] {new int[word.length() + 1], new int[word.length() + 1]};
+    }
+
+    /**
+     * A word prepared for computing its edit distance to many others.
+     */
+    private static class Pattern {
+        private static final int ASCII_SIZE = 128;
+
+        private final String word;
+        private final long[] asciiMasks = new long[ASCII_SIZE];
+        private final int[][] rows;
+
+        Pattern(String word) {
+            this.word = word;
+            if (word.length() > Long.SIZE) {
+                this.rows = newRows(word);
+                return;
+            }
+
+            this.rows = null;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c < ASCII_SIZE) {
+                    asciiMasks[c] |= 1L << i;
+                }
+            }
+        }
+
+        /**
+         * Returns the Levenshtein distance from the pattern to the given word.
+         */
+        int distanceTo(String other) {
+            if (rows != null) {
+                return distance(other, word, rows);
+            }
+            if (word.isEmpty()) {
+                return other.length();
+            }
+
+            long last = 1L << (word.length() - 1);
+            long positive = -1L;
+            long negative = 0L;
+            int score = word.length();
+            for (int i = 0; i < other.length(); i++) {
+                long matches = maskOf(other.charAt(i));
+                long vertical = matches | negative;
+                long horizontal = (((matches & positive) + positive) ^ positive) | matches;
+                long horizontalPositive = negative | ~(horizontal | positive);
+                long horizontalNegative = positive & horizontal;
+
+                if ((horizontalPositive & last) != 0) {
+                    score++;
+                } else if ((horizontalNegative & last) != 0) {
+                    score--;
+                }
+
+                horizontalPositive = (horizontalPositive << 1) | 1;
+                horizontalNegative <<= 1;
+                positive = horizontalNegative | ~(vertical | horizontalPositive);
+                negative = horizontalPositive & vertical;
+            }
+            return score;
+        }
+
+        private long maskOf(char c) {
+            if (c < ASCII_SIZE) {
+                return asciiMasks[c];
+            }
+
+            long mask = 0L;
+            for (int i = 0; i < word.length(); i++) {
+                if (word.charAt(i) == c) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        }
+    }
+
+    /**
+     * A word with its children, kept in parallel arrays indexed by insertion order.
+     */
+    private static class Node {
+        private final String word;
+        private int[] distances = new int[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+
+        Node(String word) {
+            this.word = word;
+        }
+
+        Node childAt(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                distances = Arrays.copyOf(distances, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            distances[childCount] = distance;
+            children[childCount++] = child;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.trashbot.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * An inverted index from normalized description tokens to the tasks that contain them.
+ *
+ * <p>Descriptions are lowercased and split on whitespace into tokens. Posting lists and
+ * positions are maintained by {@link PostingIndex}.</p>
+ *
+ * <p>Substring queries are answered by the {@link TrigramIndex}. This index serves
+ * {@link #findFuzzy(List, String)}, which tolerates typos: the distinct tokens are also kept
+ * in a {@link BkTree}, which finds the tokens within a small edit distance of each query token
+ * without comparing against the whole vocabulary. Tokens whose tasks have all been deleted
+ * stay in the tree and are filtered out through their postings until the next rebuild.</p>
+ *
+ * @see TaskIndex
+ */
+public class KeywordIndex extends PostingIndex {
+    private final BkTree vocabulary = new BkTree();
+
+    /**
+     * Finds the tasks that have, for every token of the term, a token within the default edit
+     * distance of it.
+     *
+     * @param tasks the list of tasks to search
+     * @param term  the lowercased search term
+     * @return 0-based positions of the matching tasks, in list order
+     * @see #maxDistanceFor(String)
+     */
+    public List<Integer> findFuzzy(List<Task> tasks, String term) {
+        ensureBuilt(tasks);
+
+        List<String> queryTokens = tokenize(term);
+        if (queryTokens.isEmpty()) {
+            return scan(tasks, term);
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (String queryToken : queryTokens) {
+            List<Postings> similar = new ArrayList<>();
+            for (String token : vocabulary.search(queryToken, maxDistanceFor(queryToken))) {
+                similar.add(postingsOf(token));
+            }
+            if (similar.isEmpty()) {
+                return new ArrayList<>();
+            }
+            lists.add(Postings.of(union(similar)));
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        return positionsOf(intersect(lists));
+    }
+
+    /**
+     * Returns how many edits a fuzzy query token may be away from a task token: none for tokens
+     * of up to two characters, one for up to five, and two for longer tokens.
+     *
+     * @param token the query token
+     * @return the largest edit distance allowed
+     */
+    public static int maxDistanceFor(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Returns the number of distinct tokens in the index.
+     *
+     * @return vocabulary size, or 0 if the index has not been built yet
+     */
+    public int getVocabularySize() {
+        return getKeyCount();
+    }
+
+    @Override
+    List<String> keysOf(String description) {
+        return tokenize(description);
+    }
+
+    @Override
+    void keyAdded(String key) {
+        vocabulary.add(key);
+    }
+
+    @Override
+    void keysCleared() {
+        vocabulary.clear();
+    }
+
+    /**
+     * Splits a description into the tokens under which it is indexed.
+     *
+     * @param description the task description
+     * @return the lowercased, whitespace-separated tokens, in order
+     */
+    static List<String> tokenize(String description) {
+        String normalized = description.toLowerCase();
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean isSeparator = i == normalized.length() || isWhitespace(normalized.charAt(i));
+            if (isSeparator && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            } else if (!isSeparator && start < 0) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Matches the characters of the regular expression class {@code \s}.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
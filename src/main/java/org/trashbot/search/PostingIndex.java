@@ -0,0 +1,403 @@
+package org.trashbot.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * Base class for indexes that map keys derived from task descriptions to posting lists.
+ *
+ * <p>Every task gets an id when it is indexed; ids increase in list order, so each posting
+ * list is sorted. A task's current position is the number of live ids before it, kept in a
+ * Fenwick tree, so deletes cost O(log n) and never renumber the postings. Deleted ids stay in
+ * the postings and are skipped until they outnumber the live ones, at which point the index
+ * is rebuilt.</p>
+ *
+ * <p>The index is built lazily on the first query, so that storages that load tasks on demand
+ * are not forced to decode every task at startup.</p>
+ *
+ * <p>Changes must not run concurrently with each other or with queries, but queries may run
+ * concurrently with each other: the lazy build is synchronized, and a built index is only read
+ * until the next change.</p>
+ *
+ * @see KeywordIndex
+ * @see TrigramIndex
+ */
+abstract class PostingIndex implements TaskIndex {
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private boolean isBuilt;
+
+    /**
+     * Fenwick tree over ids, holding 1 for every live id
+     */
+    private int[] tree = new int[1];
+    private BitSet live = new BitSet();
+    private int nextId;
+    private int size;
+    private int deadCount;
+
+    @Override
+    public void added(List<Task> tasks, Task task) {
+        if (!isBuilt) {
+            return;
+        }
+        if (size != tasks.size() - 1) {
+            invalidate();
+            return;
+        }
+
+        index(task);
+    }
+
+    @Override
+    public void removed(List<Task> tasks, int... positions) {
+        if (!isBuilt) {
+            return;
+        }
+        if (size != tasks.size() + positions.length) {
+            invalidate();
+            return;
+        }
+
+        for (int i = positions.length - 1; i >= 0; i--) {
+            int id = idAt(positions[i]);
+            live.clear(id);
+            addToTree(id, -1);
+            size--;
+            deadCount++;
+        }
+
+        if (deadCount > size) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void replaced(List<Task> tasks) {
+        if (isBuilt) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Returns the number of distinct keys in the index.
+     *
+     * @return number of keys, or 0 if the index has not been built yet
+     */
+    public int getKeyCount() {
+        return postings.size();
+    }
+
+    /**
+     * Returns the keys under which a task is indexed.
+     *
+     * @param description the task description
+     * @return the keys of the description; duplicates are allowed
+     */
+    abstract List<String> keysOf(String description);
+
+    /**
+     * Called when a key gets its first posting. Subclasses may keep derived structures over the
+     * keys up to date here.
+     *
+     * @param key the new key
+     */
+    void keyAdded(String key) {
+    }
+
+    /**
+     * Called when every key is dropped before the index is rebuilt.
+     */
+    void keysCleared() {
+    }
+
+    /**
+     * Builds the index from the list unless it is already in step with it.
+     *
+     * @param tasks the list of tasks
+     */
+    synchronized void ensureBuilt(List<Task> tasks) {
+        if (isBuilt && size == tasks.size()) {
+            return;
+        }
+
+        postings.clear();
+        keysCleared();
+        tree = new int[Math.max(16, tasks.size() * 2) + 1];
+        live = new BitSet();
+        nextId = 0;
+        size = 0;
+        deadCount = 0;
+        isBuilt = true;
+        for (Task task : tasks) {
+            index(task);
+        }
+    }
+
+    /**
+     * Returns the postings of a key.
+     *
+     * @param key the key to look up
+     * @return the postings, or null if no task has the key
+     */
+    Postings postingsOf(String key) {
+        return postings.get(key);
+    }
+
+    /**
+     * Keeps the live candidates whose lowercased description contains the term.
+     *
+     * @param tasks      the list of tasks
+     * @param candidates candidate ids in ascending order
+     * @param term       the lowercased search term
+     * @return 0-based positions of the matching tasks, in list order
+     */
+    List<Integer> verify(List<Task> tasks, int[] candidates, String term) {
+        List<Integer> matches = new ArrayList<>();
+        for (int id : candidates) {
+            if (!live.get(id)) {
+                continue;
+            }
+            int position = positionOf(id);
+            if (tasks.get(position).getDescription().toLowerCase().contains(term)) {
+                matches.add(position);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Maps the live ids to their positions and drops the deleted ones.
+     *
+     * @param ids task ids in ascending order
+     * @return 0-based positions of the live tasks, in list order
+     */
+    List<Integer> positionsOf(int[] ids) {
+        List<Integer> positions = new ArrayList<>();
+        for (int id : ids) {
+            if (live.get(id)) {
+                positions.add(positionOf(id));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Checks if the id belongs to a task that is still in the list.
+     *
+     * @param id the task id
+     * @return true if the task has not been deleted, false otherwise
+     */
+    boolean isLive(int id) {
+        return live.get(id);
+    }
+
+    /**
+     * Returns the number of live ids before the given id, which is its position in the list.
+     *
+     * @param id a live task id
+     * @return 0-based position of the task
+     */
+    int positionOf(int id) {
+        int count = 0;
+        for (int i = id; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Checks every task without the index.
+     *
+     * @param tasks the list of tasks
+     * @param term  the lowercased search term
+     * @return 0-based positions of the matching tasks, in list order
+     */
+    static List<Integer> scan(List<Task> tasks, String term) {
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getDescription().toLowerCase().contains(term)) {
+                matches.add(i);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Merges several posting lists into one sorted array without duplicates.
+     *
+     * @param lists the posting lists to merge
+     * @return the union of the ids, ascending
+     */
+    static int[] union(List<Postings> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0).toArray();
+        }
+
+        BitSet merged = new BitSet();
+        for (Postings list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                merged.set(list.ids[i]);
+            }
+        }
+        return merged.stream().toArray();
+    }
+
+    /**
+     * Intersects sorted posting lists, starting from the shortest.
+     *
+     * @param lists the posting lists, shortest first
+     * @return the ids present in every list, ascending
+     */
+    static int[] intersect(List<Postings> lists) {
+        int[] result = lists.get(0).toArray();
+        int count = result.length;
+
+        for (int l = 1; l < lists.size() && count > 0; l++) {
+            Postings other = lists.get(l);
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count; i++) {
+                int id = result[i];
+                j = advance(other, j, id);
+                if (j < other.size() && other.get(j) == id) {
+                    result[kept++] = id;
+                }
+            }
+            count = kept;
+        }
+
+        int[] ids = new int[count];
+        System.arraycopy(result, 0, ids, 0, count);
+        return ids;
+    }
+
+    /**
+     * Returns the first index at or after {@code from} whose id is at least {@code id},
+     * galloping so that a short list intersects a long one in logarithmic steps.
+     */
+    private static int advance(Postings postings, int from, int id) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < postings.size() && postings.get(high) < id) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, postings.size());
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (postings.get(middle) < id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void invalidate() {
+        isBuilt = false;
+        postings.clear();
+        keysCleared();
+    }
+
+    private void index(Task task) {
+        if (nextId + 1 >= tree.length) {
+            growTree();
+        }
+
+        int id = nextId++;
+        live.set(id);
+        addToTree(id, 1);
+        size++;
+
+        for (String key : keysOf(task.getDescription())) {
+            Postings keyPostings = postings.get(key);
+            if (keyPostings == null) {
+                keyPostings = new Postings();
+                postings.put(key, keyPostings);
+                keyAdded(key);
+            }
+            keyPostings.add(id);
+        }
+    }
+
+    private void growTree() {
+        tree = new int[Math.max(16, (tree.length - 1) * 2) + 1];
+        for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+            addToTree(id, 1);
+        }
+    }
+
+    private void addToTree(int id, int delta) {
+        for (int i = id + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the live id at the given position in the list.
+     */
+    private int idAt(int position) {
+        int index = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < tree.length && tree[next] < remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return index;
+    }
+
+    /**
+     * A growable, sorted list of task ids without duplicates.
+     */
+    static class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        /**
+         * Wraps ids that are already sorted and distinct.
+         */
+        static Postings of(int[] sortedIds) {
+            Postings postings = new Postings();
+            postings.ids = sortedIds;
+            postings.size = sortedIds.length;
+            return postings;
+        }
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                // the key occurs more than once in the same description
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(2, size * 2));
+            }
+            ids[size++] = id;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int i) {
+            return ids[i];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
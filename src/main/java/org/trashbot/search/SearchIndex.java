@@ -0,0 +1,107 @@
+package org.trashbot.search;
+
+import java.util.List;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * The set of indexes that TrashBot keeps over its task list, behind a single
+ * {@link TaskIndex} that commands notify of their changes.
+ *
+ * <p>Every index is built lazily on its first query and then maintained incrementally.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * SearchIndex index = new SearchIndex();
+ * List&lt;Integer&gt; positions = index.find(tasks, "book");
+ * </pre>
+ * </p>
+ *
+ * @see TrigramIndex
+ * @see KeywordIndex
+ * @see AttributeIndex
+ */
+public class SearchIndex implements TaskIndex {
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final AttributeIndex attributeIndex = new AttributeIndex();
+
+    @Override
+    public void added(List<Task> tasks, Task task) {
+        trigramIndex.added(tasks, task);
+        keywordIndex.added(tasks, task);
+        attributeIndex.added(tasks, task);
+    }
+
+    @Override
+    public void removed(List<Task> tasks, int... positions) {
+        trigramIndex.removed(tasks, positions);
+        keywordIndex.removed(tasks, positions);
+        attributeIndex.removed(tasks, positions);
+    }
+
+    @Override
+    public void updated(List<Task> tasks, int position) {
+        trigramIndex.updated(tasks, position);
+        keywordIndex.updated(tasks, position);
+        attributeIndex.updated(tasks, position);
+    }
+
+    @Override
+    public void replaced(List<Task> tasks) {
+        trigramIndex.replaced(tasks);
+        keywordIndex.replaced(tasks);
+        attributeIndex.replaced(tasks);
+    }
+
+    /**
+     * Finds the tasks whose lowercased description contains the given term, with the same
+     * result as checking every task.
+     *
+     * @param tasks the list of tasks to search
+     * @param term  the lowercased search term
+     * @return 0-based positions of the matching tasks, in list order
+     */
+    public List<Integer> find(List<Task> tasks, String term) {
+        return trigramIndex.find(tasks, term);
+    }
+
+    /**
+     * Finds the tasks with a token close to every token of the term, tolerating typos.
+     *
+     * @param tasks the list of tasks to search
+     * @param term  the lowercased search term
+     * @return 0-based positions of the matching tasks, in list order
+     * @see KeywordIndex#findFuzzy(List, String)
+     */
+    public List<Integer> findFuzzy(List<Task> tasks, String term) {
+        return keywordIndex.findFuzzy(tasks, term);
+    }
+
+    /**
+     * Returns the index from description tokens to tasks.
+     *
+     * @return the keyword index
+     */
+    public KeywordIndex getKeywordIndex() {
+        return keywordIndex;
+    }
+
+    /**
+     * Returns the index from description substrings to tasks.
+     *
+     * @return the trigram index
+     */
+    public TrigramIndex getTrigramIndex() {
+        return trigramIndex;
+    }
+
+    /**
+     * Returns the index over completion status, task type and due time.
+     *
+     * @return the attribute index
+     */
+    public AttributeIndex getAttributeIndex() {
+        return attributeIndex;
+    }
+}
@@ -0,0 +1,70 @@
+package org.trashbot.search;
+
+import java.util.List;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * Receives every change that a command makes to the task list, so that an index over the
+ * list can be maintained incrementally.
+ *
+ * <p>The callbacks mirror {@link org.trashbot.storage.DataPersistence}: they are called after
+ * the list has been changed, with the list as it is now. An index that finds the list out of
+ * step with what it has seen should discard its state and rebuild it on next use.</p>
+ *
+ * @see KeywordIndex
+ */
+public interface TaskIndex {
+    /**
+     * An index that ignores every change.
+     */
+    TaskIndex NONE = new TaskIndex() {
+        @Override
+        public void added(List<Task> tasks, Task task) {
+        }
+
+        @Override
+        public void removed(List<Task> tasks, int... positions) {
+        }
+    };
+
+    /**
+     * Called after a task has been appended to the end of the list.
+     *
+     * @param tasks the list of tasks, already containing the new task
+     * @param task  the task that was added
+     */
+    void added(List<Task> tasks, Task task);
+
+    /**
+     * Called after one or more tasks have been removed from the list.
+     *
+     * @param tasks     the list of tasks, with the tasks already removed
+     * @param positions the 0-based positions the removed tasks had before removal, ascending
+     */
+    void removed(List<Task> tasks, int... positions);
+
+    /**
+     * Called after the completion status of a task has changed.
+     *
+     * <p>The default implementation does nothing, for indexes that only look at descriptions.</p>
+     *
+     * @param tasks    the list of tasks
+     * @param position the 0-based position of the changed task
+     */
+    default void updated(List<Task> tasks, int position) {
+        // descriptions do not change when a task is marked
+    }
+
+    /**
+     * Called after the contents of the list have been replaced as a whole, for example when a
+     * transaction is rolled back.
+     *
+     * <p>The default implementation does nothing, for indexes that keep no state.</p>
+     *
+     * @param tasks the list of tasks with its new contents
+     */
+    default void replaced(List<Task> tasks) {
+        // nothing to discard
+    }
+}
@@ -0,0 +1,89 @@
+package org.trashbot.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * An index from every three-character substring of the lowercased descriptions to the tasks
+ * that contain it.
+ *
+ * <p>Any description that contains a query also contains every trigram of the query, so the
+ * intersection of the query's posting lists is a superset of the answer. Each candidate is
+ * then verified with the same {@code contains} check that a plain scan uses, so the result
+ * is exactly that of a scan. Queries shorter than three characters have no trigrams and fall
+ * back to a scan.</p>
+ *
+ * @see PostingIndex
+ */
+public class TrigramIndex extends PostingIndex {
+    /**
+     * Length of the substrings under which descriptions are indexed
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    /**
+     * Finds the tasks whose lowercased description contains the given term.
+     *
+     * @param tasks the list of tasks to search
+     * @param term  the lowercased search term
+     * @return 0-based positions of the matching tasks, in list order
+     */
+    public List<Integer> find(List<Task> tasks, String term) {
+        if (term.length() < GRAM_LENGTH) {
+            return scan(tasks, term);
+        }
+        ensureBuilt(tasks);
+
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : gramsOf(term)) {
+            Postings postings = postingsOf(gram);
+            if (postings == null) {
+                return new ArrayList<>();
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        return verify(tasks, intersect(lists), term);
+    }
+
+    /**
+     * Returns an upper bound on the number of tasks that contain the term, without verifying
+     * any of them: the size of the shortest posting list among the term's trigrams.
+     *
+     * @param tasks the list of tasks
+     * @param term  the lowercased search term
+     * @return the estimated number of matches, or the list size for terms without trigrams
+     */
+    public int estimate(List<Task> tasks, String term) {
+        if (term.length() < GRAM_LENGTH) {
+            return tasks.size();
+        }
+        ensureBuilt(tasks);
+
+        int estimate = tasks.size();
+        for (String gram : gramsOf(term)) {
+            Postings postings = postingsOf(gram);
+            estimate = Math.min(estimate, postings == null ? 0 : postings.size());
+        }
+        return estimate;
+    }
+
+    @Override
+    List<String> keysOf(String description) {
+        return new ArrayList<>(gramsOf(description.toLowerCase()));
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
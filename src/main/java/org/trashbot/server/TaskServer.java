@@ -0,0 +1,611 @@
+package org.trashbot.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.trashbot.core.TrashBot;
+
+/**
+ * Serves a {@link TrashBot} to local clients over a line-based TCP protocol.
+ *
+ * <p>A client sends one command per line, in UTF-8, and receives the response as one or more
+ * lines followed by a line holding a single {@code .}; response lines that start with a
+ * {@code .} are sent with an extra {@code .} in front, so they cannot end the response early.
+ * A client may send several commands without waiting, and gets the responses in order. After
+ * {@code bye} the server answers with {@link #GOODBYE_RESPONSE} and closes the connection.</p>
+ *
+ * <p>All connections are multiplexed by one selector thread, so thousands of idle or slow
+ * clients cost no threads. Commands run on a fixed pool of workers fed by a bounded queue,
+ * through {@link TrashBot#handle(String, Appendable)}, which lets read-only commands run in
+ * parallel. Backpressure is applied at two levels: a connection is not read from while one of
+ * its commands is queued, running or being answered, so a fast client is throttled by TCP flow
+ * control, and a command that finds the queue full is answered with {@link #BUSY_RESPONSE}
+ * straight away instead of waiting.</p>
+ *
+ * <p>Responses are streamed: the worker frames the response as the command writes it and hands
+ * it to the selector thread in chunks of about {@link #CHUNK_SIZE} bytes through a small bounded
+ * queue, so a response of any length takes a fixed amount of memory per connection. The bot
+ * never holds a lock while the worker waits for room in the queue, so a slow client only ties up
+ * its own worker. A worker whose client has not made room for {@link #WRITE_TIMEOUT_SECONDS}
+ * gives up and the connection is closed, so that the worker can serve other clients.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * try (TaskServer server = new TaskServer(trashBot, 5151, 4, 1024)) {
+ *     server.start();
+ *     ...
+ * }
+ * </pre>
+ * </p>
+ *
+ * @see TrashBot
+ */
+public class TaskServer implements Closeable {
+    /**
+     * Port the server listens on by default
+     */
+    public static final int DEFAULT_PORT = 5151;
+
+    /**
+     * Default capacity of the queue of commands waiting for a worker
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Line that ends every response
+     */
+    public static final String END_OF_RESPONSE = ".";
+
+    /**
+     * Response to a command that arrives while the queue is full
+     */
+    public static final String BUSY_RESPONSE = "Error: The server is busy, please try again";
+
+    /**
+     * Response to {@code bye}, sent before the server closes the connection
+     */
+    public static final String GOODBYE_RESPONSE = "Bye. Hope to see you again soon!";
+
+    /**
+     * Size from which a framed response is handed to the selector thread, in characters
+     */
+    static final int CHUNK_SIZE = 8_192;
+
+    /**
+     * Time a worker waits for a slow client to make room for the next chunk
+     */
+    static final long WRITE_TIMEOUT_SECONDS = 10;
+
+    private static final int BUFFER_SIZE = 4_096;
+
+    /**
+     * Number of chunks of a response that may wait to be sent
+     */
+    private static final int MAX_QUEUED_CHUNKS = 8;
+
+    /**
+     * Chunk that marks the end of a response in the queue of a connection
+     */
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    /**
+     * Length of the longest command accepted, in bytes
+     */
+    private static final int MAX_LINE_LENGTH = 64 * 1_024;
+
+    private final TrashBot trashBot;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * Connections whose worker has queued chunks of a response or given up, waiting for the
+     * selector thread to send them or drop the connection
+     */
+    private final Queue<Connection> answered = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong commandCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private volatile boolean isRunning;
+    private Thread selectorThread;
+
+    /**
+     * Creates a server bound to the loopback interface. It does not accept connections until
+     * {@link #start()} is called.
+     *
+     * @param trashBot      the bot that executes the commands
+     * @param port          the port to listen on, or 0 for any free port
+     * @param workerCount   number of threads that execute commands
+     * @param queueCapacity number of commands that may wait for a worker
+     * @throws IOException if the port cannot be bound
+     */
+    public TaskServer(TrashBot trashBot, int port, int workerCount, int queueCapacity) throws IOException {
+        assert workerCount > 0 : "Worker count must be positive";
+        assert queueCapacity > 0 : "Queue capacity must be positive";
+
+        this.trashBot = trashBot;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), queueCapacity);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "trashbot-server-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     */
+    public void start() {
+        isRunning = true;
+        selectorThread = new Thread(this::runSelector, "trashbot-server-selector");
+        selectorThread.start();
+    }
+
+    /**
+     * Returns the address the server listens on.
+     *
+     * @return the local address, with the actual port if 0 was requested
+     * @throws IOException if the address cannot be determined
+     */
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Returns the number of clients currently connected.
+     *
+     * @return the number of open connections
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Returns the number of commands executed so far.
+     *
+     * @return the number of commands handed to the bot
+     */
+    public long getCommandCount() {
+        return commandCount.get();
+    }
+
+    /**
+     * Returns the number of commands answered with {@link #BUSY_RESPONSE} so far.
+     *
+     * @return the number of rejected commands
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Stops accepting commands, closes every connection and waits for the running commands.
+     * Does not shut down the bot.
+     *
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        isRunning = false;
+        selector.wakeup();
+        if (selectorThread != null) {
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    /**
+     * Serves the tasks in a save file until the process is stopped, then saves them.
+     *
+     * <p>Usage: {@code TaskServer [--port N] [--save FILE] [--workers N] [--queue N]}</p>
+     *
+     * @param args the options
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        String saveFile = "./data/TrashBot.sav";
+        int workerCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--save" -> saveFile = args[++i];
+                case "--workers" -> workerCount = Integer.parseInt(args[++i]);
+                case "--queue" -> queueCapacity = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Usage: TaskServer [--port N] [--save FILE] [--workers N] [--queue N]");
+            System.exit(2);
+        }
+
+        try {
+            TrashBot trashBot = new TrashBot(saveFile);
+            TaskServer server = new TaskServer(trashBot, port, Math.max(1, workerCount), Math.max(1, queueCapacity));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                    trashBot.shutdown();
+                } catch (IOException e) {
+                    System.err.println("Error saving tasks: " + e.getMessage());
+                }
+            }));
+            server.start();
+            System.out.println("TrashBot is listening on " + server.getAddress());
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void runSelector() {
+        try {
+            while (isRunning) {
+                selector.select();
+
+                Connection connection;
+                while ((connection = answered.poll()) != null) {
+                    try {
+                        connection.pump();
+                    } catch (RuntimeException e) {
+                        connection.close();
+                    }
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        try {
+                            accept();
+                        } catch (IOException e) {
+                            System.err.println("Error: Could not accept a client: " + e.getMessage());
+                        }
+                        continue;
+                    }
+
+                    Connection ready = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            ready.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            ready.write();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        // A cancelled key or a failing client must not stop the other connections.
+                        ready.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error: The server stopped: " + e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connectionCount.incrementAndGet();
+    }
+
+    /**
+     * Encodes a response for the wire, escaping lines that start with the end marker.
+     */
+    static ByteBuffer encode(String response) {
+        StringBuilder frame = new StringBuilder(response.length() + 8);
+        appendEscaped(frame, response, true);
+        frame.append('\n').append(END_OF_RESPONSE).append('\n');
+        return StandardCharsets.UTF_8.encode(frame.toString());
+    }
+
+    /**
+     * Appends text to a frame, doubling the end marker at the start of every line.
+     *
+     * @param frame         the frame being built
+     * @param text          the text of the response
+     * @param isAtLineStart whether the frame ends at the start of a line
+     * @return whether the frame now ends at the start of a line
+     */
+    private static boolean appendEscaped(StringBuilder frame, CharSequence text, boolean isAtLineStart) {
+        char marker = END_OF_RESPONSE.charAt(0);
+        boolean isLineStart = isAtLineStart;
+        int copied = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isLineStart && c == marker) {
+                frame.append(text, copied, i).append(marker);
+                copied = i;
+            }
+            isLineStart = c == '\n';
+        }
+        frame.append(text, copied, text.length());
+        return isLineStart;
+    }
+
+    /**
+     * The state of one client. Only the selector thread touches it, except for the queue of
+     * chunks, which a worker fills, and the flags the worker sets before handing the
+     * connection back.
+     */
+    private class Connection {
+        private final SocketChannel channel;
+        private final Queue<String> pendingCommands = new ArrayDeque<>();
+        private final BlockingQueue<ByteBuffer> chunks = new ArrayBlockingQueue<>(MAX_QUEUED_CHUNKS);
+        private SelectionKey key;
+        private ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        private ByteBuffer output;
+        private boolean isBusy;
+        private volatile boolean isClosing;
+        private volatile boolean isAborted;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (channel.read(input) < 0) {
+                close();
+                return;
+            }
+            input.flip();
+            int lineStart = 0;
+            for (int i = input.position(); i < input.limit(); i++) {
+                if (input.get(i) == '\n') {
+                    int end = i > lineStart && input.get(i - 1) == '\r' ? i - 1 : i;
+                    byte[] line = new byte[end - lineStart];
+                    input.get(lineStart, line);
+                    pendingCommands.add(new String(line, StandardCharsets.UTF_8));
+                    lineStart = i + 1;
+                }
+            }
+            input.position(lineStart);
+            input.compact();
+            if (!input.hasRemaining()) {
+                if (input.capacity() >= MAX_LINE_LENGTH) {
+                    close();
+                    return;
+                }
+                ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+                input.flip();
+                larger.put(input);
+                input = larger;
+            }
+            dispatch();
+        }
+
+        void write() throws IOException {
+            channel.write(output);
+            if (output.hasRemaining()) {
+                return;
+            }
+            output = null;
+            if (isBusy) {
+                takeChunk();
+                updateInterest();
+            } else {
+                dispatch();
+            }
+        }
+
+        /**
+         * Starts sending the next chunk queued by the worker, if the previous one has been sent.
+         */
+        void pump() {
+            if (isAborted) {
+                close();
+                return;
+            }
+            if (output == null && isBusy) {
+                takeChunk();
+                updateInterest();
+            }
+        }
+
+        private void takeChunk() {
+            ByteBuffer chunk = chunks.poll();
+            if (chunk != END_OF_STREAM) {
+                output = chunk;
+                return;
+            }
+
+            isBusy = false;
+            if (isClosing) {
+                close();
+                return;
+            }
+            dispatch();
+        }
+
+        /**
+         * Hands the next command to a worker, unless one is still in flight.
+         */
+        void dispatch() {
+            if (!isBusy && output == null && !pendingCommands.isEmpty()) {
+                String command = pendingCommands.poll();
+                isBusy = true;
+                try {
+                    workers.execute(() -> respond(command));
+                } catch (RejectedExecutionException e) {
+                    rejectedCount.incrementAndGet();
+                    isBusy = false;
+                    output = encode(BUSY_RESPONSE);
+                }
+            }
+            updateInterest();
+        }
+
+        /**
+         * Executes a command on a worker thread, streaming the response to the selector thread.
+         */
+        private void respond(String command) {
+            ResponseStream response = new ResponseStream(this);
+            try {
+                try {
+                    if (!trashBot.handle(command, response)) {
+                        isClosing = true;
+                        response.append(GOODBYE_RESPONSE);
+                    }
+                } catch (RuntimeException e) {
+                    response.append("Error: " + e.getMessage());
+                } finally {
+                    commandCount.incrementAndGet();
+                }
+                response.finish();
+            } catch (IOException e) {
+                isAborted = true;
+            }
+            handBack();
+        }
+
+        /**
+         * Queues a chunk of the response, waiting for the client to make room if it is slow.
+         * The selector thread is not told about the chunk until {@link #handBack()} is called.
+         */
+        void queue(ByteBuffer chunk) throws IOException {
+            try {
+                if (!channel.isOpen() || !chunks.offer(chunk, WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IOException("The client stopped reading");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while sending the response", e);
+            }
+        }
+
+        void handBack() {
+            answered.add(this);
+            selector.wakeup();
+        }
+
+        /**
+         * Reads only when idle, so that a client cannot queue more than one command at a time.
+         */
+        private void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            int interest = output != null
+                    ? SelectionKey.OP_WRITE
+                    : !isBusy && pendingCommands.isEmpty() ? SelectionKey.OP_READ : 0;
+            key.interestOps(interest);
+        }
+
+        void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            key.cancel();
+            chunks.clear();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // the connection is being dropped anyway
+            }
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Frames a response as the command writes it, and sends it to the client in chunks.
+     */
+    private static class ResponseStream implements Appendable {
+        private final Connection connection;
+        private final StringBuilder frame = new StringBuilder(CHUNK_SIZE + 256);
+        private boolean isAtLineStart = true;
+
+        ResponseStream(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Appendable append(CharSequence text) throws IOException {
+            isAtLineStart = appendEscaped(frame, text, isAtLineStart);
+            // chunks end at line breaks, so that no character is split between two chunks
+            if (isAtLineStart && frame.length() >= CHUNK_SIZE) {
+                sendFrame();
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) throws IOException {
+            return append(text.subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            return append(String.valueOf(c));
+        }
+
+        /**
+         * Ends the response and queues what is left of it. The connection is handed back to the
+         * selector thread once the worker is done.
+         */
+        void finish() throws IOException {
+            frame.append('\n').append(END_OF_RESPONSE).append('\n');
+            connection.queue(StandardCharsets.UTF_8.encode(frame.toString()));
+            connection.queue(END_OF_STREAM);
+        }
+
+        private void sendFrame() throws IOException {
+            connection.queue(StandardCharsets.UTF_8.encode(frame.toString()));
+            frame.setLength(0);
+            connection.handBack();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.trashbot.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Event;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+/**
+ * Stores tasks in a compact, versioned binary format.
+ *
+ * <p>Tasks are rebuilt through their direct constructors, so loading does no command-string
+ * re-parsing and no {@link java.time.format.DateTimeFormatter} work. Saves inherit the atomic
+ * write and group commit behaviour of {@link FileStorage}.</p>
+ *
+ * <p>File layout (big-endian):
+ * <pre>
+ * header:  magic "TBOT" (4 bytes) | version (short) | task count (int)
+ * record:  type tag (byte 'T', 'D' or 'E') | done flag (byte) | description (string)
+ *          deadline only: deadline as epoch seconds in UTC (long)
+ *          event only:    from (string) | to (string)
+ * string:  length in bytes (int) | UTF-8 bytes
+ * </pre>
+ * </p>
+ *
+ * <p>A save file in the old text format is detected by its missing header, loaded through
+ * {@link FileStorage} and rewritten in the binary format.</p>
+ *
+ * @see FileStorage
+ */
+public class BinaryStorage extends FileStorage {
+    /**
+     * Current version of the binary format
+     */
+    public static final short VERSION = 1;
+
+    private static final byte[] MAGIC = {'T', 'B', 'O', 'T'};
+    private static final byte TYPE_TODO = 'T';
+    private static final byte TYPE_DEADLINE = 'D';
+    private static final byte TYPE_EVENT = 'E';
+
+    private final Path path;
+
+    /**
+     * Creates a BinaryStorage instance for the given save file.
+     *
+     * @param filePath path to the file for storing tasks
+     */
+    public BinaryStorage(String filePath) {
+        super(filePath);
+        this.path = Paths.get(filePath);
+    }
+
+    /**
+     * Loads tasks from the binary save file, migrating a text save file if one is found.
+     *
+     * @return list of tasks read from the file
+     * @throws IOException if the file cannot be read or has an unsupported version
+     */
+    @Override
+    public List<Task> load() throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0 || !hasMagic()) {
+            return migrateTextFile();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            in.readFully(new byte[MAGIC.length]);
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported save file version: " + version);
+            }
+
+            int count = in.readInt();
+            List<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in));
+            }
+            return tasks;
+        } catch (EOFException e) {
+            throw new IOException("Save file is truncated", e);
+        }
+    }
+
+    @Override
+    void writeAndForce(Path target, List<Task> tasks) throws IOException, DukeException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (!Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileOutputStream fos = new FileOutputStream(target.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.write(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+            out.flush();
+            fos.getChannel().force(true);
+        }
+    }
+
+    /**
+     * Loads a text save file through {@link FileStorage} and rewrites it in the binary format.
+     *
+     * @return list of tasks read from the text file
+     * @throws IOException if the file cannot be read or rewritten
+     */
+    private List<Task> migrateTextFile() throws IOException {
+        List<Task> tasks = super.load();
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+
+        try {
+            save(tasks);
+        } catch (DukeException e) {
+            throw new IOException("Failed to migrate save file: " + e.getMessage(), e);
+        }
+        return tasks;
+    }
+
+    private boolean hasMagic() throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        }
+    }
+
+    private void writeTask(DataOutputStream out, Task task) throws IOException {
+        if (task instanceof Deadline) {
+            out.writeByte(TYPE_DEADLINE);
+        } else if (task instanceof Event) {
+            out.writeByte(TYPE_EVENT);
+        } else {
+            out.writeByte(TYPE_TODO);
+        }
+        out.writeBoolean(task.isDone());
+        writeString(out, task.getDescription());
+
+        if (task instanceof Deadline) {
+            out.writeLong(((Deadline) task).getDeadline().toEpochSecond(ZoneOffset.UTC));
+        } else if (task instanceof Event) {
+            writeString(out, ((Event) task).getFrom());
+            writeString(out, ((Event) task).getTo());
+        }
+    }
+
+    private Task readTask(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        boolean isDone = in.readBoolean();
+        String description = readString(in);
+
+        switch (type) {
+        case TYPE_TODO:
+            return new Todo(description, isDone);
+        case TYPE_DEADLINE:
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+            return new Deadline(description, dateTime, isDone);
+        case TYPE_EVENT:
+            String from = readString(in);
+            String to = readString(in);
+            return new Event(description, from, to, isDone);
+        default:
+            throw new IOException("Unknown task type in save file: " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupted string length in save file: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,15 @@
+package org.trashbot.storage;
+
+/**
+ * A point-in-time view of the journal and of past compactions of a {@link JournalStorage}.
+ *
+ * @param logBytes             current size of the journal in bytes
+ * @param logRecords           current number of records in the journal
+ * @param compactionCount      number of compactions completed
+ * @param lastCompactionMillis duration of the last completed compaction, or 0 if none
+ * @param lastBytesReclaimed   bytes freed on disk by the last completed compaction
+ * @param totalBytesReclaimed  bytes freed on disk by all completed compactions
+ */
+public record CompactionMetrics(long logBytes, long logRecords, long compactionCount, long lastCompactionMillis,
+        long lastBytesReclaimed, long totalBytesReclaimed) {
+}
@@ -0,0 +1,81 @@
+package org.trashbot.storage;
+
+/**
+ * Decides when {@link JournalStorage} should fold its journal into a new snapshot.
+ *
+ * <p>The policy is consulted after every journaled mutation and periodically while the
+ * storage is idle, but only while the journal holds at least one record.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * CompactionPolicy policy = CompactionPolicy.anyOf(
+ *         CompactionPolicy.logSize(64 * 1024),
+ *         CompactionPolicy.idle(30_000));
+ * DataPersistence storage = new JournalStorage("data/TrashBot.sav", policy);
+ * </pre>
+ * </p>
+ *
+ * @see JournalStorage
+ */
+@FunctionalInterface
+public interface CompactionPolicy {
+    /**
+     * Decides whether the journal should be compacted now.
+     *
+     * @param logBytes   size of the journal in bytes
+     * @param logRecords number of records in the journal, i.e. the replay cost of the next load
+     * @param idleMillis milliseconds since the last record was appended
+     * @return true to compact, false otherwise
+     */
+    boolean shouldCompact(long logBytes, long logRecords, long idleMillis);
+
+    /**
+     * Compacts once the journal reaches the given size.
+     *
+     * @param maxBytes journal size in bytes that triggers a compaction
+     * @return the policy
+     */
+    static CompactionPolicy logSize(long maxBytes) {
+        assert maxBytes > 0 : "Journal size limit must be positive";
+        return (logBytes, logRecords, idleMillis) -> logBytes >= maxBytes;
+    }
+
+    /**
+     * Compacts once replaying the journal would apply the given number of records.
+     *
+     * @param maxRecords number of journal records that triggers a compaction
+     * @return the policy
+     */
+    static CompactionPolicy replayCost(long maxRecords) {
+        assert maxRecords > 0 : "Replay cost limit must be positive";
+        return (logBytes, logRecords, idleMillis) -> logRecords >= maxRecords;
+    }
+
+    /**
+     * Compacts once no record has been appended for the given time.
+     *
+     * @param minIdleMillis idle time in milliseconds that triggers a compaction
+     * @return the policy
+     */
+    static CompactionPolicy idle(long minIdleMillis) {
+        assert minIdleMillis >= 0 : "Idle time must not be negative";
+        return (logBytes, logRecords, idleMillis) -> idleMillis >= minIdleMillis;
+    }
+
+    /**
+     * Compacts as soon as any of the given policies would.
+     *
+     * @param policies the policies to combine
+     * @return the combined policy
+     */
+    static CompactionPolicy anyOf(CompactionPolicy... policies) {
+        return (logBytes, logRecords, idleMillis) -> {
+            for (CompactionPolicy policy : policies) {
+                if (policy.shouldCompact(logBytes, logRecords, idleMillis)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
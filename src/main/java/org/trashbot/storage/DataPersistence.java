@@ -59,4 +59,101 @@ public interface DataPersistence {
      *                     such as file system errors or network issues
      */
     List<Task> load() throws IOException;
+
+    /**
+     * Persists a task that has just been appended to the end of the list.
+     *
+     * <p>The default implementation rewrites the whole list through {@link #save(List)}.
+     * Implementations that can record a single change should override this.</p>
+     *
+     * @param tasks The list of tasks after the task was appended
+     * @param task  The task that was appended
+     * @throws IOException if there is an error writing to the storage medium
+     */
+    default void append(List<Task> tasks, Task task) throws IOException, DukeException {
+        save(tasks);
+    }
+
+    /**
+     * Persists a change to the completion status of the task at the given index.
+     *
+     * <p>The default implementation rewrites the whole list through {@link #save(List)}.</p>
+     *
+     * @param tasks The list of tasks containing the updated task
+     * @param index The 0-based index of the task that was updated
+     * @throws IOException if there is an error writing to the storage medium
+     */
+    default void update(List<Task> tasks, int index) throws IOException, DukeException {
+        save(tasks);
+    }
+
+    /**
+     * Persists the removal of tasks that have already been removed from the list.
+     *
+     * <p>The default implementation rewrites the whole list through {@link #save(List)}.</p>
+     *
+     * @param tasks   The list of tasks after the removal
+     * @param indices The 0-based indices the removed tasks had before removal, in ascending order
+     * @throws IOException if there is an error writing to the storage medium
+     */
+    default void remove(List<Task> tasks, int... indices) throws IOException, DukeException {
+        save(tasks);
+    }
+
+    /**
+     * Persists a change to the completion status of the task at the given index, given the
+     * status it had before, for implementations that can undo the change.
+     *
+     * <p>The default implementation ignores the previous status and calls
+     * {@link #update(List, int)}.</p>
+     *
+     * @param tasks   The list of tasks containing the updated task
+     * @param index   The 0-based index of the task that was updated
+     * @param wasDone Whether the task was done before the update
+     * @throws IOException if there is an error writing to the storage medium
+     */
+    default void update(List<Task> tasks, int index, boolean wasDone) throws IOException, DukeException {
+        update(tasks, index);
+    }
+
+    /**
+     * Persists the removal of tasks that have already been removed from the list, given the
+     * removed tasks, for implementations that can undo the removal.
+     *
+     * <p>The default implementation ignores the removed tasks and calls
+     * {@link #remove(List, int...)}.</p>
+     *
+     * @param tasks        The list of tasks after the removal
+     * @param removedTasks The removed tasks, in the order of their indices
+     * @param indices      The 0-based indices the removed tasks had before removal, in ascending order
+     * @throws IOException if there is an error writing to the storage medium
+     */
+    default void remove(List<Task> tasks, List<Task> removedTasks, int... indices)
+            throws IOException, DukeException {
+        remove(tasks, indices);
+    }
+
+    /**
+     * Blocks until every change handed to this storage has been written to the storage medium.
+     *
+     * <p>Implementations that write synchronously have nothing to flush, which is the default.</p>
+     *
+     * @throws IOException if there is an error writing to the storage medium
+     */
+    default void flush() throws IOException, DukeException {
+        // writes are synchronous by default
+    }
+
+    /**
+     * Flushes the storage and releases the threads and other resources it holds. The storage
+     * must not be used afterwards.
+     *
+     * <p>Implementations without resources of their own only flush, which is the default.
+     * Decorators close the storage they wrap.</p>
+     *
+     * @throws IOException if there is an error writing to the storage medium
+     */
+    default void close() throws IOException, DukeException {
+        flush();
+    }
 }
@@ -0,0 +1,135 @@
+package org.trashbot.storage;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+
+/**
+ * Decorates another {@link DataPersistence} so that changes are only recorded until they are
+ * flushed, and then written with a single save.
+ *
+ * <p>Saves and fine-grained mutations do no I/O; they remember the list they were made to,
+ * which is the live list of the caller. {@link #flush()} saves the current contents of that
+ * list once through the underlying storage, however many changes were recorded, and
+ * {@link #discard()} forgets them without writing.</p>
+ *
+ * <p>Unlike {@link WriteBehindStorage}, nothing is written until the caller asks for it, which
+ * suits replaying a batch of commands.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * DeferredStorage storage = new DeferredStorage(new FileStorage("./data/TrashBot.sav"));
+ * storage.append(tasks, task);   // recorded, not written
+ * storage.update(tasks, 0);      // recorded, not written
+ * storage.flush();               // one save of the whole list
+ * </pre>
+ * </p>
+ *
+ * @see DataPersistence
+ */
+public class DeferredStorage implements DataPersistence {
+    private final DataPersistence delegate;
+
+    /**
+     * The list the unwritten changes were made to, or null if there are none
+     */
+    private List<Task> pendingTasks;
+
+    private int pendingChangeCount;
+    private int writeCount;
+
+    /**
+     * Creates a deferring decorator.
+     *
+     * @param delegate the storage that performs the actual writes
+     */
+    public DeferredStorage(DataPersistence delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void save(List<Task> tasks) {
+        record(tasks);
+    }
+
+    @Override
+    public List<Task> load() throws IOException {
+        return delegate.load();
+    }
+
+    @Override
+    public void append(List<Task> tasks, Task task) {
+        record(tasks);
+    }
+
+    @Override
+    public void update(List<Task> tasks, int index) {
+        record(tasks);
+    }
+
+    @Override
+    public void remove(List<Task> tasks, int... indices) {
+        record(tasks);
+    }
+
+    /**
+     * Saves the list that the recorded changes were made to, if there are any, and flushes the
+     * underlying storage.
+     *
+     * @throws IOException if the underlying storage fails to write
+     */
+    @Override
+    public void flush() throws IOException, DukeException {
+        if (pendingTasks != null) {
+            delegate.save(pendingTasks);
+            writeCount++;
+            pendingTasks = null;
+            pendingChangeCount = 0;
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Saves the recorded changes and closes the underlying storage.
+     *
+     * @throws IOException if the underlying storage fails to write
+     */
+    @Override
+    public void close() throws IOException, DukeException {
+        flush();
+        delegate.close();
+    }
+
+    /**
+     * Forgets the recorded changes without writing them.
+     */
+    public void discard() {
+        pendingTasks = null;
+        pendingChangeCount = 0;
+    }
+
+    /**
+     * Returns the number of changes recorded since the last flush or discard.
+     *
+     * @return the number of unwritten changes
+     */
+    public int getPendingChangeCount() {
+        return pendingChangeCount;
+    }
+
+    /**
+     * Returns the number of saves passed to the underlying storage so far.
+     *
+     * @return the number of writes
+     */
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    private void record(List<Task> tasks) {
+        pendingTasks = tasks;
+        pendingChangeCount++;
+    }
+}
@@ -2,12 +2,20 @@ package org.trashbot.storage;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,10 +27,49 @@ import org.trashbot.tasks.Todo;
 
 /**
  * Handles file operations for saving and loading tasks to/from disk.
+ *
+ * <p>Saves are crash-safe: the list is written to a temporary file, forced to disk and
+ * then renamed over the save file, so the save file always holds either the old or the
+ * new list. Saves that arrive while another save is being written are coalesced into a
+ * single group commit of the most recent list, so a burst of saves pays for one fsync.</p>
  */
 public class FileStorage implements DataPersistence {
+    /**
+     * File size in bytes from which {@link #load()} parses the file in parallel
+     */
+    public static final long PARALLEL_LOAD_THRESHOLD = 4L << 20;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
     private final String filePath;
     private final Path directory;
+    private final Path tempPath;
+    private final Object commitLock = new Object();
+
+    /**
+     * The most recent list handed to {@link #save(List)} that has not been written yet
+     */
+    private List<Task> pendingTasks;
+
+    /**
+     * Number of saves requested so far
+     */
+    private long requestedGeneration;
+
+    /**
+     * Number of the most recent save that is durable on disk
+     */
+    private long committedGeneration;
+
+    /**
+     * Whether a thread is currently writing a group commit
+     */
+    private boolean isCommitting;
+
+    /**
+     * Number of group commits written to disk
+     */
+    private long commitCount;
 
     /**
      * Creates a TrashBotFile instance for file operations.
@@ -31,27 +78,143 @@ public class FileStorage implements DataPersistence {
      */
     public FileStorage(String filePath) {
         this.filePath = filePath;
-        this.directory = Paths.get(filePath).getParent();
+        this.directory = Paths.get(filePath).toAbsolutePath().getParent();
+        this.tempPath = Paths.get(filePath + TEMP_SUFFIX);
     }
 
     /**
-     * Saves a list of tasks to the specified file.
+     * Saves a list of tasks to the specified file atomically.
      * Creates directories if they don't exist.
      *
+     * <p>If another thread is already writing, this call waits for it and then commits
+     * the latest pending list on behalf of every waiting caller.</p>
+     *
      * @param tasks list of tasks to save
      * @throws IOException if an I/O error occurs during file operations
      */
     public void save(List<Task> tasks) throws IOException, DukeException {
-        if (!Files.exists(directory)) {
-            Files.createDirectories(directory);
+        long generation;
+        synchronized (commitLock) {
+            pendingTasks = new ArrayList<>(tasks);
+            generation = ++requestedGeneration;
+        }
+
+        while (true) {
+            List<Task> batch;
+            long batchGeneration;
+            synchronized (commitLock) {
+                while (isCommitting && committedGeneration < generation) {
+                    awaitCommit();
+                }
+                if (committedGeneration >= generation) {
+                    return;
+                }
+                batch = pendingTasks;
+                batchGeneration = requestedGeneration;
+                pendingTasks = null;
+                isCommitting = true;
+            }
+
+            commit(batch, batchGeneration);
+        }
+    }
+
+    /**
+     * Writes one group commit outside the commit lock, then publishes the result
+     * to every caller waiting on it.
+     *
+     * @param batch           the most recent pending list
+     * @param batchGeneration the newest save request covered by this batch
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    private void commit(List<Task> batch, long batchGeneration) throws IOException, DukeException {
+        boolean isCommitted = false;
+        try {
+            writeAndForce(tempPath, batch);
+            moveAtomically(tempPath, Paths.get(filePath));
+            isCommitted = true;
+        } finally {
+            synchronized (commitLock) {
+                isCommitting = false;
+                if (isCommitted) {
+                    committedGeneration = batchGeneration;
+                    commitCount++;
+                } else if (pendingTasks == null) {
+                    // leave the batch for the next waiting caller to retry
+                    pendingTasks = batch;
+                }
+                commitLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns how many group commits have been written, which is at most the number of saves.
+     *
+     * @return number of fsynced writes of the save file
+     */
+    public long getCommitCount() {
+        synchronized (commitLock) {
+            return commitCount;
+        }
+    }
+
+    private void awaitCommit() throws IOException {
+        try {
+            commitLock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for save to complete", e);
+        }
+    }
+
+    /**
+     * Writes a list of tasks to the given file and forces the contents to disk.
+     * Creates directories if they don't exist.
+     *
+     * @param path  the file to write
+     * @param tasks list of tasks to write
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    void writeAndForce(Path path, List<Task> tasks) throws IOException, DukeException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (!Files.exists(parent)) {
+            Files.createDirectories(parent);
         }
 
-        try (FileWriter fw = new FileWriter(filePath);
-             BufferedWriter bw = new BufferedWriter(fw)) {
+        try (FileOutputStream fos = new FileOutputStream(path.toFile());
+             BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8))) {
             for (Task task : tasks) {
                 bw.write(convertTaskToString(task));
                 bw.newLine();
             }
+            bw.flush();
+            fos.getChannel().force(true);
+        }
+    }
+
+    /**
+     * Renames a file over another one atomically where the file system supports it,
+     * and forces the directory entry to disk.
+     *
+     * @param source the file to move
+     * @param target the file to replace
+     * @throws IOException if the file cannot be moved
+     */
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        try (FileChannel dir = FileChannel.open(parent, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // some platforms (e.g. Windows) cannot open directories; the rename is still atomic
         }
     }
 
@@ -59,11 +222,16 @@ public class FileStorage implements DataPersistence {
      * Loads tasks from the specified file.
      * Creates file and directories if they don't exist.
      *
+     * <p>Files of at least {@link #PARALLEL_LOAD_THRESHOLD} bytes are memory-mapped and parsed
+     * in parallel by {@link ParallelTaskLoader}; smaller files are read line by line. Either
+     * way the file is decoded as UTF-8, bytes that are not valid UTF-8 are replaced with
+     * U+FFFD, and blank lines are skipped. A file saved in another encoding, such as one edited
+     * by hand, therefore loads the same whatever its size.</p>
+     *
      * @return list of tasks read from the file
      * @throws IOException if an I/O error occurs during file operations
      */
     public List<Task> load() throws IOException {
-        List<Task> tasks = new ArrayList<>();
         Path path = Paths.get(filePath);
 
         if (!Files.exists(path)) {
@@ -71,14 +239,36 @@ public class FileStorage implements DataPersistence {
                 Files.createDirectories(directory);
             }
             Files.createFile(path);
-            return tasks;
+            return new ArrayList<>();
         }
 
-        try (FileReader fr = new FileReader(filePath);
-             BufferedReader br = new BufferedReader(fr)) {
+        if (Files.size(path) >= PARALLEL_LOAD_THRESHOLD) {
+            return new ParallelTaskLoader(this).load(path);
+        }
+        return loadSequentially(path);
+    }
+
+    /**
+     * Loads tasks from the given file one line at a time on the calling thread.
+     *
+     * @param path the file to read
+     * @return list of tasks read from the file
+     * @throws IOException if an I/O error occurs during file operations
+     */
+    List<Task> loadSequentially(Path path) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(Files.newInputStream(path), decoder))) {
             String line;
-            while ((line = br.readLine()) != null && !line.trim().isEmpty()) {
-                Task task = convertStringToTask(line.trim());
+            while ((line = br.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+
+                Task task = convertStringToTask(trimmed);
                 if (task != null) {
                     tasks.add(task);
                 }
@@ -153,39 +343,22 @@ public class FileStorage implements DataPersistence {
         String taskType = parts[0];
         boolean isDone = parts[1].equals("1");
         String description = parts[2];
-        Task task = null;
 
         switch (taskType) {
         case "T":
-            task = new Todo("todo "
-                    + description);
-            break;
+            return new Todo(description, isDone);
         case "D":
             if (parts.length < 4) {
-                return task;
+                return null;
             }
-            task = new Deadline("deadline "
-                    + description
-                    + " /by "
-                    + parts[3]);
-            break;
+            return new Deadline(description, Deadline.parseDateTime(parts[3]), isDone);
         case "E":
             if (parts.length < 5) {
-                return task;
+                return null;
             }
-            task = new Event("event "
-                    + description
-                    + " /from "
-                    + parts[3]
-                    + " /to "
-                    + parts[4]);
-            break;
+            return new Event(description, parts[3], parts[4], isDone);
         default:
-            return task;
-        }
-        if (isDone) {
-            task.markAsDone();
+            return null;
         }
-        return task;
     }
 }
@@ -0,0 +1,655 @@
+package org.trashbot.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.TaskChange;
+import org.trashbot.tasks.TaskList;
+
+/**
+ * Persists tasks as a snapshot file plus an append-only journal of mutations.
+ *
+ * <p>The snapshot uses the same text format as {@link FileStorage}. Every add, mark,
+ * unmark and delete appends one small record to a journal file next to the snapshot,
+ * so a single mutation costs O(1) disk I/O instead of rewriting the whole list.
+ * {@link #load()} rebuilds the list by replaying the journal on top of the snapshot.</p>
+ *
+ * <p>{@link #load()} returns a {@link TaskList} that tracks its own changes. Whenever that list
+ * is passed back to {@link #save(List)}, {@link #append(List, Task)}, {@link #update(List, int)}
+ * or {@link #remove(List, int...)}, only its drained delta is journaled, so saving a list of a
+ * million tasks after one mark writes a single record. Any other list is handled as before.</p>
+ *
+ * <p>A {@link CompactionPolicy} decides when the journal is folded into a new snapshot. It is
+ * consulted after every append and, for idle-time policies, once per
+ * {@link #POLICY_CHECK_INTERVAL_MILLIS} on the background thread. Compaction never blocks the
+ * caller beyond renaming the journal: the journal is rotated aside, and the background thread
+ * replays it onto the snapshot on disk, writes the result to a temporary file, moves it over
+ * the old snapshot and discards the rotated journal. The order of these steps lets
+ * {@link #load()} recover from a crash at any point. {@link #getMetrics()} reports the journal
+ * length and the cost and yield of past compactions.</p>
+ *
+ * <p>Each append forces the journal to disk before returning, as a full save forces the
+ * snapshot, so a change that has been acknowledged survives a power failure. The background
+ * thread lives until {@link #close()}.</p>
+ *
+ * <p>Journal format, one record per line:
+ * <pre>
+ * A | T | 0 | read book      (add, followed by a FileStorage task line)
+ * I | 2 | T | 0 | read book  (insert at 0-based index 2, followed by a FileStorage task line)
+ * M | 3                      (mark task at 0-based index 3 as done)
+ * U | 3                      (mark task at 0-based index 3 as not done)
+ * X | 3                      (delete task at 0-based index 3)
+ * </pre>
+ * </p>
+ *
+ * @see FileStorage
+ * @see DataPersistence
+ */
+public class JournalStorage implements DataPersistence {
+    /**
+     * Journal size in bytes after which a background compaction is scheduled
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64 * 1024;
+
+    /**
+     * Number of journal records after which a background compaction is scheduled
+     */
+    public static final long DEFAULT_MAX_REPLAY_RECORDS = 10_000;
+
+    /**
+     * Idle time in milliseconds after which a non-empty journal is compacted
+     */
+    public static final long DEFAULT_IDLE_MILLIS = 30_000;
+
+    /**
+     * Interval in milliseconds at which the policy is checked while no records are appended
+     */
+    public static final long POLICY_CHECK_INTERVAL_MILLIS = 1_000;
+
+    private static final CompactionPolicy DEFAULT_POLICY = CompactionPolicy.anyOf(
+            CompactionPolicy.logSize(DEFAULT_COMPACTION_THRESHOLD),
+            CompactionPolicy.replayCost(DEFAULT_MAX_REPLAY_RECORDS),
+            CompactionPolicy.idle(DEFAULT_IDLE_MILLIS));
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String SEPARATOR = " | ";
+    private static final String RECORD_ADD = "A";
+    private static final String RECORD_INSERT = "I";
+    private static final String RECORD_MARK = "M";
+    private static final String RECORD_UNMARK = "U";
+    private static final String RECORD_DELETE = "X";
+
+    private final FileStorage snapshot;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path compactingPath;
+    private final Path tempPath;
+    private final CompactionPolicy policy;
+    private final ScheduledExecutorService compactor;
+    private final Object lock = new Object();
+    private final Object metricsLock = new Object();
+
+    private long journalSize;
+    private long journalRecords;
+    private long lastAppendNanos = System.nanoTime();
+    private boolean isPolicyCheckScheduled;
+    private Future<?> pendingCompaction;
+
+    /**
+     * Statistics of completed compactions, guarded by {@code metricsLock}
+     */
+    private long compactionCount;
+    private long lastCompactionMillis;
+    private long lastBytesReclaimed;
+    private long totalBytesReclaimed;
+
+    /**
+     * The list returned by the last load, whose change log mirrors the journal
+     */
+    private TaskList trackedList;
+
+    /**
+     * Creates a JournalStorage that compacts on journal size, replay cost or idle time,
+     * whichever limit is reached first.
+     *
+     * @param filePath path to the snapshot file; the journal is stored alongside it
+     */
+    public JournalStorage(String filePath) {
+        this(filePath, DEFAULT_POLICY);
+    }
+
+    /**
+     * Creates a JournalStorage that compacts once the journal reaches the given size.
+     *
+     * @param filePath            path to the snapshot file; the journal is stored alongside it
+     * @param compactionThreshold journal size in bytes that triggers a background compaction
+     */
+    public JournalStorage(String filePath, long compactionThreshold) {
+        this(filePath, CompactionPolicy.logSize(compactionThreshold));
+    }
+
+    /**
+     * Creates a JournalStorage that compacts whenever the given policy says so.
+     *
+     * @param filePath path to the snapshot file; the journal is stored alongside it
+     * @param policy   decides when the journal is compacted
+     */
+    public JournalStorage(String filePath, CompactionPolicy policy) {
+        this.snapshot = new FileStorage(filePath);
+        this.snapshotPath = Paths.get(filePath);
+        this.journalPath = Paths.get(filePath + JOURNAL_SUFFIX);
+        this.compactingPath = Paths.get(filePath + COMPACTING_SUFFIX);
+        this.tempPath = Paths.get(filePath + TEMP_SUFFIX);
+        this.policy = policy;
+        // two threads, so that a policy check waiting for the lock never delays a compaction
+        // that a caller holding the lock is waiting for
+        this.compactor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "trashbot-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Journals the changes of the list returned by {@link #load()}, or writes a full
+     * snapshot of any other list and discards the journal.
+     *
+     * @param tasks list of tasks to save
+     * @throws IOException if an I/O error occurs during file operations
+     */
+    @Override
+    public void save(List<Task> tasks) throws IOException, DukeException {
+        if (!journalChanges(tasks)) {
+            saveSnapshot(tasks);
+        }
+    }
+
+    /**
+     * Writes a full snapshot of the list and discards the journal.
+     *
+     * @param tasks list of tasks to save
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    private void saveSnapshot(List<Task> tasks) throws IOException, DukeException {
+        synchronized (lock) {
+            if (tasks == trackedList) {
+                trackedList.drainChanges();
+            }
+            awaitPreviousCompaction();
+            writeSnapshot(tasks);
+            Files.deleteIfExists(compactingPath);
+            Files.deleteIfExists(journalPath);
+            FileStorage.moveAtomically(tempPath, snapshotPath);
+            journalSize = 0;
+            journalRecords = 0;
+        }
+    }
+
+    /**
+     * Loads the snapshot and replays the journal on top of it.
+     * Finishes or rolls back a compaction that was interrupted by a crash.
+     *
+     * @return list of tasks as of the last journaled mutation
+     * @throws IOException if an I/O error occurs during file operations
+     */
+    @Override
+    public List<Task> load() throws IOException {
+        synchronized (lock) {
+            awaitPreviousCompaction();
+            recover();
+
+            List<Task> tasks = snapshot.load();
+            journalRecords = replay(compactingPath, tasks) + replay(journalPath, tasks);
+            journalSize = sizeOf(compactingPath) + sizeOf(journalPath);
+            lastAppendNanos = System.nanoTime();
+            schedulePolicyCheck();
+
+            trackedList = new TaskList(tasks);
+            trackedList.trackChanges();
+            return trackedList;
+        }
+    }
+
+    @Override
+    public void append(List<Task> tasks, Task task) throws IOException, DukeException {
+        if (journalChanges(tasks)) {
+            return;
+        }
+        appendRecords(RECORD_ADD + SEPARATOR + snapshot.convertTaskToString(task), 1);
+    }
+
+    @Override
+    public void update(List<Task> tasks, int index) throws IOException, DukeException {
+        if (journalChanges(tasks)) {
+            return;
+        }
+        String type = tasks.get(index).isDone()
+                ? RECORD_MARK
+                : RECORD_UNMARK;
+        appendRecords(type + SEPARATOR + index, 1);
+    }
+
+    @Override
+    public void remove(List<Task> tasks, int... indices) throws IOException, DukeException {
+        if (journalChanges(tasks)) {
+            return;
+        }
+        StringBuilder records = new StringBuilder();
+        for (int i = indices.length - 1; i >= 0; i--) {
+            if (records.length() > 0) {
+                records.append(System.lineSeparator());
+            }
+            records.append(RECORD_DELETE).append(SEPARATOR).append(indices[i]);
+        }
+        appendRecords(records.toString(), indices.length);
+    }
+
+    /**
+     * Returns the current size of the journal that would be replayed on the next load.
+     *
+     * @return journal size in bytes
+     */
+    public long getJournalSize() {
+        synchronized (lock) {
+            return journalSize;
+        }
+    }
+
+    /**
+     * Returns the current journal length and statistics about completed compactions.
+     *
+     * @return a snapshot of the compaction metrics
+     */
+    public CompactionMetrics getMetrics() {
+        synchronized (lock) {
+            synchronized (metricsLock) {
+                return new CompactionMetrics(journalSize, journalRecords, compactionCount, lastCompactionMillis,
+                        lastBytesReclaimed, totalBytesReclaimed);
+            }
+        }
+    }
+
+    /**
+     * Waits for a running compaction and stops the background thread, including the periodic
+     * policy check.
+     *
+     * @throws IOException if the compaction failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            awaitCompaction();
+        } finally {
+            compactor.shutdown();
+        }
+    }
+
+    /**
+     * Blocks until any running background compaction has finished.
+     *
+     * @throws IOException if the compaction failed
+     */
+    public void awaitCompaction() throws IOException {
+        Future<?> compaction;
+        synchronized (lock) {
+            compaction = pendingCompaction;
+        }
+        if (compaction == null) {
+            return;
+        }
+
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for compaction", e);
+        } catch (ExecutionException e) {
+            synchronized (lock) {
+                if (pendingCompaction == compaction) {
+                    pendingCompaction = null;
+                }
+            }
+            throw new IOException("Compaction failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Waits for a running compaction before touching the snapshot. A failed compaction
+     * leaves the rotated journal in place, which {@link #recover()} and {@link #save(List)}
+     * already handle, so its failure is not propagated here.
+     */
+    private void awaitPreviousCompaction() {
+        try {
+            awaitCompaction();
+        } catch (IOException e) {
+            // the rotated journal is still on disk and will be replayed or superseded
+        }
+    }
+
+    /**
+     * Journals the pending delta of the tracked list.
+     * Falls back to a full snapshot if the list lost track of its changes.
+     *
+     * @param tasks the list being saved
+     * @return true if the list is the tracked list and has been persisted, false otherwise
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    private boolean journalChanges(List<Task> tasks) throws IOException, DukeException {
+        if (tasks != trackedList) {
+            return false;
+        }
+        if (!trackedList.isChangeLogComplete()) {
+            saveSnapshot(tasks);
+            return true;
+        }
+
+        List<TaskChange> changes = trackedList.drainChanges();
+        if (changes.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder records = new StringBuilder();
+        for (TaskChange change : changes) {
+            if (records.length() > 0) {
+                records.append(System.lineSeparator());
+            }
+            records.append(toRecord(change));
+        }
+
+        try {
+            appendRecords(records.toString(), changes.size());
+        } catch (IOException e) {
+            // the drained delta is lost; the next save has to write a full snapshot
+            trackedList.invalidateChangeLog();
+            throw e;
+        }
+        return true;
+    }
+
+    private String toRecord(TaskChange change) throws DukeException {
+        switch (change.type()) {
+        case INSERT:
+            return RECORD_INSERT + SEPARATOR + change.index() + SEPARATOR
+                    + snapshot.convertTaskToString(change.task());
+        case REMOVE:
+            return RECORD_DELETE + SEPARATOR + change.index();
+        default:
+            String type = change.task().isDone()
+                    ? RECORD_MARK
+                    : RECORD_UNMARK;
+            return type + SEPARATOR + change.index();
+        }
+    }
+
+    /**
+     * Appends one or more records to the journal, forces them to disk and schedules a compaction
+     * if the policy asks for one.
+     *
+     * @param records the record lines to append
+     * @param count   the number of records in {@code records}
+     * @throws IOException if an I/O error occurs during file operations
+     */
+    private void appendRecords(String records, int count) throws IOException {
+        byte[] bytes = (records + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+
+        synchronized (lock) {
+            Path directory = journalPath.toAbsolutePath().getParent();
+            if (!Files.exists(directory)) {
+                Files.createDirectories(directory);
+            }
+
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            journalSize += bytes.length;
+            journalRecords += count;
+            lastAppendNanos = System.nanoTime();
+
+            if (policy.shouldCompact(journalSize, journalRecords, 0)) {
+                scheduleCompaction();
+            }
+        }
+    }
+
+    /**
+     * Starts checking the policy periodically so that idle-time policies can fire
+     * while no records are being appended.
+     */
+    private void schedulePolicyCheck() {
+        if (isPolicyCheckScheduled) {
+            return;
+        }
+
+        compactor.scheduleWithFixedDelay(this::checkPolicy, POLICY_CHECK_INTERVAL_MILLIS,
+                POLICY_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        isPolicyCheckScheduled = true;
+    }
+
+    /**
+     * Runs on the background thread and schedules a compaction if the policy asks for one.
+     */
+    private void checkPolicy() {
+        synchronized (lock) {
+            if (journalRecords == 0 || (pendingCompaction != null && !pendingCompaction.isDone())) {
+                return;
+            }
+
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastAppendNanos);
+            if (!policy.shouldCompact(journalSize, journalRecords, idleMillis)) {
+                return;
+            }
+
+            try {
+                scheduleCompaction();
+            } catch (IOException e) {
+                // the journal stays in place; the next append or check tries again
+            }
+        }
+    }
+
+    /**
+     * Rotates the journal aside and compacts it into a new snapshot on the background thread.
+     * Records appended after the rotation go to a fresh journal and are unaffected.
+     *
+     * @throws IOException if the journal cannot be rotated
+     */
+    private void scheduleCompaction() throws IOException {
+        if (pendingCompaction != null && !pendingCompaction.isDone()) {
+            return;
+        }
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+
+        if (Files.exists(compactingPath)) {
+            // A previous compaction failed; fold the current journal into it
+            Files.write(compactingPath, Files.readAllBytes(journalPath), StandardOpenOption.APPEND);
+            Files.delete(journalPath);
+        } else {
+            Files.move(journalPath, compactingPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        journalSize = 0;
+        journalRecords = 0;
+
+        pendingCompaction = compactor.submit(() -> {
+            compact();
+            return null;
+        });
+    }
+
+    /**
+     * Replays the rotated journal onto the snapshot on disk, writes the result as the new
+     * snapshot and discards the rotated journal. Reads only files, so the caller's list is
+     * never touched from the background thread.
+     *
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    private void compact() throws IOException, DukeException {
+        long start = System.nanoTime();
+        long sizeBefore = sizeOf(snapshotPath) + sizeOf(compactingPath);
+
+        List<Task> tasks = snapshot.load();
+        replay(compactingPath, tasks);
+        writeSnapshot(tasks);
+        Files.delete(compactingPath);
+        FileStorage.moveAtomically(tempPath, snapshotPath);
+
+        long reclaimed = Math.max(0, sizeBefore - sizeOf(snapshotPath));
+        synchronized (metricsLock) {
+            compactionCount++;
+            lastCompactionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastBytesReclaimed = reclaimed;
+            totalBytesReclaimed += reclaimed;
+        }
+    }
+
+    /**
+     * Writes the list to the temporary snapshot file and forces it to disk.
+     *
+     * @param tasks list of tasks to write
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    private void writeSnapshot(List<Task> tasks) throws IOException, DukeException {
+        snapshot.writeAndForce(tempPath, tasks);
+    }
+
+    /**
+     * Restores a consistent state after a crash during compaction.
+     * <p>
+     * If the rotated journal still exists, the temporary snapshot may be incomplete and is
+     * discarded. Otherwise the temporary snapshot was fully written before the rotated
+     * journal was deleted, so it replaces the old snapshot.
+     * </p>
+     *
+     * @throws IOException if an I/O error occurs during file operations
+     */
+    private void recover() throws IOException {
+        if (Files.exists(compactingPath)) {
+            Files.deleteIfExists(tempPath);
+        } else if (Files.exists(tempPath)) {
+            FileStorage.moveAtomically(tempPath, snapshotPath);
+        }
+    }
+
+    /**
+     * Applies every record in a journal file to the list, skipping malformed records.
+     *
+     * @param journal path to the journal file
+     * @param tasks   list to apply the records to
+     * @return number of records read
+     * @throws IOException if an I/O error occurs while reading the journal
+     */
+    private long replay(Path journal, List<Task> tasks) throws IOException {
+        if (!Files.exists(journal)) {
+            return 0;
+        }
+
+        long count = 0;
+        try (BufferedReader br = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                applyRecord(line.trim(), tasks);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void applyRecord(String line, List<Task> tasks) {
+        int separator = line.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+
+        String type = line.substring(0, separator);
+        String payload = line.substring(separator + SEPARATOR.length());
+
+        if (type.equals(RECORD_ADD)) {
+            Task task = snapshot.convertStringToTask(payload);
+            if (task != null) {
+                tasks.add(task);
+            }
+            return;
+        }
+
+        if (type.equals(RECORD_INSERT)) {
+            applyInsert(payload, tasks);
+            return;
+        }
+
+        int index;
+        try {
+            index = Integer.parseInt(payload);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (index < 0 || index >= tasks.size()) {
+            return;
+        }
+
+        switch (type) {
+        case RECORD_MARK:
+            tasks.get(index).markAsDone();
+            break;
+        case RECORD_UNMARK:
+            tasks.get(index).markAsNotDone();
+            break;
+        case RECORD_DELETE:
+            tasks.remove(index);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void applyInsert(String payload, List<Task> tasks) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+
+        int index;
+        try {
+            index = Integer.parseInt(payload.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        Task task = snapshot.convertStringToTask(payload.substring(separator + SEPARATOR.length()));
+        if (task != null && index >= 0 && index <= tasks.size()) {
+            tasks.add(index, task);
+        }
+    }
+
+    private static long sizeOf(Path path) throws IOException {
+        return Files.exists(path)
+                ? Files.size(path)
+                : 0;
+    }
+}
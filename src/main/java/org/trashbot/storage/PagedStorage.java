@@ -0,0 +1,263 @@
+package org.trashbot.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+
+/**
+ * Stores tasks in the {@link RecordStorage} format but loads them lazily.
+ *
+ * <p>{@link #load()} does not decode any task. It reads the offsets of the live records from
+ * an index file next to the save file and returns a {@link PagedTaskList} that decodes each
+ * task on first access and keeps a bounded number of them in memory. Starting up on a
+ * multi-million-task file therefore costs one bulk read of the index.</p>
+ *
+ * <p>Index layout (big-endian):
+ * <pre>
+ * header:  magic "TBRI" (4 bytes) | save file length (long) | tombstones (int) | count (int)
+ * body:    record offset (long) per live record, in list order
+ * </pre>
+ * The index is only trusted if the recorded save file length matches. It is deleted before
+ * any add, delete or full save, rewritten by {@link #flush()}, and rebuilt by scanning the
+ * record headers, without decoding payloads, when it is missing or stale.</p>
+ *
+ * @see RecordStorage
+ * @see PagedTaskList
+ */
+public class PagedStorage extends RecordStorage {
+    private static final byte[] INDEX_MAGIC = {'T', 'B', 'R', 'I'};
+    private static final int INDEX_HEADER_SIZE = INDEX_MAGIC.length + Long.BYTES + 2 * Integer.BYTES;
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path path;
+    private final Path indexPath;
+    private final int cacheSize;
+
+    private PagedTaskList currentList;
+    private boolean isLoaded;
+    private boolean isIndexCurrent;
+
+    /**
+     * Creates a PagedStorage with the default cache size.
+     *
+     * @param filePath path to the file for storing tasks
+     */
+    public PagedStorage(String filePath) {
+        this(filePath, PagedTaskList.DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a PagedStorage that keeps at most the given number of decoded tasks in memory.
+     *
+     * @param filePath  path to the file for storing tasks
+     * @param cacheSize maximum number of decoded tasks kept in memory
+     */
+    public PagedStorage(String filePath, int cacheSize) {
+        super(filePath);
+        this.path = Paths.get(filePath);
+        this.indexPath = Paths.get(filePath + INDEX_SUFFIX);
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Returns a list that decodes tasks on demand, after reading or rebuilding the index.
+     * A text save file is migrated and loaded eagerly once.
+     *
+     * @return list of tasks backed by the save file
+     * @throws IOException if the save file or its index cannot be read
+     */
+    @Override
+    public synchronized List<Task> load() throws IOException {
+        if (currentList != null) {
+            currentList.closeChannel();
+            currentList = null;
+        }
+        if (!isRecordFile()) {
+            Files.deleteIfExists(indexPath);
+            isIndexCurrent = false;
+            List<Task> tasks = super.load();
+            isLoaded = true;
+            return tasks;
+        }
+
+        if (!readIndex()) {
+            scanRecords();
+            writeIndex();
+        }
+        isLoaded = true;
+
+        currentList = new PagedTaskList(this, path, getOffsets(), cacheSize);
+        return currentList;
+    }
+
+    @Override
+    public synchronized void save(List<Task> tasks) throws IOException, DukeException {
+        invalidateIndex();
+        super.save(tasks);
+        if (tasks == currentList) {
+            currentList.rebind(getOffsets());
+        }
+    }
+
+    @Override
+    public synchronized void append(List<Task> tasks, Task task) throws IOException, DukeException {
+        invalidateIndex();
+        super.append(tasks, task);
+        if (tasks == currentList) {
+            int index = tasks.size() - 1;
+            currentList.persisted(index, getOffset(index));
+        }
+    }
+
+    @Override
+    public synchronized void update(List<Task> tasks, int index) throws IOException, DukeException {
+        super.update(tasks, index);
+        if (tasks == currentList) {
+            currentList.persisted(index, getOffset(index));
+        }
+    }
+
+    @Override
+    public synchronized void remove(List<Task> tasks, int... indices) throws IOException, DukeException {
+        invalidateIndex();
+        super.remove(tasks, indices);
+    }
+
+    /**
+     * Writes the index so that the next load does not have to scan the save file.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    @Override
+    public synchronized void flush() throws IOException, DukeException {
+        if (isLoaded && !isIndexCurrent && isRecordFile()) {
+            writeIndex();
+        }
+    }
+
+    private void invalidateIndex() throws IOException {
+        if (isIndexCurrent || Files.exists(indexPath)) {
+            Files.deleteIfExists(indexPath);
+        }
+        isIndexCurrent = false;
+    }
+
+    /**
+     * Adopts the offsets stored in the index file if it matches the save file.
+     *
+     * @return true if the index was valid and adopted, false otherwise
+     * @throws IOException if the index cannot be read
+     */
+    private boolean readIndex() throws IOException {
+        if (!Files.exists(indexPath) || Files.size(indexPath) < INDEX_HEADER_SIZE) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] magic = new byte[INDEX_MAGIC.length];
+            buffer.get(magic);
+            long fileLength = buffer.getLong();
+            int tombstones = buffer.getInt();
+            int count = buffer.getInt();
+
+            if (!Arrays.equals(magic, INDEX_MAGIC) || fileLength != Files.size(path) || count < 0
+                    || buffer.remaining() != (long) count * Long.BYTES) {
+                return false;
+            }
+
+            long[] offsets = new long[count];
+            LongBuffer body = buffer.asLongBuffer();
+            body.get(offsets);
+            restoreIndex(offsets, tombstones, fileLength);
+        }
+        isIndexCurrent = true;
+        return true;
+    }
+
+    /**
+     * Rebuilds the offsets by reading only the record headers, and drops a record that was cut
+     * short by a crash.
+     *
+     * @throws IOException if the save file cannot be read or has an unsupported version
+     */
+    private void scanRecords() throws IOException {
+        long[] offsets = new long[16];
+        int count = 0;
+        int tombstones = 0;
+        long offset = HEADER_SIZE;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            in.skipNBytes(HEADER_SIZE - Short.BYTES);
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported save file version: " + version);
+            }
+
+            while (true) {
+                int length;
+                boolean isLive;
+                try {
+                    length = in.readInt();
+                    if (length < 0) {
+                        break;
+                    }
+                    isLive = in.readByte() == FLAG_SET;
+                    in.skipNBytes(1 + length);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (isLive) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = offset;
+                } else {
+                    tombstones++;
+                }
+                offset += RECORD_HEADER_SIZE + length;
+            }
+        }
+
+        if (Files.size(path) > offset) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(offset);
+            }
+        }
+        restoreIndex(Arrays.copyOf(offsets, count), tombstones, offset);
+    }
+
+    private void writeIndex() throws IOException {
+        long[] offsets = getOffsets();
+        try (FileOutputStream fos = new FileOutputStream(indexPath.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.write(INDEX_MAGIC);
+            out.writeLong(getFileEnd());
+            out.writeInt(getTombstoneCount());
+            out.writeInt(offsets.length);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            out.flush();
+            fos.getChannel().force(true);
+        }
+        isIndexCurrent = true;
+    }
+}
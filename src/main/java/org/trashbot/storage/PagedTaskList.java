@@ -0,0 +1,225 @@
+package org.trashbot.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * A list of tasks that decodes each task from the save file only when it is first accessed.
+ *
+ * <p>Every element is identified by a key: the file offset of its record, or a negative
+ * placeholder for a task that has been added but not yet written. {@link #size()} is answered
+ * from the keys alone. {@link #get(int)} decodes the record on first access and keeps it in a
+ * least-recently-used cache of bounded size.</p>
+ *
+ * <p>Tasks that have not been written yet, and tasks whose completion status changed since
+ * they were written, are pinned in memory instead of being evicted so that no change is lost
+ * before {@link PagedStorage} persists it.</p>
+ *
+ * @see PagedStorage
+ */
+class PagedTaskList extends AbstractList<Task> implements RandomAccess {
+    /**
+     * Default number of decoded tasks kept in memory
+     */
+    static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final RecordStorage codec;
+    private final Path path;
+    private final int cacheSize;
+    private final Map<Long, Task> cache;
+    private final Map<Long, Task> pinned = new HashMap<>();
+
+    private FileChannel channel;
+    private long[] keys;
+    private int size;
+    private long nextPlaceholder = -1;
+
+    /**
+     * Creates a list over the live records at the given offsets.
+     *
+     * @param codec     the storage that decodes records
+     * @param path      the save file
+     * @param offsets   offsets of the live records, in list order
+     * @param cacheSize maximum number of decoded tasks kept in the cache
+     */
+    PagedTaskList(RecordStorage codec, Path path, long[] offsets, int cacheSize) {
+        assert cacheSize > 0 : "Cache size must be positive";
+        this.codec = codec;
+        this.path = path;
+        this.cacheSize = cacheSize;
+        this.keys = Arrays.copyOf(offsets, Math.max(16, offsets.length));
+        this.size = offsets.length;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Task> eldest) {
+                if (size() <= PagedTaskList.this.cacheSize) {
+                    return false;
+                }
+                if (eldest.getValue().isDirty()) {
+                    pinned.put(eldest.getKey(), eldest.getValue());
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Task get(int index) {
+        checkIndex(index);
+        long key = keys[index];
+
+        Task task = pinned.get(key);
+        if (task == null) {
+            task = cache.get(key);
+        }
+        if (task == null) {
+            task = decode(key);
+            cache.put(key, task);
+        }
+        return task;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+
+        long key = nextPlaceholder--;
+        keys[index] = key;
+        size++;
+        modCount++;
+        pinned.put(key, task);
+    }
+
+    @Override
+    public synchronized Task remove(int index) {
+        Task task = get(index);
+        long key = keys[index];
+
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        size--;
+        modCount++;
+        pinned.remove(key);
+        cache.remove(key);
+        return task;
+    }
+
+    @Override
+    public synchronized Task set(int index, Task task) {
+        Task old = remove(index);
+        add(index, task);
+        return old;
+    }
+
+    /**
+     * Returns how many decoded tasks are currently held in memory.
+     *
+     * @return number of cached and pinned tasks
+     */
+    synchronized int getResidentCount() {
+        return cache.size() + pinned.size();
+    }
+
+    /**
+     * Records that the task at the given index has been written at the given offset.
+     *
+     * @param index  0-based index of the task
+     * @param offset offset of its record in the save file
+     */
+    synchronized void persisted(int index, long offset) {
+        Task task = get(index);
+        pinned.remove(keys[index]);
+        cache.remove(keys[index]);
+        task.clearDirty();
+
+        keys[index] = offset;
+        cache.put(offset, task);
+    }
+
+    /**
+     * Records that every task has been rewritten at the given offsets, e.g. after compaction.
+     *
+     * @param offsets offsets of the live records, in list order
+     */
+    synchronized void rebind(long[] offsets) {
+        assert offsets.length == size : "Rebinding to a different number of records";
+
+        Map<Long, Task> resident = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Task task = pinned.containsKey(keys[i])
+                    ? pinned.get(keys[i])
+                    : cache.get(keys[i]);
+            if (task != null) {
+                task.clearDirty();
+                resident.put(offsets[i], task);
+            }
+        }
+
+        pinned.clear();
+        cache.clear();
+        cache.putAll(resident);
+        keys = Arrays.copyOf(offsets, Math.max(16, offsets.length));
+        closeChannel();
+    }
+
+    /**
+     * Closes the file handle used to decode tasks. It is reopened on the next cache miss.
+     */
+    synchronized void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing was written through this channel
+        }
+        channel = null;
+    }
+
+    private Task decode(long offset) {
+        assert offset >= 0 : "Unwritten tasks are always pinned";
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            Task task = codec.readRecord(channel, offset);
+            if (task == null) {
+                throw new IOException("Unreadable record at offset " + offset);
+            }
+            task.clearDirty();
+            return task;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
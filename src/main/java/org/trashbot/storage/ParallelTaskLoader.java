@@ -0,0 +1,214 @@
+package org.trashbot.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * Loads a text save file by memory-mapping it and parsing chunks of lines in parallel.
+ *
+ * <p>The file is split into chunks of roughly {@code chunkSize} bytes whose boundaries are
+ * moved forward to the next line break, so no line spans two chunks. Each chunk is mapped
+ * and parsed on a {@link ForkJoinPool}, and the per-chunk results are concatenated in file
+ * order. Lines are decoded as UTF-8 with invalid bytes replaced by U+FFFD, exactly as
+ * {@link FileStorage#loadSequentially(Path)} decodes them, and blank lines are skipped.</p>
+ *
+ * @see FileStorage
+ */
+class ParallelTaskLoader {
+    /**
+     * Default number of bytes per chunk
+     */
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int BOUNDARY_SCAN_SIZE = 4096;
+
+    private final FileStorage parser;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a loader that parses lines with the given storage on the common pool.
+     *
+     * @param parser the storage whose line format is parsed
+     */
+    ParallelTaskLoader(FileStorage parser) {
+        this(parser, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a loader with an explicit chunk size and pool.
+     *
+     * @param parser    the storage whose line format is parsed
+     * @param chunkSize number of bytes per chunk before moving to the next line break
+     * @param pool      the pool that parses the chunks
+     */
+    ParallelTaskLoader(FileStorage parser, int chunkSize, ForkJoinPool pool) {
+        assert chunkSize > 0 : "Chunk size must be positive";
+        this.parser = parser;
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Loads every task in the file, in file order.
+     *
+     * @param path the save file
+     * @return list of tasks read from the file
+     * @throws IOException if the file cannot be read
+     */
+    List<Task> load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = findChunkBoundaries(channel);
+            ChunkTask root = new ChunkTask(channel, boundaries, 0, boundaries.length - 1);
+            return pool.invoke(root);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Splits the file into chunks that end right after a line break.
+     *
+     * @param channel the open save file
+     * @return chunk start offsets followed by the file size
+     * @throws IOException if the file cannot be read
+     */
+    private long[] findChunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+
+        long position = 0;
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        while (size - position > chunkSize) {
+            long next = nextLineStart(channel, position + chunkSize, size, scan);
+            if (next >= size) {
+                break;
+            }
+            boundaries.add(next);
+            position = next;
+        }
+        boundaries.add(size);
+
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long nextLineStart(FileChannel channel, long from, long size, ByteBuffer scan) throws IOException {
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == NEWLINE) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses the lines of one mapped chunk.
+     *
+     * @param channel the open save file
+     * @param start   offset of the first byte of the chunk
+     * @param end     offset just past the last byte of the chunk
+     * @return tasks parsed from the chunk, in order
+     * @throws IOException if the chunk cannot be mapped
+     */
+    private List<Task> parseChunk(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        List<Task> tasks = new ArrayList<>();
+        byte[] line = new byte[256];
+
+        int lineStart = 0;
+        int limit = buffer.limit();
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && buffer.get(i) != NEWLINE) {
+                continue;
+            }
+
+            int lineEnd = i;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == CARRIAGE_RETURN) {
+                lineEnd--;
+            }
+            int length = lineEnd - lineStart;
+            if (length > 0) {
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(lineStart, line, 0, length);
+                // this constructor always replaces invalid bytes, like the sequential decoder
+                addTask(tasks, new String(line, 0, length, StandardCharsets.UTF_8));
+            }
+            lineStart = i + 1;
+        }
+        return tasks;
+    }
+
+    private void addTask(List<Task> tasks, String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return;
+        }
+
+        Task task = parser.convertStringToTask(trimmed);
+        if (task != null) {
+            tasks.add(task);
+        }
+    }
+
+    /**
+     * Splits a range of chunks in half until a single chunk remains, then parses it.
+     */
+    private class ChunkTask extends RecursiveTask<List<Task>> {
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, long[] boundaries, int from, int to) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            if (to - from <= 1) {
+                try {
+                    return parseChunk(channel, boundaries[from], boundaries[to]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(channel, boundaries, from, middle);
+            ChunkTask right = new ChunkTask(channel, boundaries, middle, to);
+            right.fork();
+            List<Task> tasks = left.compute();
+            tasks.addAll(right.join());
+            return tasks;
+        }
+    }
+}
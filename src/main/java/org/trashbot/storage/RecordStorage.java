@@ -0,0 +1,426 @@
+package org.trashbot.storage;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+
+/**
+ * Stores tasks as records whose status flags sit at fixed positions, so that marking,
+ * unmarking and deleting a task only touches a single byte on disk.
+ *
+ * <p>Records are variable in length because descriptions are, but every record starts with a
+ * fixed-width header. The storage keeps the file offset of every live record in memory, so:
+ * <ul>
+ *   <li>mark/unmark writes the one-byte done flag in place through a {@link FileChannel}</li>
+ *   <li>add appends a new record at the end of the file</li>
+ *   <li>delete sets the one-byte live flag to a tombstone in place</li>
+ * </ul>
+ * Every in-place change is forced to disk before the call returns, like a full save.
+ * Once tombstones outnumber live records, the next delete compacts the file by rewriting it
+ * atomically through {@link FileStorage}'s write path.</p>
+ *
+ * <p>File layout (big-endian):
+ * <pre>
+ * header:  magic "TBRS" (4 bytes) | version (short)
+ * record:  payload length (int) | live flag (byte) | done flag (byte) | payload (UTF-8 task line)
+ * </pre>
+ * The payload is the {@link FileStorage} text line of the task; the done flag overrides
+ * the status in that line. A truncated record at the end of the file is dropped on load,
+ * and a text save file is migrated to this format on first load.</p>
+ *
+ * @see FileStorage
+ */
+public class RecordStorage extends FileStorage {
+    /**
+     * Current version of the record format
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * Minimum number of tombstones before a delete triggers compaction
+     */
+    public static final int MIN_TOMBSTONES_FOR_COMPACTION = 64;
+
+    private static final byte[] MAGIC = {'T', 'B', 'R', 'S'};
+
+    static final int HEADER_SIZE = MAGIC.length + Short.BYTES;
+    static final int LIVE_FLAG_OFFSET = Integer.BYTES;
+    static final int DONE_FLAG_OFFSET = Integer.BYTES + 1;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + 2;
+    static final byte FLAG_SET = 1;
+    private static final byte FLAG_CLEAR = 0;
+
+    private final Path path;
+
+    /**
+     * File offsets of the live records, in list order
+     */
+    private long[] offsets = new long[16];
+    private int size;
+    private int tombstones;
+    private long fileEnd;
+
+    /**
+     * Creates a RecordStorage instance for the given save file.
+     *
+     * @param filePath path to the file for storing tasks
+     */
+    public RecordStorage(String filePath) {
+        super(filePath);
+        this.path = Paths.get(filePath);
+    }
+
+    /**
+     * Loads the live records and remembers their offsets for in-place updates.
+     *
+     * @return list of tasks read from the file
+     * @throws IOException if the file cannot be read or has an unsupported format
+     */
+    @Override
+    public synchronized List<Task> load() throws IOException {
+        if (!isRecordFile()) {
+            return migrateTextFile();
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        size = 0;
+        tombstones = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            in.readFully(new byte[MAGIC.length]);
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported save file version: " + version);
+            }
+
+            long offset = HEADER_SIZE;
+            while (true) {
+                long recordOffset = offset;
+                Task task;
+                boolean isLive;
+                int length;
+                try {
+                    length = in.readInt();
+                    if (length < 0) {
+                        break;
+                    }
+                    isLive = in.readByte() == FLAG_SET;
+                    boolean isDone = in.readByte() == FLAG_SET;
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    task = isLive ? toTask(payload, isDone) : null;
+                } catch (EOFException e) {
+                    break;
+                }
+
+                offset += RECORD_HEADER_SIZE + length;
+                if (task != null) {
+                    tasks.add(task);
+                    addOffset(recordOffset);
+                } else {
+                    tombstones++;
+                }
+            }
+            fileEnd = offset;
+        }
+
+        if (Files.size(path) > fileEnd) {
+            // drop a record that was cut short by a crash so the next append starts cleanly
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(fileEnd);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Rewrites the file with only the live tasks, clearing all tombstones.
+     *
+     * @param tasks list of tasks to save
+     * @throws IOException if an I/O error occurs during file operations
+     */
+    @Override
+    public synchronized void save(List<Task> tasks) throws IOException, DukeException {
+        try {
+            super.save(tasks);
+        } catch (IOException | DukeException e) {
+            // the offsets may no longer match the file; force the next change to rewrite it
+            size = -1;
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void append(List<Task> tasks, Task task) throws IOException, DukeException {
+        if (!isInSync(tasks.size() - 1)) {
+            save(tasks);
+            return;
+        }
+
+        ByteBuffer record = encode(task);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            writeFully(channel, record, fileEnd);
+            channel.force(false);
+        }
+        addOffset(fileEnd);
+        fileEnd += record.capacity();
+    }
+
+    @Override
+    public synchronized void update(List<Task> tasks, int index) throws IOException, DukeException {
+        if (!isInSync(tasks.size())) {
+            save(tasks);
+            return;
+        }
+
+        byte flag = tasks.get(index).isDone()
+                ? FLAG_SET
+                : FLAG_CLEAR;
+        writeFlag(offsets[index] + DONE_FLAG_OFFSET, flag);
+    }
+
+    @Override
+    public synchronized void remove(List<Task> tasks, int... indices) throws IOException, DukeException {
+        if (!isInSync(tasks.size() + indices.length)) {
+            save(tasks);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            for (int i = indices.length - 1; i >= 0; i--) {
+                writeFully(channel, ByteBuffer.wrap(new byte[] {FLAG_CLEAR}), offsets[indices[i]] + LIVE_FLAG_OFFSET);
+                removeOffset(indices[i]);
+                tombstones++;
+            }
+            channel.force(false);
+        }
+
+        if (tombstones >= MIN_TOMBSTONES_FOR_COMPACTION && tombstones > size) {
+            save(tasks);
+        }
+    }
+
+    /**
+     * Returns the number of deleted records still occupying space in the file.
+     *
+     * @return number of tombstones since the last compaction
+     */
+    public synchronized int getTombstoneCount() {
+        return tombstones;
+    }
+
+    /**
+     * Returns the file offset of the live record at the given list index.
+     *
+     * @param index 0-based index of the task
+     * @return offset of the record's header in the save file
+     */
+    synchronized long getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Returns a copy of the file offsets of all live records, in list order.
+     *
+     * @return offsets of the live records
+     */
+    synchronized long[] getOffsets() {
+        return Arrays.copyOf(offsets, Math.max(size, 0));
+    }
+
+    /**
+     * Returns the length of the file up to the end of the last record.
+     *
+     * @return offset at which the next record is appended
+     */
+    synchronized long getFileEnd() {
+        return fileEnd;
+    }
+
+    /**
+     * Adopts an offset index built without decoding the records, instead of {@link #load()}.
+     *
+     * @param liveOffsets    offsets of the live records, in list order
+     * @param tombstoneCount number of deleted records in the file
+     * @param end            length of the file up to the end of the last record
+     */
+    synchronized void restoreIndex(long[] liveOffsets, int tombstoneCount, long end) {
+        offsets = Arrays.copyOf(liveOffsets, Math.max(16, liveOffsets.length));
+        size = liveOffsets.length;
+        tombstones = tombstoneCount;
+        fileEnd = end;
+    }
+
+    /**
+     * Decodes the record at the given offset.
+     *
+     * @param channel the open save file
+     * @param offset  offset of the record's header
+     * @return the task stored in the record, or null if its payload cannot be parsed
+     * @throws IOException if the record cannot be read
+     */
+    Task readRecord(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, header, offset);
+        int length = header.getInt(0);
+        if (length < 0) {
+            throw new IOException("Corrupted record at offset " + offset);
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, offset + RECORD_HEADER_SIZE);
+        return toTask(payload.array(), header.get(DONE_FLAG_OFFSET) == FLAG_SET);
+    }
+
+    /**
+     * Checks if the save file starts with the record format header.
+     *
+     * @return true if the file is in the record format, false otherwise
+     * @throws IOException if the file cannot be read
+     */
+    boolean isRecordFile() throws IOException {
+        return Files.exists(path) && Files.size(path) > 0 && hasMagic();
+    }
+
+    /**
+     * Writes every task as a live record and rebuilds the offset index to match.
+     *
+     * @param target the file to write
+     * @param tasks  list of tasks to write
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    @Override
+    synchronized void writeAndForce(Path target, List<Task> tasks) throws IOException, DukeException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (!Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+
+        long[] newOffsets = new long[Math.max(16, tasks.size())];
+        int count = 0;
+        long offset = HEADER_SIZE;
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).put(MAGIC).putShort(VERSION);
+            writeFully(channel, header.flip(), 0);
+
+            for (Task task : tasks) {
+                ByteBuffer record = encode(task);
+                writeFully(channel, record, offset);
+                newOffsets[count++] = offset;
+                offset += record.capacity();
+            }
+            channel.force(true);
+        }
+
+        offsets = newOffsets;
+        size = count;
+        tombstones = 0;
+        fileEnd = offset;
+    }
+
+    private boolean isInSync(int expectedSize) {
+        return size == expectedSize && Files.exists(path);
+    }
+
+    private ByteBuffer encode(Task task) throws DukeException {
+        byte[] payload = convertTaskToString(task).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        record.putInt(payload.length)
+                .put(FLAG_SET)
+                .put(task.isDone() ? FLAG_SET : FLAG_CLEAR)
+                .put(payload)
+                .flip();
+        return record;
+    }
+
+    private Task toTask(byte[] payload, boolean isDone) {
+        Task task = convertStringToTask(new String(payload, StandardCharsets.UTF_8));
+        if (task == null) {
+            return null;
+        }
+
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsNotDone();
+        }
+        return task;
+    }
+
+    private void writeFlag(long position, byte flag) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.wrap(new byte[] {flag}), position);
+            channel.force(false);
+        }
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of save file at offset " + current);
+            }
+            current += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            current += channel.write(buffer, current);
+        }
+    }
+
+    private void addOffset(long offset) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size++] = offset;
+    }
+
+    private void removeOffset(int index) {
+        System.arraycopy(offsets, index + 1, offsets, index, size - index - 1);
+        size--;
+    }
+
+    private boolean hasMagic() throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        }
+    }
+
+    /**
+     * Loads a text save file through {@link FileStorage} and rewrites it in the record format.
+     *
+     * @return list of tasks read from the text file
+     * @throws IOException if the file cannot be read or rewritten
+     */
+    private List<Task> migrateTextFile() throws IOException {
+        List<Task> tasks = super.load();
+        try {
+            save(tasks);
+        } catch (DukeException e) {
+            throw new IOException("Failed to migrate save file: " + e.getMessage(), e);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,417 @@
+package org.trashbot.storage;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+
+/**
+ * Partitions tasks into segment files of at most a fixed number of tasks, described by a
+ * small manifest.
+ *
+ * <p>Each segment holds a contiguous run of the list in the {@link FileStorage} text format.
+ * Adding, marking, unmarking or deleting a task rewrites only the segment that holds it, and
+ * {@link #load()} reads all segments in parallel on a {@link ForkJoinPool}.</p>
+ *
+ * <p>Segments are copy-on-write: a changed segment is written to a new file, the manifest is
+ * then replaced atomically to point at it, and only then is the old file deleted. The
+ * manifest therefore always describes a complete set of segments, and files left behind by a
+ * crash are removed on the next load.</p>
+ *
+ * <p>The manifest lives at the save file path, and the segments in a directory next to it:
+ * <pre>
+ * TrashBot.sav                        TBSM | 1 | 4096 | 7   (magic, version, segment size, next id)
+ *                                     segment-5.sav | 4096  (segment file, number of tasks)
+ *                                     segment-6.sav | 12
+ * TrashBot.sav.segments/segment-5.sav
+ * TrashBot.sav.segments/segment-6.sav
+ * </pre>
+ * A save file in the old text format is migrated to segments on first load.</p>
+ *
+ * @see FileStorage
+ */
+public class ShardedStorage implements DataPersistence {
+    /**
+     * Default maximum number of tasks per segment
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 4096;
+
+    /**
+     * Current version of the manifest format
+     */
+    public static final int VERSION = 1;
+
+    private static final String MAGIC = "TBSM";
+    private static final String SEPARATOR = " | ";
+    private static final String SEGMENTS_SUFFIX = ".segments";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".sav";
+
+    private final Path manifestPath;
+    private final Path manifestTempPath;
+    private final Path segmentDirectory;
+    private final FileStorage format;
+    private final int segmentSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Segments in list order, as described by the manifest on disk
+     */
+    private List<Segment> segments = new ArrayList<>();
+    private long nextSegmentId;
+    private int size = -1;
+
+    /**
+     * Creates a ShardedStorage with the default segment size.
+     *
+     * @param filePath path to the manifest; segments are stored in a directory next to it
+     */
+    public ShardedStorage(String filePath) {
+        this(filePath, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a ShardedStorage with an explicit segment size and load pool.
+     *
+     * @param filePath    path to the manifest; segments are stored in a directory next to it
+     * @param segmentSize maximum number of tasks per segment
+     * @param pool        the pool that loads segments in parallel
+     */
+    public ShardedStorage(String filePath, int segmentSize, ForkJoinPool pool) {
+        assert segmentSize > 0 : "Segment size must be positive";
+
+        this.manifestPath = Paths.get(filePath);
+        this.manifestTempPath = Paths.get(filePath + TEMP_SUFFIX);
+        this.segmentDirectory = Paths.get(filePath + SEGMENTS_SUFFIX);
+        this.format = new FileStorage(filePath);
+        this.segmentSize = segmentSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Loads every segment listed in the manifest in parallel and concatenates them in order.
+     * Segment files that the manifest does not reference are deleted.
+     *
+     * @return list of tasks read from the segments
+     * @throws IOException if the manifest or a segment cannot be read
+     */
+    @Override
+    public synchronized List<Task> load() throws IOException {
+        if (!Files.exists(manifestPath) || Files.size(manifestPath) == 0 || !hasManifest()) {
+            return migrateTextFile();
+        }
+
+        readManifest();
+        deleteUnreferencedSegments();
+
+        List<Callable<List<Task>>> loaders = new ArrayList<>();
+        for (Segment segment : segments) {
+            Path path = segmentDirectory.resolve(segment.fileName());
+            loaders.add(() -> format.loadSequentially(path));
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (Future<List<Task>> loaded : pool.invokeAll(loaders)) {
+            tasks.addAll(getLoadedSegment(loaded));
+        }
+
+        size = tasks.size();
+        return tasks;
+    }
+
+    /**
+     * Rewrites the list as freshly partitioned segments.
+     *
+     * @param tasks list of tasks to save
+     * @throws IOException if an I/O error occurs during file operations
+     */
+    @Override
+    public synchronized void save(List<Task> tasks) throws IOException, DukeException {
+        List<Segment> oldSegments = segments;
+        List<Segment> newSegments = new ArrayList<>();
+
+        try {
+            for (int start = 0; start < tasks.size(); start += segmentSize) {
+                int end = Math.min(start + segmentSize, tasks.size());
+                newSegments.add(writeSegment(tasks.subList(start, end)));
+            }
+            writeManifest(newSegments);
+        } catch (IOException | DukeException e) {
+            size = -1;
+            throw e;
+        }
+
+        segments = newSegments;
+        size = tasks.size();
+        deleteSegments(oldSegments);
+    }
+
+    @Override
+    public synchronized void append(List<Task> tasks, Task task) throws IOException, DukeException {
+        if (size != tasks.size() - 1) {
+            save(tasks);
+            return;
+        }
+
+        List<Segment> layout = new ArrayList<>(segments);
+        int last = layout.size() - 1;
+        if (last < 0 || layout.get(last).count() >= segmentSize) {
+            layout.add(new Segment(null, 1));
+            last++;
+        } else {
+            layout.set(last, new Segment(layout.get(last).fileName(), layout.get(last).count() + 1));
+        }
+        commit(Set.of(last), tasks, layout);
+    }
+
+    @Override
+    public synchronized void update(List<Task> tasks, int index) throws IOException, DukeException {
+        if (size != tasks.size()) {
+            save(tasks);
+            return;
+        }
+
+        int segment = segmentOf(index);
+        commit(Set.of(segment), tasks, new ArrayList<>(segments));
+    }
+
+    @Override
+    public synchronized void remove(List<Task> tasks, int... indices) throws IOException, DukeException {
+        if (size != tasks.size() + indices.length) {
+            save(tasks);
+            return;
+        }
+
+        int[] counts = new int[segments.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = segments.get(i).count();
+        }
+
+        Set<Integer> touched = new HashSet<>();
+        for (int index : indices) {
+            int segment = segmentOf(index);
+            touched.add(segment);
+            counts[segment]--;
+        }
+
+        List<Segment> layout = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            layout.add(new Segment(segments.get(i).fileName(), counts[i]));
+        }
+        commit(touched, tasks, layout);
+    }
+
+    /**
+     * Returns the number of segment files currently described by the manifest.
+     *
+     * @return number of segments
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Rewrites the touched segments of the new layout from the list, then publishes the
+     * layout through the manifest. Segments left empty are dropped.
+     *
+     * @param touched indices into {@code layout} of the segments to rewrite
+     * @param tasks   the list after the mutation
+     * @param layout  segments with their counts after the mutation
+     * @throws IOException if an I/O error occurs during file operations
+     * @throws DukeException if a task cannot be converted to its storage format
+     */
+    private void commit(Set<Integer> touched, List<Task> tasks, List<Segment> layout)
+            throws IOException, DukeException {
+        List<Segment> replaced = new ArrayList<>();
+        List<Segment> newSegments = new ArrayList<>();
+
+        try {
+            int start = 0;
+            for (int i = 0; i < layout.size(); i++) {
+                Segment segment = layout.get(i);
+                int end = start + segment.count();
+                if (!touched.contains(i)) {
+                    newSegments.add(segment);
+                } else {
+                    if (segment.fileName() != null) {
+                        replaced.add(segment);
+                    }
+                    if (segment.count() > 0) {
+                        newSegments.add(writeSegment(tasks.subList(start, end)));
+                    }
+                }
+                start = end;
+            }
+            writeManifest(newSegments);
+        } catch (IOException | DukeException e) {
+            size = -1;
+            throw e;
+        }
+
+        segments = newSegments;
+        size = tasks.size();
+        deleteSegments(replaced);
+    }
+
+    private int segmentOf(int index) {
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            start += segments.get(i).count();
+            if (index < start) {
+                return i;
+            }
+        }
+        throw new IndexOutOfBoundsException("Task " + index + " is not in any segment");
+    }
+
+    private Segment writeSegment(List<Task> tasks) throws IOException, DukeException {
+        String fileName = SEGMENT_PREFIX + nextSegmentId++ + SEGMENT_SUFFIX;
+        format.writeAndForce(segmentDirectory.resolve(fileName), tasks);
+        return new Segment(fileName, tasks.size());
+    }
+
+    private void writeManifest(List<Segment> newSegments) throws IOException {
+        StringBuilder manifest = new StringBuilder()
+                .append(MAGIC).append(SEPARATOR)
+                .append(VERSION).append(SEPARATOR)
+                .append(segmentSize).append(SEPARATOR)
+                .append(nextSegmentId).append(System.lineSeparator());
+        for (Segment segment : newSegments) {
+            manifest.append(segment.fileName()).append(SEPARATOR)
+                    .append(segment.count()).append(System.lineSeparator());
+        }
+
+        Path parent = manifestPath.toAbsolutePath().getParent();
+        if (!Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+        try (FileOutputStream fos = new FileOutputStream(manifestTempPath.toFile())) {
+            fos.write(manifest.toString().getBytes(StandardCharsets.UTF_8));
+            fos.getChannel().force(true);
+        }
+        FileStorage.moveAtomically(manifestTempPath, manifestPath);
+    }
+
+    private void readManifest() throws IOException {
+        List<Segment> loaded = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            String[] header = br.readLine().split(" \\| ");
+            try {
+                if (header.length < 4 || Integer.parseInt(header[1]) != VERSION) {
+                    throw new IOException("Unsupported manifest: " + String.join(SEPARATOR, header));
+                }
+                nextSegmentId = Long.parseLong(header[3]);
+
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    String[] parts = line.trim().split(" \\| ");
+                    loaded.add(new Segment(parts[0], Integer.parseInt(parts[1])));
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Corrupted manifest: " + e.getMessage(), e);
+            }
+        }
+        segments = loaded;
+    }
+
+    private boolean hasManifest() throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            String header = br.readLine();
+            return header != null && header.startsWith(MAGIC + SEPARATOR);
+        }
+    }
+
+    private List<Task> getLoadedSegment(Future<List<Task>> loaded) throws IOException {
+        try {
+            return loaded.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading segments", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to load segment: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Deletes segment files left behind by a crash between writing a segment and the manifest,
+     * or between the manifest and deleting the segment it replaced.
+     *
+     * @throws IOException if the segment directory cannot be listed
+     */
+    private void deleteUnreferencedSegments() throws IOException {
+        if (!Files.isDirectory(segmentDirectory)) {
+            return;
+        }
+
+        Set<String> referenced = new HashSet<>();
+        for (Segment segment : segments) {
+            referenced.add(segment.fileName());
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(segmentDirectory)) {
+            for (Path file : files) {
+                if (!referenced.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void deleteSegments(List<Segment> oldSegments) {
+        for (Segment segment : oldSegments) {
+            try {
+                Files.deleteIfExists(segmentDirectory.resolve(segment.fileName()));
+            } catch (IOException e) {
+                // the manifest no longer references it; the next load removes it
+            }
+        }
+    }
+
+    /**
+     * Loads a text save file through {@link FileStorage} and rewrites it as segments.
+     *
+     * @return list of tasks read from the text file
+     * @throws IOException if the file cannot be read or rewritten
+     */
+    private List<Task> migrateTextFile() throws IOException {
+        List<Task> tasks = Files.exists(manifestPath)
+                ? format.load()
+                : new ArrayList<>();
+        try {
+            save(tasks);
+        } catch (DukeException e) {
+            throw new IOException("Failed to migrate save file: " + e.getMessage(), e);
+        }
+        return tasks;
+    }
+
+    /**
+     * One segment file and the number of tasks it holds.
+     *
+     * @param fileName name of the segment file, or null for a segment not yet written
+     * @param count    number of tasks in the segment
+     */
+    private record Segment(String fileName, int count) {
+    }
+}
@@ -0,0 +1,78 @@
+package org.trashbot.storage;
+
+/**
+ * Creates the {@link DataPersistence} backend used by TrashBot.
+ *
+ * <p>The backend is chosen with the {@code trashbot.storage} system property:
+ * <ul>
+ *   <li>{@code journal} (default) - snapshot plus append-only journal, see {@link JournalStorage}</li>
+ *   <li>{@code text} - full rewrite of the text save file, see {@link FileStorage}</li>
+ *   <li>{@code binary} - full rewrite of a compact binary save file, see {@link BinaryStorage}</li>
+ *   <li>{@code record} - in-place flag updates and appends, see {@link RecordStorage}</li>
+ *   <li>{@code paged} - record format decoded lazily through a bounded cache, see {@link PagedStorage}</li>
+ *   <li>{@code sharded} - fixed-size segment files under a manifest, see {@link ShardedStorage}</li>
+ * </ul>
+ * Setting {@code trashbot.storage.writeBehindMillis} to a non-negative debounce window wraps
+ * the backend in a {@link WriteBehindStorage} so that saves happen in the background. Only the
+ * {@code text} and {@code binary} backends can be wrapped, since the write-behind decorator turns
+ * every change into a whole-list save and the other backends write each change as a delta.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * java -Dtrashbot.storage=text -Dtrashbot.storage.writeBehindMillis=200 -jar TrashBot.jar
+ * </pre>
+ * </p>
+ */
+public final class StorageFactory {
+    /**
+     * System property that selects the storage backend
+     */
+    public static final String PROPERTY_BACKEND = "trashbot.storage";
+
+    /**
+     * System property that enables write-behind persistence with the given debounce window
+     */
+    public static final String PROPERTY_WRITE_BEHIND_MILLIS = "trashbot.storage.writeBehindMillis";
+
+    private static final String BACKEND_JOURNAL = "journal";
+    private static final String BACKEND_TEXT = "text";
+    private static final String BACKEND_BINARY = "binary";
+    private static final String BACKEND_RECORD = "record";
+    private static final String BACKEND_PAGED = "paged";
+    private static final String BACKEND_SHARDED = "sharded";
+
+    private StorageFactory() {
+    }
+
+    /**
+     * Creates the configured storage backend for the given save file.
+     *
+     * @param filePath path to the save file
+     * @return the storage backend, possibly wrapped for write-behind persistence
+     * @throws IllegalArgumentException if the configured backend is unknown, or write-behind
+     *                                  persistence is enabled for a backend that writes deltas
+     */
+    public static DataPersistence create(String filePath) {
+        String backend = System.getProperty(PROPERTY_BACKEND, BACKEND_JOURNAL);
+
+        DataPersistence storage = switch (backend) {
+        case BACKEND_JOURNAL -> new JournalStorage(filePath);
+        case BACKEND_TEXT -> new FileStorage(filePath);
+        case BACKEND_BINARY -> new BinaryStorage(filePath);
+        case BACKEND_RECORD -> new RecordStorage(filePath);
+        case BACKEND_PAGED -> new PagedStorage(filePath);
+        case BACKEND_SHARDED -> new ShardedStorage(filePath);
+        default -> throw new IllegalArgumentException("Unknown storage backend: " + backend);
+        };
+
+        long debounceMillis = Long.getLong(PROPERTY_WRITE_BEHIND_MILLIS, -1);
+        if (debounceMillis < 0) {
+            return storage;
+        }
+        if (!backend.equals(BACKEND_TEXT) && !backend.equals(BACKEND_BINARY)) {
+            throw new IllegalArgumentException("Write-behind persistence only supports the " + BACKEND_TEXT
+                    + " and " + BACKEND_BINARY + " backends, not: " + backend);
+        }
+        return new WriteBehindStorage(storage, debounceMillis);
+    }
+}
@@ -0,0 +1,258 @@
+package org.trashbot.storage;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+
+/**
+ * Decorates another {@link DataPersistence} with transactions that group the changes of several
+ * commands into a single write.
+ *
+ * <p>Outside a transaction every call is passed straight to the underlying storage. Between
+ * {@link #begin(List)} and {@link #commit()}, changes are recorded by a {@link DeferredStorage}
+ * instead, and committing saves the whole list once, which the underlying storage does
+ * atomically. {@link #rollback(List)} discards the recorded changes and restores the list by
+ * undoing them.</p>
+ *
+ * <p>Beginning a transaction copies nothing. Every change made during it pushes an entry on an
+ * undo log: the task appended, the previous completion status of the task updated, or the
+ * tasks removed and their indices. Rolling back replays the log in reverse, so it costs time in
+ * proportion to the transaction rather than to the list. A whole-list {@link #save(List)}
+ * during a transaction cannot be undone; rolling back such a transaction fails.</p>
+ *
+ * <p>Flushing during a transaction does nothing, since the underlying storage may be holding the
+ * live list, which already contains the uncommitted changes; what was changed before the
+ * transaction is flushed once it is committed or rolled back. Closing the storage rolls back a
+ * transaction that is still open, so changes that are never committed are never written.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * TransactionalStorage storage = new TransactionalStorage(new FileStorage("./data/TrashBot.sav"));
+ * storage.begin(tasks);
+ * storage.append(tasks, task);   // recorded, not written
+ * storage.commit();              // one save of the whole list
+ * </pre>
+ * </p>
+ *
+ * @see DeferredStorage
+ */
+public class TransactionalStorage implements DataPersistence {
+    private final DataPersistence delegate;
+    private final DeferredStorage deferred;
+
+    /**
+     * The steps that undo the changes of the transaction, most recent first, or null outside a
+     * transaction
+     */
+    private Deque<Undo> undoLog;
+
+    /**
+     * The list the transaction changes, or null outside a transaction
+     */
+    private List<Task> transactionTasks;
+
+    /**
+     * Whether the transaction can still be rolled back: true until a change that the undo log
+     * cannot record, such as saving the whole list, is made during it
+     */
+    private boolean isUndoable;
+
+    /**
+     * Restores one change made to the list during a transaction.
+     */
+    @FunctionalInterface
+    private interface Undo {
+        void undo(List<Task> tasks);
+    }
+
+    /**
+     * Creates a transactional decorator.
+     *
+     * @param delegate the storage that performs the actual writes
+     */
+    public TransactionalStorage(DataPersistence delegate) {
+        this.delegate = delegate;
+        this.deferred = new DeferredStorage(delegate);
+    }
+
+    /**
+     * Checks whether a transaction is in progress.
+     *
+     * @return true between {@link #begin(List)} and the matching commit or rollback
+     */
+    public boolean isActive() {
+        return undoLog != null;
+    }
+
+    /**
+     * Starts a transaction over the given list.
+     *
+     * @param tasks the list that the commands of the transaction change
+     * @throws DukeException if a transaction is already in progress
+     */
+    public void begin(List<Task> tasks) throws DukeException {
+        if (isActive()) {
+            throw new DukeException("A transaction is already in progress");
+        }
+
+        undoLog = new ArrayDeque<>();
+        isUndoable = true;
+        transactionTasks = tasks;
+    }
+
+    /**
+     * Ends the transaction and saves the changes made during it with a single write.
+     *
+     * @return the number of changes saved
+     * @throws DukeException if no transaction is in progress
+     * @throws IOException   if the underlying storage fails to write, in which case the
+     *                       transaction stays open so that it can be committed again
+     */
+    public int commit() throws DukeException, IOException {
+        if (!isActive()) {
+            throw new DukeException("There is no transaction to commit");
+        }
+
+        int changeCount = deferred.getPendingChangeCount();
+        deferred.flush();
+        end();
+        return changeCount;
+    }
+
+    /**
+     * Ends the transaction and restores the list to what it was when the transaction began.
+     *
+     * @param tasks the list that the commands of the transaction changed
+     * @return the number of changes undone
+     * @throws DukeException if no transaction is in progress, or if the list was saved as a
+     *                       whole during it, in which case the transaction stays open
+     */
+    public int rollback(List<Task> tasks) throws DukeException {
+        if (!isActive()) {
+            throw new DukeException("There is no transaction to roll back");
+        }
+        if (!isUndoable) {
+            throw new DukeException("This transaction replaced the whole list and cannot be rolled back");
+        }
+
+        int changeCount = deferred.getPendingChangeCount();
+        while (!undoLog.isEmpty()) {
+            undoLog.pop().undo(tasks);
+        }
+        deferred.discard();
+        end();
+        return changeCount;
+    }
+
+    private void end() {
+        undoLog = null;
+        transactionTasks = null;
+    }
+
+    private DataPersistence current() {
+        return isActive() ? deferred : delegate;
+    }
+
+    @Override
+    public void save(List<Task> tasks) throws IOException, DukeException {
+        if (isActive()) {
+            isUndoable = false;
+        }
+        current().save(tasks);
+    }
+
+    @Override
+    public List<Task> load() throws IOException {
+        return delegate.load();
+    }
+
+    @Override
+    public void append(List<Task> tasks, Task task) throws IOException, DukeException {
+        if (isActive()) {
+            undoLog.push(list -> list.remove(list.size() - 1));
+        }
+        current().append(tasks, task);
+    }
+
+    /**
+     * Records an update whose previous status is unknown, which cannot be undone.
+     */
+    @Override
+    public void update(List<Task> tasks, int index) throws IOException, DukeException {
+        if (isActive()) {
+            isUndoable = false;
+        }
+        current().update(tasks, index);
+    }
+
+    @Override
+    public void update(List<Task> tasks, int index, boolean wasDone) throws IOException, DukeException {
+        if (isActive()) {
+            Task task = tasks.get(index);
+            undoLog.push(list -> {
+                if (wasDone) {
+                    task.markAsDone();
+                } else {
+                    task.markAsNotDone();
+                }
+            });
+        }
+        current().update(tasks, index);
+    }
+
+    /**
+     * Records a removal whose tasks are unknown, which cannot be undone.
+     */
+    @Override
+    public void remove(List<Task> tasks, int... indices) throws IOException, DukeException {
+        if (isActive()) {
+            isUndoable = false;
+        }
+        current().remove(tasks, indices);
+    }
+
+    @Override
+    public void remove(List<Task> tasks, List<Task> removedTasks, int... indices) throws IOException, DukeException {
+        if (isActive()) {
+            List<Task> removed = new ArrayList<>(removedTasks);
+            int[] positions = indices.clone();
+            undoLog.push(list -> {
+                for (int i = 0; i < positions.length; i++) {
+                    list.add(positions[i], removed.get(i));
+                }
+            });
+        }
+        current().remove(tasks, indices);
+    }
+
+    /**
+     * Flushes the underlying storage, unless a transaction is in progress.
+     *
+     * @throws IOException if the underlying storage fails to write
+     */
+    @Override
+    public void flush() throws IOException, DukeException {
+        if (!isActive()) {
+            delegate.flush();
+        }
+    }
+
+    /**
+     * Rolls back a transaction that is still open and closes the underlying storage. A
+     * transaction that replaced the whole list cannot be rolled back, and is left as it is.
+     *
+     * @throws IOException if the underlying storage fails to write
+     */
+    @Override
+    public void close() throws IOException, DukeException {
+        if (isActive() && isUndoable) {
+            rollback(transactionTasks);
+        }
+        delegate.close();
+    }
+}
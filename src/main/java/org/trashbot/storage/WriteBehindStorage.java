@@ -0,0 +1,275 @@
+package org.trashbot.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Event;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+/**
+ * Decorates another {@link DataPersistence} so that saves return before any disk I/O.
+ *
+ * <p>Each save copies the tasks of the list and hands the copies to a background writer thread,
+ * which never sees a task that the caller may still change. Saves that arrive within the
+ * debounce window of the first unwritten save are coalesced, so only the most recent snapshot is
+ * passed to the underlying storage. Fine-grained mutations fall back to {@link #save(List)} and
+ * are coalesced the same way.</p>
+ *
+ * <p>The underlying storage therefore only ever sees whole-list saves. This suits backends that
+ * rewrite the whole file on every change anyway, such as {@link FileStorage} and
+ * {@link BinaryStorage}; backends that write each change as a small delta would lose it, and
+ * {@link StorageFactory} does not wrap them.</p>
+ *
+ * <p>{@link #flush()} blocks until every accepted save has been written. A failure on the
+ * writer thread is reported by the next call to {@link #save(List)} or {@link #flush()}, and
+ * the write is retried after {@link #RETRY_DELAY_MILLIS} or the debounce window, whichever is
+ * longer, with the most recent snapshot. A save that reports a failure is still accepted.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * DataPersistence storage = new WriteBehindStorage(new FileStorage("./data/TrashBot.sav"), 200);
+ * storage.save(tasks);   // returns immediately
+ * storage.flush();       // waits until tasks are on disk
+ * </pre>
+ * </p>
+ *
+ * @see DataPersistence
+ */
+public class WriteBehindStorage implements DataPersistence {
+    /**
+     * Default time in milliseconds that a save waits for further saves to coalesce with
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    /**
+     * Shortest time in milliseconds after which a failed write is retried
+     */
+    public static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final DataPersistence delegate;
+    private final long debounceMillis;
+    private final ScheduledExecutorService writer;
+    private final Object lock = new Object();
+
+    /**
+     * Snapshot of the most recent save that has not been handed to the delegate yet
+     */
+    private List<Task> pendingTasks;
+
+    /**
+     * {@link System#nanoTime()} of the first save coalesced into {@link #pendingTasks}
+     */
+    private long pendingSinceNanos;
+
+    /**
+     * {@link System#nanoTime()} of the first save in the batch being written, or 0 if idle
+     */
+    private long inFlightSinceNanos;
+
+    private boolean isWriteScheduled;
+    private Exception lastFailure;
+
+    /**
+     * Creates a write-behind decorator with the default debounce window.
+     *
+     * @param delegate the storage that performs the actual writes
+     */
+    public WriteBehindStorage(DataPersistence delegate) {
+        this(delegate, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Creates a write-behind decorator with the given debounce window.
+     *
+     * @param delegate       the storage that performs the actual writes
+     * @param debounceMillis how long to wait for further saves before writing
+     */
+    public WriteBehindStorage(DataPersistence delegate, long debounceMillis) {
+        assert delegate != null : "Delegate storage cannot be null";
+        assert debounceMillis >= 0 : "Debounce window cannot be negative";
+
+        this.delegate = delegate;
+        this.debounceMillis = debounceMillis;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trashbot-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Copies the list and schedules it to be written in the background.
+     *
+     * @param tasks list of tasks to save
+     * @throws IOException if a previous background write failed, in which case this save is
+     *                     still scheduled
+     * @throws DukeException if a previous background write failed to convert a task
+     */
+    @Override
+    public void save(List<Task> tasks) throws IOException, DukeException {
+        synchronized (lock) {
+            if (pendingTasks == null) {
+                pendingSinceNanos = System.nanoTime();
+            }
+            pendingTasks = copyOf(tasks);
+            scheduleWrite(debounceMillis);
+
+            rethrowLastFailure();
+        }
+    }
+
+    /**
+     * Flushes any pending save and loads the tasks from the underlying storage.
+     *
+     * @return list of tasks read from the underlying storage
+     * @throws IOException if the flush or the load fails
+     */
+    @Override
+    public List<Task> load() throws IOException {
+        try {
+            flush();
+        } catch (DukeException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return delegate.load();
+    }
+
+    /**
+     * Blocks until every save accepted so far has been written by the underlying storage.
+     *
+     * @throws IOException if a background write failed
+     * @throws DukeException if a background write failed to convert a task
+     */
+    @Override
+    public void flush() throws IOException, DukeException {
+        Future<?> write = writer.submit(this::writePending);
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing tasks", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+
+        synchronized (lock) {
+            rethrowLastFailure();
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Writes every accepted save, stops the writer thread and closes the underlying storage.
+     *
+     * @throws IOException if a background write failed
+     * @throws DukeException if a background write failed to convert a task
+     */
+    @Override
+    public void close() throws IOException, DukeException {
+        flush();
+        writer.shutdown();
+        delegate.close();
+    }
+
+    /**
+     * Returns how far persistence is lagging behind the in-memory list.
+     *
+     * @return milliseconds since the oldest save that is not yet on disk, or 0 if fully persisted
+     */
+    public long getLagMillis() {
+        synchronized (lock) {
+            long oldestNanos = inFlightSinceNanos != 0
+                    ? inFlightSinceNanos
+                    : pendingTasks != null ? pendingSinceNanos : 0;
+            return oldestNanos == 0
+                    ? 0
+                    : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestNanos);
+        }
+    }
+
+    /**
+     * Writes the most recent pending snapshot, if any. Runs on the writer thread only.
+     */
+    private void writePending() {
+        List<Task> batch;
+        synchronized (lock) {
+            isWriteScheduled = false;
+            batch = pendingTasks;
+            pendingTasks = null;
+            if (batch == null) {
+                return;
+            }
+            inFlightSinceNanos = pendingSinceNanos;
+        }
+
+        try {
+            delegate.save(batch);
+        } catch (IOException | DukeException e) {
+            synchronized (lock) {
+                lastFailure = e;
+                if (pendingTasks == null) {
+                    pendingTasks = batch;
+                }
+                pendingSinceNanos = inFlightSinceNanos;
+                scheduleWrite(Math.max(debounceMillis, RETRY_DELAY_MILLIS));
+            }
+        } finally {
+            synchronized (lock) {
+                inFlightSinceNanos = 0;
+            }
+        }
+    }
+
+    /**
+     * Copies the tasks of a list, so that the writer thread does not share them with the caller.
+     *
+     * @param tasks the list to copy
+     * @return a list of copies of the tasks
+     */
+    private static List<Task> copyOf(List<Task> tasks) {
+        List<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (task instanceof Deadline deadline) {
+                copies.add(new Deadline(deadline.getDescription(), deadline.getDeadline(), deadline.isDone()));
+            } else if (task instanceof Event event) {
+                copies.add(new Event(event.getDescription(), event.getFrom(), event.getTo(), event.isDone()));
+            } else if (task instanceof Todo) {
+                copies.add(new Todo(task.getDescription(), task.isDone()));
+            } else {
+                copies.add(new Task(task.getDescription(), task.isDone()));
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Schedules the pending snapshot to be written after the given delay, unless a write is
+     * already scheduled or the writer has been shut down. Must be called while holding the lock.
+     */
+    private void scheduleWrite(long delayMillis) {
+        if (!isWriteScheduled && !writer.isShutdown()) {
+            isWriteScheduled = true;
+            writer.schedule(this::writePending, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rethrowLastFailure() throws IOException, DukeException {
+        Exception failure = lastFailure;
+        lastFailure = null;
+
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof DukeException) {
+            throw (DukeException) failure;
+        }
+    }
+}
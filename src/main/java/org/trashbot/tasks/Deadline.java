@@ -17,77 +17,91 @@ public class Deadline extends Task {
     private static final String STRING_BY = "/by";
 
     /**
-     * This variable will store the actual value of /by.
+     * Accepted input formats for the deadline, tried in order.
      */
-    protected final String by;
+    private static final DateTimeFormatter[] INPUT_FORMATTERS = {
+            DateTimeFormatter.ofPattern("MMM d yyyy h:mma"),
+            DateTimeFormatter.ofPattern("MMM dd yyyy h:mma"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm")
+    };
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("h:mma");
 
     /**
-     * Keep cache copy of formatted datetime
+     * The parsed deadline.
      */
-    private String finalDateTime = null;
+    private final LocalDateTime dateTime;
 
     /**
-     * Check if check has been done
+     * Keep cache copy of formatted datetime
      */
-    private boolean isChecked = false;
+    private String finalDateTime = null;
 
     /**
      * Constructs a {@code Deadline} object by parsing the input string to extract the task description and deadline.
      *
      * @param input the input string containing the task description and deadline in the format
      *              "deadline &lt;description&gt; /by &lt;deadline&gt;".
+     * @throws DukeException if the deadline is not in one of the accepted formats
      */
     public Deadline(String input) throws DukeException {
         super(input.substring(9, input.indexOf(STRING_BY)).trim());
-        this.by = input.substring(input.indexOf(STRING_BY) + 4).trim();
+        this.dateTime = parseDateTime(input.substring(input.indexOf(STRING_BY) + 4).trim());
+    }
 
-        checkInputDateTime();
+    /**
+     * Constructs a {@code Deadline} directly from its fields, without parsing a command string.
+     *
+     * @param description the task description
+     * @param dateTime    the deadline
+     * @param isDone      whether the task is completed
+     */
+    public Deadline(String description, LocalDateTime dateTime, boolean isDone) {
+        super(description, isDone);
+        assert dateTime != null : "Deadline cannot be null";
+        this.dateTime = dateTime;
     }
 
     /**
-     * Validates the datetime format.
+     * Parses a datetime string in one of the accepted input formats.
      *
+     * @param by the datetime string, e.g. "Sep 11 2001 1:33am" or "2001-09-11 0133"
+     * @return the parsed datetime
      * @throws DukeException if the datetime format is invalid
      */
-    private void checkInputDateTime() throws DukeException {
-        if (isChecked) {
-            return;
-        }
-
-        DateTimeFormatter[] formatters = {
-                DateTimeFormatter.ofPattern("MMM d yyyy h:mma"),
-                DateTimeFormatter.ofPattern("MMM dd yyyy h:mma"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm")
-        };
-
-        LocalDateTime dateTime = null;
-        for (DateTimeFormatter formatter : formatters) {
+    public static LocalDateTime parseDateTime(String by) throws DukeException {
+        for (DateTimeFormatter formatter : INPUT_FORMATTERS) {
             try {
-                dateTime = LocalDateTime.parse(by, formatter);
-                break;
+                return LocalDateTime.parse(by, formatter);
             } catch (DateTimeParseException e) {
                 // go to next formatter
             }
         }
 
-        if (dateTime == null) {
-            throw new DukeException("Invalid datetime format. Please check your input.");
-        }
+        throw new DukeException("Invalid datetime format. Please check your input.");
+    }
 
-        finalDateTime = dateTime.format(DateTimeFormatter.ofPattern("MMM dd yyyy"))
-                + " "
-                + dateTime.format(DateTimeFormatter.ofPattern("h:mma")).toLowerCase();
-        isChecked = true;
+    /**
+     * Gets the deadline.
+     *
+     * @return the deadline as a {@link LocalDateTime}
+     */
+    public LocalDateTime getDeadline() {
+        return dateTime;
     }
 
     /**
      * Gets the formatted datetime string.
      *
      * @return A formatted datetime string in the format "MMM dd yyyy h:mma" (e.g., "Sep 11 2001 1:33am")
-     * @throws DukeException if the datetime format is invalid
      */
-    public String getDateTime() throws DukeException {
-        checkInputDateTime();
+    public String getDateTime() {
+        if (finalDateTime == null) {
+            finalDateTime = dateTime.format(DATE_FORMATTER)
+                    + " "
+                    + dateTime.format(TIME_FORMATTER).toLowerCase();
+        }
         return finalDateTime;
     }
 
@@ -98,10 +112,6 @@ public class Deadline extends Task {
      */
     @Override
     public String toString() {
-        try {
-            return "[D]" + super.toString() + " (by: " + getDateTime() + ")";
-        } catch (DukeException e) {
-            return "[D]" + super.toString() + " (by: ERROR - Invalid datetime format)";
-        }
+        return "[D]" + super.toString() + " (by: " + getDateTime() + ")";
     }
 }
@@ -64,6 +64,20 @@ public class Event extends Task {
         this.to = timeInfo.substring(timeInfo.indexOf(STRING_TO) + 4).trim();
     }
 
+    /**
+     * Constructs a new Event directly from its fields, without parsing a command string.
+     *
+     * @param description the event description
+     * @param from        the start time
+     * @param to          the end time
+     * @param isDone      whether the event is completed
+     */
+    public Event(String description, String from, String to, boolean isDone) {
+        super(description, isDone);
+        this.from = from;
+        this.to = to;
+    }
+
     /**
      * Gets the start time of the event.
      *
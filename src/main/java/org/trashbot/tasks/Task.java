@@ -7,6 +7,26 @@ public class Task {
     protected final String description;
     protected boolean isCompleted;
 
+    /**
+     * Incremented every time the completion status changes
+     */
+    private long version;
+
+    /**
+     * Whether the completion status changed since the last {@link #clearDirty()}
+     */
+    private boolean isDirty;
+
+    /**
+     * The list this task belongs to, notified when the task changes
+     */
+    private TaskList owner;
+
+    /**
+     * The index of this task in its owner, kept up to date by the owner
+     */
+    private int position;
+
     /**
      * Creates a new task with the given description.
      *
@@ -19,6 +39,18 @@ public class Task {
         this.isCompleted = false;
     }
 
+    /**
+     * Creates a task with the given description and completion status.
+     * Used when restoring tasks from storage.
+     *
+     * @param description Task description
+     * @param isDone      Whether the task is completed
+     */
+    public Task(String description, boolean isDone) {
+        this(description);
+        this.isCompleted = isDone;
+    }
+
     /**
      * Checks if the task is completed.
      *
@@ -50,14 +82,68 @@ public class Task {
      * Marks the task as completed.
      */
     public void markAsDone() {
-        isCompleted = true;
+        setCompleted(true);
     }
 
     /**
      * Marks the task as incomplete.
      */
     public void markAsNotDone() {
-        isCompleted = false;
+        setCompleted(false);
+    }
+
+    /**
+     * Checks if the completion status changed since the task was last persisted.
+     *
+     * @return true if the task has unsaved changes, false otherwise
+     */
+    public boolean isDirty() {
+        return isDirty;
+    }
+
+    /**
+     * Gets the version stamp, which increases every time the completion status changes.
+     *
+     * @return the version stamp
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks the task as persisted.
+     */
+    public void clearDirty() {
+        isDirty = false;
+    }
+
+    private void setCompleted(boolean isDone) {
+        if (isCompleted == isDone) {
+            return;
+        }
+
+        isCompleted = isDone;
+        version++;
+        isDirty = true;
+        if (owner != null) {
+            owner.taskChanged(this);
+        }
+    }
+
+    TaskList getOwner() {
+        return owner;
+    }
+
+    void setOwner(TaskList owner) {
+        this.owner = owner;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    void setPosition(int position) {
+        this.position = position;
     }
 
     /**
@@ -0,0 +1,23 @@
+package org.trashbot.tasks;
+
+/**
+ * Describes one change to a {@link TaskList} since it was last persisted.
+ *
+ * <p>Structural changes ({@link Type#INSERT} and {@link Type#REMOVE}) use the index the task
+ * had when the change happened, so they must be applied in order. {@link Type#UPDATE} uses
+ * the task's index after all structural changes have been applied.</p>
+ *
+ * @param type  the kind of change
+ * @param index the 0-based index affected by the change
+ * @param task  the task that was inserted, removed or updated
+ */
+public record TaskChange(Type type, int index, Task task) {
+    /**
+     * The kinds of change recorded by a {@link TaskList}.
+     */
+    public enum Type {
+        INSERT,
+        REMOVE,
+        UPDATE
+    }
+}
@@ -0,0 +1,237 @@
+package org.trashbot.tasks;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * A list of tasks that can record what changed since it was last persisted.
+ *
+ * <p>Once {@link #trackChanges()} is called, inserts and removals are appended to a change
+ * log, and tasks in the list report changes to their completion status back to the list.
+ * {@link #drainChanges()} returns the delta and resets the log, so a
+ * {@link org.trashbot.storage.DataPersistence} implementation can write only the tasks that
+ * changed instead of the whole list.</p>
+ *
+ * <p>The log is bounded by {@link #MAX_PENDING_CHANGES}. If it overflows, or if the owner of
+ * the log calls {@link #invalidateChangeLog()}, the delta is no longer known and
+ * {@link #isChangeLogComplete()} returns false until the next drain; the caller must then
+ * write the whole list.</p>
+ *
+ * <p>Every task in the list knows its own index, so that updates are logged without searching
+ * the list. Inserting or removing a task renumbers the tasks after it, at the same cost as
+ * shifting them. A task may be in at most one list, once.</p>
+ *
+ * <p>Example usage:
+ * <pre>
+ * TaskList tasks = new TaskList(storage.load());
+ * tasks.trackChanges();
+ * tasks.get(3).markAsDone();
+ * List&lt;TaskChange&gt; delta = tasks.drainChanges(); // one UPDATE at index 3
+ * </pre>
+ * </p>
+ *
+ * @see TaskChange
+ */
+public class TaskList extends AbstractList<Task> implements RandomAccess {
+    /**
+     * Number of pending changes after which the change log is dropped
+     */
+    public static final int MAX_PENDING_CHANGES = 1 << 16;
+
+    private final ArrayList<Task> tasks;
+    private final List<TaskChange> changeLog = new ArrayList<>();
+    private final Set<Task> updatedTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean isTracking;
+    private boolean isLogComplete = true;
+
+    /**
+     * Creates an empty task list with no pending changes.
+     */
+    public TaskList() {
+        this.tasks = new ArrayList<>();
+    }
+
+    /**
+     * Creates a task list holding the given tasks, treated as already persisted.
+     *
+     * @param tasks the initial tasks
+     */
+    public TaskList(Collection<? extends Task> tasks) {
+        this.tasks = new ArrayList<>(tasks);
+        for (int i = 0; i < this.tasks.size(); i++) {
+            Task task = this.tasks.get(i);
+            task.setOwner(this);
+            task.setPosition(i);
+            task.clearDirty();
+        }
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        tasks.add(index, task);
+        modCount++;
+        task.setOwner(this);
+        renumberFrom(index);
+        logChange(new TaskChange(TaskChange.Type.INSERT, index, task));
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task task = tasks.remove(index);
+        modCount++;
+        release(task);
+        renumberFrom(index);
+        logChange(new TaskChange(TaskChange.Type.REMOVE, index, task));
+        return task;
+    }
+
+    /**
+     * Removes a range of tasks, shifting and renumbering the tasks after it only once.
+     * Each removal is logged at the start of the range, as if the tasks were removed one by one.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        List<Task> removed = tasks.subList(fromIndex, toIndex);
+        for (Task task : removed) {
+            release(task);
+            logChange(new TaskChange(TaskChange.Type.REMOVE, fromIndex, task));
+        }
+        removed.clear();
+        modCount++;
+        renumberFrom(fromIndex);
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task old = remove(index);
+        add(index, task);
+        return old;
+    }
+
+    /**
+     * Starts recording changes, treating the current contents as persisted.
+     */
+    public void trackChanges() {
+        isTracking = true;
+        drainChanges();
+    }
+
+    /**
+     * Checks if the list has changes that have not been drained yet.
+     *
+     * @return true if there are pending changes, false otherwise
+     */
+    public boolean hasChanges() {
+        return !changeLog.isEmpty() || !updatedTasks.isEmpty() || !isLogComplete;
+    }
+
+    /**
+     * Checks if every change since the last drain is in the change log.
+     *
+     * @return false if the log overflowed or was invalidated, true otherwise
+     */
+    public boolean isChangeLogComplete() {
+        return isLogComplete;
+    }
+
+    /**
+     * Drops the change log, for example after a failed write of a drained delta.
+     * The next caller of {@link #isChangeLogComplete()} has to persist the whole list.
+     */
+    public void invalidateChangeLog() {
+        changeLog.clear();
+        updatedTasks.clear();
+        isLogComplete = false;
+    }
+
+    /**
+     * Returns every change since the last call and marks the list as persisted.
+     *
+     * <p>Structural changes come first, in the order they happened. They are followed by one
+     * {@link TaskChange.Type#UPDATE} per task whose completion status changed and that was
+     * neither inserted in this delta nor removed from the list.</p>
+     *
+     * @return the pending changes, in the order they must be applied
+     */
+    public List<TaskChange> drainChanges() {
+        List<TaskChange> changes = new ArrayList<>(changeLog);
+
+        Set<Task> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TaskChange change : changeLog) {
+            if (change.type() == TaskChange.Type.INSERT) {
+                inserted.add(change.task());
+            }
+            change.task().clearDirty();
+        }
+
+        for (Task task : updatedTasks) {
+            task.clearDirty();
+            if (task.getOwner() != this || inserted.contains(task)) {
+                continue;
+            }
+            changes.add(new TaskChange(TaskChange.Type.UPDATE, task.getPosition(), task));
+        }
+
+        changeLog.clear();
+        updatedTasks.clear();
+        isLogComplete = true;
+        return changes;
+    }
+
+    /**
+     * Called by a task in this list when its completion status changes.
+     *
+     * @param task the task that changed
+     */
+    void taskChanged(Task task) {
+        if (!isTracking || !isLogComplete) {
+            return;
+        }
+
+        updatedTasks.add(task);
+        checkCapacity();
+    }
+
+    private void logChange(TaskChange change) {
+        if (!isTracking || !isLogComplete) {
+            return;
+        }
+
+        changeLog.add(change);
+        checkCapacity();
+    }
+
+    private void checkCapacity() {
+        if (changeLog.size() + updatedTasks.size() > MAX_PENDING_CHANGES) {
+            invalidateChangeLog();
+        }
+    }
+
+    private void release(Task task) {
+        if (task.getOwner() == this) {
+            task.setOwner(null);
+        }
+    }
+
+    private void renumberFrom(int index) {
+        for (int i = index; i < tasks.size(); i++) {
+            tasks.get(i).setPosition(i);
+        }
+    }
+}
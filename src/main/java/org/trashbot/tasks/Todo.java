@@ -27,6 +27,16 @@ public class Todo extends Task {
         super(input.substring(5));
     }
 
+    /**
+     * Constructs a Todo task directly from its fields, without parsing a command string.
+     *
+     * @param description The task description
+     * @param isDone      Whether the task is completed
+     */
+    public Todo(String description, boolean isDone) {
+        super(description, isDone);
+    }
+
     @Override
     public String toString() {
         return "[T]" + super.toString();
@@ -0,0 +1,70 @@
+package org.trashbot.ui;
+
+import java.util.List;
+
+import org.trashbot.commands.TaskRow;
+
+/**
+ * A message in the chat transcript.
+ *
+ * <p>Messages are compared by identity, so that a pending message can be found and replaced
+ * even if another message has the same text.</p>
+ *
+ * <p>A message from the bot may carry the tasks listed by a command as rows, which are shown
+ * in a table below the text.</p>
+ *
+ * @see Transcript
+ */
+final class ChatMessage {
+    /**
+     * Who a message is from.
+     */
+    enum Sender {
+        USER,
+        BOT,
+
+        /**
+         * The transcript itself, for notes about the conversation
+         */
+        NOTICE
+    }
+
+    private final Sender sender;
+    private final String text;
+    private final List<TaskRow> rows;
+
+    /**
+     * Creates a message.
+     *
+     * @param sender who the message is from
+     * @param text   the text of the message
+     */
+    ChatMessage(Sender sender, String text) {
+        this(sender, text, List.of());
+    }
+
+    /**
+     * Creates a message that lists tasks.
+     *
+     * @param sender who the message is from
+     * @param text   the text of the message
+     * @param rows   the listed tasks, or empty
+     */
+    ChatMessage(Sender sender, String text, List<TaskRow> rows) {
+        this.sender = sender;
+        this.text = text;
+        this.rows = rows;
+    }
+
+    Sender getSender() {
+        return sender;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    List<TaskRow> getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,169 @@
+package org.trashbot.ui;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.trashbot.core.Response;
+import org.trashbot.core.TrashBot;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+/**
+ * Runs commands off the JavaFX application thread, so that slow commands and disk writes
+ * never freeze the window.
+ *
+ * <p>Commands are executed one at a time, in the order they were entered, by a single writer
+ * thread, and every response is handed back on the application thread. A command that takes
+ * longer than {@link #PENDING_DELAY} is reported as pending in the meantime.</p>
+ *
+ * <p>The time from submitting each command until its response has been laid out is recorded.
+ * A summary is available from {@link #getLatencies()}; setting the system property
+ * {@code trashbot.latencyLog} to true also prints the latency of every command.</p>
+ *
+ * @see MainWindow
+ */
+class CommandPipeline {
+    /**
+     * Time after which a command still running is shown as pending
+     */
+    static final Duration PENDING_DELAY = Duration.millis(150);
+
+    /**
+     * Whether the system property {@code trashbot.latencyLog} asks for latencies to be printed
+     */
+    static final boolean IS_LOGGING = Boolean.getBoolean("trashbot.latencyLog");
+
+    private final TrashBot trashBot;
+    private final Node anchor;
+    private final ExecutorService writer;
+    private final LatencyRecorder latencies = new LatencyRecorder();
+
+    /**
+     * Commands whose response has been shown, waiting for the next layout pass to be measured
+     */
+    private final Queue<Submission> unmeasured = new ArrayDeque<>();
+
+    private Scene measuredScene;
+
+    /**
+     * Receives the progress of a command on the JavaFX application thread.
+     */
+    interface ResponseHandler {
+        /**
+         * Called if the command is still running after {@link #PENDING_DELAY}.
+         */
+        void pending();
+
+        /**
+         * Called with the response once the command has finished.
+         *
+         * @param response the response of the command
+         */
+        void completed(Response response);
+    }
+
+    /**
+     * Creates a pipeline for the given bot.
+     *
+     * @param trashBot the bot that executes the commands
+     * @param anchor   a node of the window the responses are shown in, used to measure latency
+     */
+    CommandPipeline(TrashBot trashBot, Node anchor) {
+        this.trashBot = trashBot;
+        this.anchor = anchor;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trashbot-command");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a command for execution. Must be called on the JavaFX application thread.
+     *
+     * @param input   the command string
+     * @param handler receives the progress of the command
+     */
+    void submit(String input, ResponseHandler handler) {
+        Submission submission = new Submission(input, System.nanoTime());
+        PauseTransition pendingTimer = new PauseTransition(PENDING_DELAY);
+        pendingTimer.setOnFinished(event -> handler.pending());
+        pendingTimer.play();
+
+        writer.execute(() -> {
+            Response response;
+            try {
+                response = trashBot.respond(input);
+            } catch (RuntimeException e) {
+                response = Response.of("Error: " + e.getMessage());
+            }
+            Response result = response;
+            Platform.runLater(() -> {
+                pendingTimer.stop();
+                handler.completed(result);
+                measureAfterLayout(submission);
+            });
+        });
+    }
+
+    /**
+     * Returns the latencies recorded so far.
+     *
+     * @return the latency recorder
+     */
+    LatencyRecorder getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Stops accepting commands and waits for the queued ones to finish.
+     */
+    void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void measureAfterLayout(Submission submission) {
+        Scene scene = anchor.getScene();
+        if (scene == null) {
+            record(submission);
+            return;
+        }
+
+        if (scene != measuredScene) {
+            scene.addPostLayoutPulseListener(this::recordLaidOut);
+            measuredScene = scene;
+        }
+        unmeasured.add(submission);
+        Platform.requestNextPulse();
+    }
+
+    private void recordLaidOut() {
+        Submission submission;
+        while ((submission = unmeasured.poll()) != null) {
+            record(submission);
+        }
+    }
+
+    private void record(Submission submission) {
+        long nanos = System.nanoTime() - submission.submittedNanos();
+        latencies.record(nanos);
+        if (IS_LOGGING) {
+            System.out.printf("%.1f ms: %s%n", nanos / 1e6, submission.input());
+        }
+    }
+
+    private record Submission(String input, long submittedNanos) {
+    }
+}
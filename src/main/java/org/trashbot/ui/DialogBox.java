@@ -1,82 +0,0 @@
-package org.trashbot.ui;
-
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.geometry.Pos;
-import javafx.scene.Node;
-import javafx.scene.control.Label;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.HBox;
-
-/**
- * Represents a dialog box consisting of an image and a text label.
- * This class is used for displaying user and bot (Duke) messages in the UI.
- */
-public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-
-    @FXML
-    private ImageView displayPicture;
-
-    /**
-     * Constructs a DialogBox with the specified text and image.
-     * Loads the FXML layout for the dialog box.
-     *
-     * @param text The text to be displayed in the dialog.
-     * @param img The image to be displayed alongside the dialog.
-     */
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        dialog.setText(text);
-        displayPicture.setImage(img);
-    }
-
-    /**
-     * Flips the dialog box such that the ImageView appears on the left and the text on the right.
-     */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
-    }
-
-    /**
-     * Creates a dialog box for user messages.
-     *
-     * @param text The text to be displayed.
-     * @param img The image representing the user.
-     * @return A DialogBox instance representing the user's message.
-     */
-    public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
-    }
-
-    /**
-     * Creates a dialog box for bot (Duke) messages, which are flipped to differentiate from user messages.
-     *
-     * @param text The text to be displayed.
-     * @param img The image representing the bot.
-     * @return A DialogBox instance representing the bot's message.
-     */
-    public static DialogBox getDukeDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        return db;
-    }
-}
@@ -0,0 +1,113 @@
+package org.trashbot.ui;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+/**
+ * Displays one chat message as a dialog box consisting of an image and a text label.
+ *
+ * <p>The list view creates only as many cells as fit on screen and reuses them as the transcript
+ * scrolls, so the nodes of a dialog box are built once per cell in code and only their text,
+ * image and alignment change when the cell shows another message. Messages that list tasks show
+ * them in a {@link TaskTable}, created the first time the cell needs one.</p>
+ *
+ * @see Transcript
+ */
+class DialogCell extends ListCell<ChatMessage> {
+    /**
+     * Width taken by the avatar, the paddings and the scroll bar next to a message
+     */
+    private static final double MESSAGE_MARGIN = 100;
+
+    private final Image userImage;
+    private final Image botImage;
+    private final HBox dialogBox = new HBox();
+    private final VBox messageContainer = new VBox();
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+    private final ListView<ChatMessage> listView;
+    private TaskTable taskTable;
+
+    /**
+     * Creates a cell for the given list view.
+     *
+     * @param listView  the list view the cell belongs to
+     * @param userImage the image representing the user
+     * @param botImage  the image representing the bot
+     */
+    DialogCell(ListView<ChatMessage> listView, Image userImage, Image botImage) {
+        this.listView = listView;
+        this.userImage = userImage;
+        this.botImage = botImage;
+
+        dialog.setWrapText(true);
+        dialog.getStyleClass().add("message-text");
+        dialog.maxWidthProperty().bind(listView.widthProperty().subtract(MESSAGE_MARGIN));
+        messageContainer.getChildren().add(dialog);
+        messageContainer.getStyleClass().add("message-container");
+
+        displayPicture.setFitHeight(40.0);
+        displayPicture.setFitWidth(40.0);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.getStyleClass().add("avatar");
+
+        dialogBox.setSpacing(10);
+        dialogBox.setPadding(new Insets(10.0));
+        dialogBox.getStyleClass().add("dialog-box");
+
+        // the cell is as wide as the list, never wider, so the list does not scroll sideways
+        setPrefWidth(0);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+
+        dialog.setText(message.getText());
+        if (message.getRows().isEmpty()) {
+            messageContainer.getChildren().setAll(dialog);
+        } else {
+            TaskTable table = getTaskTable();
+            table.setRows(message.getRows());
+            messageContainer.getChildren().setAll(dialog, table);
+        }
+        switch (message.getSender()) {
+        case USER -> {
+            displayPicture.setImage(userImage);
+            dialogBox.getChildren().setAll(messageContainer, displayPicture);
+            dialogBox.setAlignment(Pos.TOP_RIGHT);
+        }
+        case BOT -> {
+            displayPicture.setImage(botImage);
+            dialogBox.getChildren().setAll(displayPicture, messageContainer);
+            dialogBox.setAlignment(Pos.TOP_LEFT);
+        }
+        default -> {
+            dialogBox.getChildren().setAll(messageContainer);
+            dialogBox.setAlignment(Pos.CENTER);
+        }
+        }
+        setGraphic(dialogBox);
+    }
+
+    private TaskTable getTaskTable() {
+        if (taskTable == null) {
+            taskTable = new TaskTable();
+            taskTable.prefWidthProperty().bind(listView.widthProperty().subtract(MESSAGE_MARGIN));
+        }
+        return taskTable;
+    }
+}
@@ -0,0 +1,64 @@
+package org.trashbot.ui;
+
+import java.util.Arrays;
+
+/**
+ * Records the latency of recent commands, from the moment the input is submitted until its
+ * response has been laid out on screen.
+ *
+ * <p>The most recent samples are kept in a ring buffer, from which percentiles are computed;
+ * the count and maximum cover every sample. Samples are recorded on the JavaFX application
+ * thread only.</p>
+ *
+ * @see CommandPipeline
+ */
+class LatencyRecorder {
+    private static final int SAMPLE_CAPACITY = 1_024;
+
+    private final long[] samples = new long[SAMPLE_CAPACITY];
+    private long count;
+    private long maxNanos;
+
+    /**
+     * Records the latency of one command.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void record(long nanos) {
+        samples[(int) (count % SAMPLE_CAPACITY)] = nanos;
+        count++;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * Returns the number of commands recorded.
+     *
+     * @return the number of samples
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of the recent commands completed.
+     *
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the latency in milliseconds, or 0 if nothing was recorded
+     */
+    double getPercentileMillis(double fraction) {
+        int size = (int) Math.min(count, SAMPLE_CAPACITY);
+        if (size == 0) {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(size - 1, size * fraction)] / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d command(s), p50 %.1f ms, p95 %.1f ms, max %.1f ms",
+                count, getPercentileMillis(0.5), getPercentileMillis(0.95), maxNanos / 1e6);
+    }
+}
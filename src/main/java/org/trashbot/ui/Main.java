@@ -18,6 +18,9 @@ import javafx.stage.Stage;
  * This class also initializes the {@link TrashBot} instance, which is the core component of the application.
  */
 public class Main extends Application {
+    private TrashBot trashBot;
+    private MainWindow controller;
+
     /**
      * Starts the JavaFX application by performing the following steps:
      * <ol>
@@ -35,7 +38,7 @@ public class Main extends Application {
     @Override
     public void start(Stage stage) {
         try {
-            TrashBot trashBot = new TrashBot("./data/TrashBot.sav");
+            trashBot = new TrashBot("./data/TrashBot.sav");
 
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             if (fxmlLoader.getLocation() == null) {
@@ -62,7 +65,7 @@ public class Main extends Application {
             stage.setMinHeight(300);
 
 
-            MainWindow controller = fxmlLoader.getController();
+            controller = fxmlLoader.getController();
             if (controller == null) {
                 System.out.println("Error: Controller is null");
                 return;
@@ -77,6 +80,26 @@ public class Main extends Application {
         }
     }
 
+    /**
+     * Waits for queued commands and flushes pending writes when the JavaFX application is
+     * shutting down.
+     */
+    @Override
+    public void stop() {
+        if (trashBot == null) {
+            return;
+        }
+        if (controller != null) {
+            controller.shutdown();
+        }
+
+        try {
+            trashBot.shutdown();
+        } catch (IOException e) {
+            System.out.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+
     /**
      * The main method that launches the JavaFX application.
      * This method is the entry point for the application and is called by the JVM when the program starts.
@@ -1,34 +1,41 @@
 package org.trashbot.ui;
 
+import org.trashbot.core.Response;
 import org.trashbot.core.TrashBot;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
-import javafx.scene.layout.VBox;
 
 /**
  * The MainWindow class controls the user interface of the TrashBot application.
  * It handles user input, displays output, and interacts with the TrashBot logic.
+ * Commands are run by a {@link CommandPipeline}, so the window stays responsive while they run.
+ * Messages are kept in a {@link Transcript} and shown in a list view, which only creates cells
+ * for the messages on screen.
  */
 public class MainWindow {
+    private static final String PENDING_MESSAGE = "Working on it...";
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> transcriptView;
     @FXML
     private TextField userInput;
     private TrashBot trashBot;
+    private CommandPipeline pipeline;
+    private final Transcript transcript = new Transcript();
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/man.png"));
     private Image dukeImage = new Image(this.getClass().getResourceAsStream("/images/bot.png"));
 
     /**
-     * Initializes the MainWindow by setting up an output stream to capture TrashBot output.
+     * Initializes the MainWindow by connecting the transcript to the list view that displays it.
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcriptView.setItems(transcript.getMessages());
+        transcriptView.setCellFactory(view -> new DialogCell(view, userImage, dukeImage));
     }
 
     /**
@@ -38,12 +45,29 @@ public class MainWindow {
      */
     public void setTrashBot(TrashBot tb) {
         trashBot = tb;
+        pipeline = new CommandPipeline(tb, userInput);
         addBotMessage("Hello! I'm TrashBot\nWhat can I do for you?");
     }
 
+    /**
+     * Waits for the commands that are still queued and for older messages still being saved,
+     * and prints the latency summary of the commands if {@code trashbot.latencyLog} is set.
+     * Should be called before the TrashBot instance is shut down.
+     */
+    public void shutdown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+            if (CommandPipeline.IS_LOGGING && pipeline.getLatencies().getCount() > 0) {
+                System.out.println("Command latency: " + pipeline.getLatencies());
+            }
+        }
+        transcript.shutdown();
+    }
+
     /**
      * Handles user input when the send button is clicked or Enter is pressed.
-     * Captures and processes the command, then displays the response.
+     * Queues the command and displays the response once it arrives, with a pending
+     * message in its place if the command is slow.
      */
     @FXML
     private void handleUserInput() {
@@ -52,32 +76,58 @@ public class MainWindow {
             return;
         }
         addUserMessage(input);
+        userInput.clear();
 
-        try {
-            trashBot.processCommand(input);
+        pipeline.submit(input, new CommandPipeline.ResponseHandler() {
+            private ChatMessage pendingMessage;
 
-            String response = trashBot.getResponse();
-            if (response != null && !response.trim().isEmpty()) {
-                if (response.equals("END_PROGRAM")) {
-                    System.exit(0);
-                } else {
-                    addBotMessage(response);
-                }
+            @Override
+            public void pending() {
+                pendingMessage = new ChatMessage(ChatMessage.Sender.BOT, PENDING_MESSAGE);
+                show(pendingMessage);
             }
-        } catch (Exception e) {
-            addBotMessage("Error: " + e.getMessage());
+
+            @Override
+            public void completed(Response response) {
+                showResponse(response, pendingMessage);
+            }
+        });
+    }
+
+    /**
+     * Shows the response to a command, in place of its pending message if there is one.
+     */
+    private void showResponse(Response response, ChatMessage pendingMessage) {
+        String text = response.text();
+        if (text == null || text.trim().isEmpty()) {
+            transcript.remove(pendingMessage);
+            return;
+        }
+        if (text.equals("END_PROGRAM")) {
+            // Platform.exit() lets Main.stop() save the transcript and shut the bot down.
+            transcript.remove(pendingMessage);
+            Platform.exit();
+            return;
         }
 
-        userInput.clear();
+        transcript.replace(pendingMessage, new ChatMessage(ChatMessage.Sender.BOT, text, response.rows()));
+        scrollToEnd();
     }
 
     private void addUserMessage(String message) {
-        DialogBox dialogBox = DialogBox.getUserDialog(message, userImage);
-        dialogContainer.getChildren().add(dialogBox);
+        show(new ChatMessage(ChatMessage.Sender.USER, message));
     }
 
     private void addBotMessage(String message) {
-        DialogBox dialogBox = DialogBox.getDukeDialog(message, dukeImage);
-        dialogContainer.getChildren().add(dialogBox);
+        show(new ChatMessage(ChatMessage.Sender.BOT, message));
+    }
+
+    private void show(ChatMessage message) {
+        transcript.add(message);
+        scrollToEnd();
+    }
+
+    private void scrollToEnd() {
+        transcriptView.scrollTo(transcript.getMessages().size() - 1);
     }
 }
@@ -0,0 +1,110 @@
+package org.trashbot.ui;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.trashbot.commands.TaskRow;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.VBox;
+
+/**
+ * Displays the tasks listed by a command in a table with a filter field above it.
+ *
+ * <p>The table only creates cells for the rows on screen, so a list of tens of thousands of
+ * tasks costs no more to show than a short one. Filtering and sorting run against the rows
+ * themselves: the table displays a sorted view of a filtered view of the rows, which wraps them
+ * without copying.</p>
+ *
+ * @see DialogCell
+ */
+class TaskTable extends VBox {
+    /**
+     * Height of a row, fixed so that the table never measures its rows
+     */
+    private static final double ROW_HEIGHT = 24;
+
+    /**
+     * Height of the column headers and the borders of the table
+     */
+    private static final double HEADER_HEIGHT = 30;
+
+    /**
+     * Number of rows shown before the table scrolls
+     */
+    private static final int VISIBLE_ROWS = 12;
+
+    private final TextField filter = new TextField();
+    private final TableView<TaskRow> table = new TableView<>();
+    private FilteredList<TaskRow> filteredRows;
+    private SortedList<TaskRow> sortedRows;
+
+    /**
+     * Creates an empty table.
+     */
+    TaskTable() {
+        filter.setPromptText("Filter...");
+        filter.getStyleClass().add("table-filter");
+        filter.textProperty().addListener((observable, oldText, newText) -> applyFilter(newText));
+
+        table.setFixedCellSize(ROW_HEIGHT);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPlaceholder(new Label("No matching tasks"));
+        table.getStyleClass().add("task-table");
+        table.getColumns().setAll(List.of(
+                column("#", TaskRow::number, 40),
+                column("Type", TaskRow::type, 40),
+                column("Done", TaskRow::statusIcon, 40),
+                column("Description", TaskRow::description, 160),
+                column("Details", TaskRow::details, 120)));
+
+        setSpacing(5);
+        getChildren().setAll(filter, table);
+    }
+
+    /**
+     * Shows the given rows, clearing the filter and the sort order.
+     *
+     * @param rows the rows to show
+     */
+    void setRows(List<TaskRow> rows) {
+        if (sortedRows != null) {
+            sortedRows.comparatorProperty().unbind();
+        }
+        filteredRows = new FilteredList<>(FXCollections.observableList(rows));
+        sortedRows = new SortedList<>(filteredRows);
+        sortedRows.comparatorProperty().bind(table.comparatorProperty());
+
+        table.getSortOrder().clear();
+        table.setItems(sortedRows);
+        table.setPrefHeight(Math.min(rows.size(), VISIBLE_ROWS) * ROW_HEIGHT + HEADER_HEIGHT);
+        filter.clear();
+    }
+
+    private void applyFilter(String text) {
+        if (filteredRows == null) {
+            return;
+        }
+
+        String term = text.trim().toLowerCase(Locale.ROOT);
+        filteredRows.setPredicate(term.isEmpty()
+                ? null
+                : row -> row.description().toLowerCase(Locale.ROOT).contains(term)
+                        || row.details().toLowerCase(Locale.ROOT).contains(term));
+    }
+
+    private static <T> TableColumn<TaskRow, T> column(String title, Function<TaskRow, T> value, double width) {
+        TableColumn<TaskRow, T> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+        column.setPrefWidth(width);
+        return column;
+    }
+}
@@ -0,0 +1,236 @@
+package org.trashbot.ui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.trashbot.commands.TaskRow;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The messages shown in the chat window, capped so that long sessions do not grow without
+ * bound.
+ *
+ * <p>The capacity is counted in lines: each message is one line, and each task it lists in a
+ * table is one more, so that a few long lists cannot hold more rows than the cap allows. Once
+ * the transcript holds more lines than its capacity, the oldest messages are appended to a
+ * spill file and dropped from memory until a tenth of the capacity is free, so that trimming is
+ * rare. The message just shown is never spilled, even if it alone is longer than the capacity,
+ * so memory is bounded by the capacity plus the latest result. Spilled messages are written by
+ * a background thread, so the application thread never waits for the disk. While messages have
+ * been spilled, the first message is a notice saying how many and where to find them, or that
+ * they could not be saved.</p>
+ *
+ * <p>The capacity and the spill file can be set with the system properties
+ * {@code trashbot.historyLimit} and {@code trashbot.transcriptFile}. The transcript must only
+ * be used on the JavaFX application thread.</p>
+ *
+ * @see MainWindow
+ */
+class Transcript {
+    /**
+     * Default number of lines kept in memory, counting a message and each of its rows as a line
+     */
+    static final int DEFAULT_CAPACITY = 5000;
+
+    /**
+     * Default file that spilled messages are appended to
+     */
+    static final String DEFAULT_SPILL_FILE = "./data/transcript.txt";
+
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+    private final int capacity;
+    private final Path spillFile;
+    private final ExecutorService writer;
+    private int spilledCount;
+    private ChatMessage notice;
+
+    /**
+     * Number of lines of the messages in memory, excluding the notice
+     */
+    private int lineCount;
+
+    /**
+     * The error of the last failed write to the spill file, or null if none failed
+     */
+    private String spillError;
+
+    /**
+     * Creates a transcript with the configured capacity and spill file.
+     */
+    Transcript() {
+        this(Math.max(10, Integer.getInteger("trashbot.historyLimit", DEFAULT_CAPACITY)),
+                Path.of(System.getProperty("trashbot.transcriptFile", DEFAULT_SPILL_FILE)));
+    }
+
+    /**
+     * Creates a transcript.
+     *
+     * @param capacity  maximum number of lines kept in memory
+     * @param spillFile file that older messages are appended to
+     */
+    Transcript(int capacity, Path spillFile) {
+        this.capacity = capacity;
+        this.spillFile = spillFile;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trashbot-transcript");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the messages in memory, for display.
+     *
+     * @return the live list of messages
+     */
+    ObservableList<ChatMessage> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Appends a message, spilling the oldest messages if the transcript is full.
+     *
+     * @param message the message to add
+     */
+    void add(ChatMessage message) {
+        messages.add(message);
+        lineCount += linesOf(message);
+        trim(message);
+    }
+
+    /**
+     * Replaces a message with another one in the same place, or appends the new message if the
+     * old one is no longer in memory.
+     *
+     * @param oldMessage the message to replace, or null
+     * @param newMessage the message to show instead
+     */
+    void replace(ChatMessage oldMessage, ChatMessage newMessage) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) == oldMessage) {
+                messages.set(i, newMessage);
+                lineCount += linesOf(newMessage) - linesOf(oldMessage);
+                trim(newMessage);
+                return;
+            }
+        }
+        add(newMessage);
+    }
+
+    /**
+     * Removes a message if it is still in memory.
+     *
+     * @param message the message to remove, or null
+     */
+    void remove(ChatMessage message) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) == message) {
+                messages.remove(i);
+                lineCount -= linesOf(message);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for the messages that are still being written to the spill file.
+     */
+    void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int linesOf(ChatMessage message) {
+        return 1 + message.getRows().size();
+    }
+
+    /**
+     * Spills the oldest messages if the transcript holds more lines than its capacity, stopping
+     * at the given message.
+     *
+     * @param shown the message just shown, which is kept along with every later message
+     */
+    private void trim(ChatMessage shown) {
+        if (lineCount <= capacity) {
+            return;
+        }
+
+        int first = notice != null ? 1 : 0;
+        int end = first;
+        int target = capacity - capacity / 10;
+        while (end < messages.size() && messages.get(end) != shown && lineCount > target) {
+            lineCount -= linesOf(messages.get(end));
+            end++;
+        }
+        if (end > first) {
+            spill(first, end);
+        }
+    }
+
+    private void spill(int first, int end) {
+        List<ChatMessage> oldest = messages.subList(first, end);
+        List<ChatMessage> batch = new ArrayList<>(oldest);
+        oldest.clear();
+        spilledCount += end - first;
+        writer.execute(() -> write(batch));
+        showNotice();
+    }
+
+    /**
+     * Appends messages to the spill file. Runs on the writer thread only.
+     */
+    private void write(List<ChatMessage> batch) {
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            // reported when the file cannot be opened below
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ChatMessage message : batch) {
+                out.write(message.getSender() == ChatMessage.Sender.USER ? "> " : "");
+                out.write(message.getText());
+                out.newLine();
+                for (TaskRow row : message.getRows()) {
+                    out.write(" " + row);
+                    out.newLine();
+                }
+            }
+        } catch (IOException e) {
+            Platform.runLater(() -> {
+                spillError = e.getMessage();
+                showNotice();
+            });
+        }
+    }
+
+    private void showNotice() {
+        String text = spillError == null
+                ? spilledCount + " earlier messages were moved to " + spillFile
+                : spilledCount + " earlier messages were removed, but could not all be saved to " + spillFile
+                        + " (" + spillError + ")";
+        ChatMessage updated = new ChatMessage(ChatMessage.Sender.NOTICE, text);
+        if (notice == null) {
+            messages.add(0, updated);
+        } else {
+            messages.set(0, updated);
+        }
+        notice = updated;
+    }
+}
@@ -0,0 +1,52 @@
+package org.trashbot.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class ParallelRendererTest {
+    @Test
+    void testParallelOutputMatchesSequential() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            tasks.add(i % 7 == 0
+                    ? new Deadline("submit report " + i, LocalDateTime.of(2026, 1, 1, 9, 0).plusHours(i), i % 2 == 0)
+                    : new Todo("read book " + i, i % 3 == 0));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelRenderer parallel = new ParallelRenderer(1, pool);
+
+            assertEquals(new ListCommand(ParallelRenderer.SEQUENTIAL).execute(tasks, null),
+                    new ListCommand(parallel).execute(tasks, null));
+            for (String query : List.of("find report 9", "find book", "find nothing", "find 12345")) {
+                assertEquals(new FindCommand(query, null, ParallelRenderer.SEQUENTIAL).execute(tasks, null),
+                        new FindCommand(query, null, parallel).execute(tasks, null), query);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSmallListsStaySequential() {
+        List<Task> tasks = new ArrayList<>(List.of(new Todo("read book", false)));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        pool.shutdown();
+
+        // a shut-down pool rejects work, so this only passes if the pool is not used
+        assertEquals("____________________________________________________________\n"
+                + "Here are the tasks in your list:\n"
+                + " 1.[T][ ] read book\n"
+                + "____________________________________________________________",
+                new ListCommand(new ParallelRenderer(2, pool)).execute(tasks, null));
+    }
+}
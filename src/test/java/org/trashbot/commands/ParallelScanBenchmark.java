@@ -0,0 +1,74 @@
+package org.trashbot.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+/**
+ * Compares sequential and fork-join rendering of {@link ListCommand} and a scanning
+ * {@link FindCommand} on a generated list of 1M tasks.
+ *
+ * <p>Run with {@code ./gradlew benchmark -Pbenchmark=org.trashbot.commands.ParallelScanBenchmark}.
+ * The speedup depends on the number of cores, which is printed first.</p>
+ */
+public class ParallelScanBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final String[] WORDS = {"read", "write", "submit", "review", "plan", "clean", "buy", "call"};
+    private static final String[] OBJECTS = {"report", "book", "groceries", "slides", "garden", "mum", "code"};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    /**
+     * Generates the task list and prints the average time of each command in both modes.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        List<Task> tasks = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            tasks.add(new Todo(WORDS[i % WORDS.length] + " " + OBJECTS[(i / WORDS.length) % OBJECTS.length] + " " + i,
+                    i % 2 == 0));
+        }
+
+        ParallelRenderer parallel = new ParallelRenderer(ParallelRenderer.DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+        System.out.printf("%,d tasks, %d cores, common pool parallelism %d%n",
+                SIZE, Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool().getParallelism());
+
+        report("list", measure(new ListCommand(ParallelRenderer.SEQUENTIAL), tasks),
+                measure(new ListCommand(parallel), tasks));
+        for (String query : List.of("find report", "find 99")) {
+            report(query, measure(new FindCommand(query, null, ParallelRenderer.SEQUENTIAL), tasks),
+                    measure(new FindCommand(query, null, parallel), tasks));
+        }
+    }
+
+    private static void report(String command, double sequentialMillis, double parallelMillis) {
+        System.out.printf("    %-12s sequential %8.1f ms, parallel %8.1f ms, speedup %.2fx%n",
+                command, sequentialMillis, parallelMillis, sequentialMillis / parallelMillis);
+    }
+
+    private static double measure(Command command, List<Task> tasks) {
+        int checksum = 0;
+        try {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                checksum += command.execute(tasks, null).length();
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                checksum += command.execute(tasks, null).length();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (checksum == 0) {
+                throw new IllegalStateException("Command produced no output");
+            }
+            return elapsed / 1e6 / MEASURED_RUNS;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
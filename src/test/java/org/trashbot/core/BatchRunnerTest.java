@@ -0,0 +1,93 @@
+package org.trashbot.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.storage.DeferredStorage;
+import org.trashbot.storage.FileStorage;
+import org.trashbot.tasks.Task;
+
+class BatchRunnerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testScriptIsSavedOnceAtTheEnd() throws IOException {
+        String saveFile = tempDir.resolve("tasks.txt").toString();
+        BatchRunner.BatchReport report = replay(saveFile, script(20, 5), 0, null);
+
+        assertEquals(25, report.commandCount());
+        assertEquals(1, report.writeCount());
+
+        List<Task> tasks = new FileStorage(saveFile).load();
+        assertEquals(20, tasks.size());
+        assertEquals(5, tasks.stream().filter(Task::isDone).count());
+    }
+
+    @Test
+    void testFlushIntervalWritesPeriodically() throws IOException {
+        String saveFile = tempDir.resolve("tasks.txt").toString();
+        BatchRunner.BatchReport report = replay(saveFile, script(20, 5), 10, null);
+
+        assertEquals(3, report.writeCount());
+        assertEquals(20, new FileStorage(saveFile).load().size());
+    }
+
+    @Test
+    void testCommentsAreSkippedAndByeEndsTheScript() throws IOException {
+        String saveFile = tempDir.resolve("tasks.txt").toString();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream responses = new PrintStream(output, true, StandardCharsets.UTF_8);
+
+        BatchRunner.BatchReport report = replay(saveFile,
+                "# seed\n\ntodo read book\nmark x\nbye\ntodo never added\n", 0, responses);
+
+        assertEquals(3, report.commandCount());
+        assertEquals(1, new FileStorage(saveFile).load().size());
+        String printed = output.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("read book"), printed);
+        assertTrue(printed.contains("mark x is out of bounds"), printed);
+    }
+
+    @Test
+    void testOpenTransactionIsNotSaved() throws IOException {
+        String saveFile = tempDir.resolve("tasks.txt").toString();
+        replay(saveFile, "todo a\nbegin\ntodo b\n", 1, null);
+
+        List<Task> tasks = new FileStorage(saveFile).load();
+        assertEquals(1, tasks.size());
+        assertEquals("a", tasks.get(0).getDescription());
+
+        replay(saveFile, "begin\ntodo c\nbye\n", 0, null);
+        assertEquals(1, new FileStorage(saveFile).load().size());
+    }
+
+    private static BatchRunner.BatchReport replay(String saveFile, String script, int flushInterval,
+            PrintStream responses) throws IOException {
+        DeferredStorage storage = new DeferredStorage(new FileStorage(saveFile));
+        BatchRunner runner = new BatchRunner(new TrashBot(storage), storage, flushInterval);
+        return runner.run(new BufferedReader(new StringReader(script)), responses);
+    }
+
+    private static String script(int todoCount, int markCount) {
+        StringBuilder script = new StringBuilder();
+        for (int i = 1; i <= todoCount; i++) {
+            script.append("todo task ").append(i).append('\n');
+        }
+        for (int i = 1; i <= markCount; i++) {
+            script.append("mark ").append(i).append('\n');
+        }
+        return script.toString();
+    }
+}
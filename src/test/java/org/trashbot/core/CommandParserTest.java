@@ -0,0 +1,104 @@
+package org.trashbot.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.commands.ByeCommand;
+import org.trashbot.commands.DeleteCommand;
+import org.trashbot.commands.FindCommand;
+import org.trashbot.commands.ListCommand;
+import org.trashbot.commands.MarkCommand;
+import org.trashbot.commands.RollbackCommand;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.exceptions.UnknownInputException;
+import org.trashbot.search.SearchIndex;
+import org.trashbot.storage.FileStorage;
+import org.trashbot.storage.TransactionalStorage;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class CommandParserTest {
+    @TempDir
+    Path tempDir;
+
+    private CommandParser parser;
+
+    @BeforeEach
+    void setUp() {
+        FileStorage storage = new FileStorage(tempDir.resolve("tasks.txt").toString());
+        parser = new CommandParser(new SearchIndex(), new TransactionalStorage(storage));
+    }
+
+    @Test
+    void testCommandWordsIgnoreCase() {
+        assertInstanceOf(ListCommand.class, parser.parse("LiSt").command());
+        assertInstanceOf(ByeCommand.class, parser.parse("bye now").command());
+        assertInstanceOf(FindCommand.class, parser.parse("FIND~ bok").command());
+        assertInstanceOf(MarkCommand.class, parser.parse("unmark 3").command());
+        assertInstanceOf(RollbackCommand.class, parser.parse("ROLLBACK").command());
+    }
+
+    @Test
+    void testUnknownCommandWordsAreReportedLowercased() {
+        assertEquals(UnknownInputException.describe("lis"), parser.parse("LIS").error());
+        assertEquals(UnknownInputException.describe("lists"), parser.parse("lists all").error());
+        assertEquals(UnknownInputException.describe("todo\tread"), parser.parse("todo\tread").error());
+        assertEquals(UnknownInputException.describe("find~~"), parser.parse("find~~ x").error());
+        assertEquals(UnknownInputException.describe("Command cannot be empty"), parser.parse("  ").error());
+    }
+
+    @Test
+    void testInvalidTaskNumbersAreReported() {
+        assertEquals("Please specify task number(s) to delete", parser.parse("delete").error());
+        assertEquals(" is out of bounds", parser.parse("delete   ").error());
+        assertEquals("two is out of bounds", parser.parse("delete 1 two 3").error());
+        assertEquals("Please specify a task number to mark", parser.parse("mark").error());
+        assertEquals("Please specify a task number to mark", parser.parse("mark  ").error());
+        assertEquals("mark 1 2 is out of bounds", parser.parse("mark 1 2").error());
+        assertEquals("unmark 99999999999 is out of bounds", parser.parse("unmark 99999999999").error());
+        assertFalse(parser.parse("mark x").isSuccess());
+    }
+
+    @Test
+    void testParseIntMatchesIntegerParseInt() {
+        String[] inputs = {"0", "42", "+7", "-7", "007", "2147483647", "-2147483648", "2147483648",
+            "-2147483649", "", "+", "-", "1a", " 1", "١٢"};
+        for (String input : inputs) {
+            long expected;
+            try {
+                expected = Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                expected = Long.MIN_VALUE;
+            }
+            assertEquals(expected, CommandParser.parseInt(input, 0, input.length()), input);
+        }
+    }
+
+    @Test
+    void testParsedCommandsExecute() throws DukeException, IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            tasks.add(new Todo("task " + i, false));
+        }
+        FileStorage storage = new FileStorage(tempDir.resolve("tasks.txt").toString());
+
+        parser.parse("mark   2 ").command().execute(tasks, storage);
+        assertTrue(tasks.get(1).isDone());
+
+        DeleteCommand delete = (DeleteCommand) parser.parse("delete 5\t1  3").command();
+        delete.execute(tasks, storage);
+        assertEquals(2, tasks.size());
+        assertEquals("task 2", tasks.get(0).getDescription());
+        assertEquals("task 4", tasks.get(1).getDescription());
+    }
+}
@@ -0,0 +1,117 @@
+package org.trashbot.core;
+
+import org.trashbot.commands.FindCommand;
+import org.trashbot.search.SearchIndex;
+
+/**
+ * Compares {@link CommandParser} with the parser it replaced, which split the input, converted
+ * its case, and relied on {@code CommandType.valueOf} and {@code Integer.parseInt} throwing on
+ * invalid input, on mixes of valid and invalid commands.
+ *
+ * <p>Run with {@code ./gradlew benchmark -Pbenchmark=org.trashbot.core.ParserBenchmark}.</p>
+ */
+public class ParserBenchmark {
+    private static final String[] VALID = {"list", "mark 12", "unmark 3", "delete 4 8 15", "find book",
+        "LIST", "todo read book", "bye"};
+    private static final String[] INVALID = {"lst", "mark twelve", "delete 4 x", "unmark", "hello world",
+        "mark 1 2", "remove 3", "delete"};
+    private static final int[] INVALID_PERCENTAGES = {0, 10, 50, 90};
+    private static final int INPUT_COUNT = 4_096;
+    private static final int WARMUP_RUNS = 200;
+    private static final int MEASURED_RUNS = 500;
+
+    private static long sink;
+
+    /**
+     * Parses every mix with both parsers and prints the average time per input.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        // the parsed commands are never executed, so they need no transactions
+        CommandParser parser = new CommandParser(new SearchIndex(), null);
+        for (int invalidPercentage : INVALID_PERCENTAGES) {
+            String[] inputs = generateInputs(invalidPercentage);
+            double legacyNanos = measure(() -> {
+                for (String input : inputs) {
+                    sink += legacyParse(input);
+                }
+            });
+            double parserNanos = measure(() -> {
+                for (String input : inputs) {
+                    sink += parser.parse(input).isSuccess() ? 1 : 0;
+                }
+            });
+            System.out.printf("%3d%% invalid: legacy %8.1f ns/input, single pass %8.1f ns/input (%.1fx)%n",
+                    invalidPercentage, legacyNanos, parserNanos, legacyNanos / parserNanos);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static String[] generateInputs(int invalidPercentage) {
+        String[] inputs = new String[INPUT_COUNT];
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            inputs[i] = i * 100 / INPUT_COUNT < invalidPercentage
+                    ? INVALID[i % INVALID.length]
+                    : VALID[i % VALID.length];
+        }
+        // interleave valid and invalid inputs so the branch pattern is not trivially predictable
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            int j = (int) ((i * 2_654_435_761L) % INPUT_COUNT);
+            String input = inputs[i];
+            inputs[i] = inputs[j];
+            inputs[j] = input;
+        }
+        return inputs;
+    }
+
+    /**
+     * Replicates how commands and task numbers used to be recognised, without building the
+     * commands, and returns 1 for valid input.
+     */
+    private static int legacyParse(String input) {
+        String command = input.split(" ", 2)[0].toLowerCase();
+        CommandType type;
+        if (command.equals(FindCommand.FUZZY_KEYWORD)) {
+            type = CommandType.FIND;
+        } else {
+            try {
+                type = CommandType.valueOf(command.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return 0;
+            }
+        }
+
+        try {
+            if (type == CommandType.DELETE) {
+                String[] parts = input.split(" ", 2);
+                if (parts.length < 2) {
+                    throw new ArrayIndexOutOfBoundsException("Please specify task number(s) to delete");
+                }
+                for (String taskId : parts[1].trim().split("\\s+")) {
+                    sink += Integer.parseInt(taskId);
+                }
+            } else if (type == CommandType.MARK || type == CommandType.UNMARK) {
+                String[] split = input.split(" ", 2);
+                if (split.length < 2 || split[1].trim().isEmpty()) {
+                    throw new ArrayIndexOutOfBoundsException("No task ID provided");
+                }
+                sink += Integer.parseInt(split[1].trim());
+            }
+            return 1;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    private static double measure(Runnable run) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            run.run();
+        }
+        return (double) (System.nanoTime() - start) / MEASURED_RUNS / INPUT_COUNT;
+    }
+}
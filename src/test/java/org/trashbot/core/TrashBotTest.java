@@ -0,0 +1,302 @@
+package org.trashbot.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.commands.TaskRow;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.storage.DataPersistence;
+import org.trashbot.storage.FileStorage;
+import org.trashbot.tasks.Task;
+
+class TrashBotTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRepeatedReadsAreServedFromCache() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        trashBot.processCommand("todo read book");
+        trashBot.processCommand("todo return book");
+
+        String first = handle(trashBot, "list");
+        assertEquals(first, handle(trashBot, "list"));
+        assertEquals(handle(trashBot, "find book"), handle(trashBot, "FIND   book  "));
+
+        assertEquals(new CacheMetrics(2, 2, 2), trashBot.getCacheMetrics());
+    }
+
+    @Test
+    void testMutationsInvalidateCachedResponses() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        trashBot.processCommand("todo read book");
+
+        String before = handle(trashBot, "list");
+        trashBot.processCommand("mark 1");
+        String after = handle(trashBot, "list");
+
+        assertTrue(before.contains("[T][ ] read book"), before);
+        assertTrue(after.contains("[T][X] read book"), after);
+        assertEquals(0, trashBot.getCacheMetrics().hitCount());
+
+        // a failed mutation may still have changed the list, so it invalidates as well
+        trashBot.processCommand("mark 5");
+        handle(trashBot, "list");
+        assertEquals(0, trashBot.getCacheMetrics().hitCount());
+    }
+
+    @Test
+    void testLongResponsesAreNotCached() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        trashBot.processCommand("begin");
+        for (int i = 1; i <= 10_000; i++) {
+            trashBot.processCommand("todo a task with a long description " + i);
+        }
+        trashBot.processCommand("commit");
+
+        assertTrue(trashBot.handle("list").length() > 1 << 18);
+        assertTrue(trashBot.handle("find 9999").contains("9999"));
+        assertEquals(1, trashBot.getCacheMetrics().size());
+    }
+
+    @Test
+    void testFailedReadsAreNotCached() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+
+        String error = handle(trashBot, "query done:maybe");
+        assertEquals(error, handle(trashBot, "query done:maybe"));
+        assertEquals(0, trashBot.getCacheMetrics().size());
+    }
+
+    @Test
+    void testCommitWritesOnce() throws IOException {
+        CountingStorage storage = new CountingStorage(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        TrashBot trashBot = new TrashBot(storage);
+
+        trashBot.processCommand("begin");
+        for (int i = 1; i <= 20; i++) {
+            trashBot.processCommand("todo task " + i);
+        }
+        for (int i = 1; i <= 5; i++) {
+            trashBot.processCommand("mark " + i);
+        }
+        assertEquals(0, storage.writeCount);
+
+        assertTrue(handle(trashBot, "commit").contains("25 change(s)"));
+        assertEquals(1, storage.writeCount);
+        List<Task> saved = new FileStorage(tempDir.resolve("tasks.txt").toString()).load();
+        assertEquals(20, saved.size());
+        assertEquals(5, saved.stream().filter(Task::isDone).count());
+    }
+
+    @Test
+    void testRollbackRestoresTasksAndIndexes() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        trashBot.processCommand("todo read book");
+        trashBot.processCommand("todo buy milk");
+        trashBot.processCommand("mark 2");
+        String before = handle(trashBot, "list");
+        assertTrue(handle(trashBot, "find book").contains("read book"));
+
+        trashBot.processCommand("begin");
+        trashBot.processCommand("delete 1");
+        trashBot.processCommand("todo write essay");
+        trashBot.processCommand("unmark 1");
+        assertTrue(handle(trashBot, "rollback").contains("3 change(s)"));
+
+        assertEquals(before, handle(trashBot, "list"));
+        assertTrue(handle(trashBot, "find book").contains("read book"));
+        assertTrue(handle(trashBot, "query done:true").contains("buy milk"));
+        assertEquals(2, new FileStorage(tempDir.resolve("tasks.txt").toString()).load().size());
+        assertEquals("There is no transaction to roll back", handle(trashBot, "rollback"));
+    }
+
+    @Test
+    void testRollbackUndoesChangesInReverseOrder() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        for (int i = 1; i <= 6; i++) {
+            trashBot.processCommand("todo task " + i);
+        }
+        trashBot.processCommand("mark 4");
+        String before = handle(trashBot, "list");
+
+        trashBot.processCommand("begin");
+        trashBot.processCommand("mark 2");
+        trashBot.processCommand("unmark 2");
+        trashBot.processCommand("mark 2");
+        trashBot.processCommand("delete 2 4 5");
+        trashBot.processCommand("todo task 7");
+        trashBot.processCommand("delete 1 4");
+        trashBot.processCommand("unmark 1");
+        assertTrue(handle(trashBot, "rollback").contains("7 change(s)"));
+
+        assertEquals(before, handle(trashBot, "list"));
+    }
+
+    @Test
+    void testConcurrentCallersEachGetTheirOwnResponse() throws Exception {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        List<CompletableFuture<String>> writes = new ArrayList<>();
+        List<CompletableFuture<String>> reads = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            writes.add(trashBot.submit("todo task " + i));
+            reads.add(trashBot.submit(i % 2 == 0 ? "find task" : "query type:todo"));
+        }
+
+        for (CompletableFuture<String> write : writes) {
+            assertTrue(write.get(10, TimeUnit.SECONDS).contains("Got it. I've added this task"));
+        }
+        for (CompletableFuture<String> read : reads) {
+            String response = read.get(10, TimeUnit.SECONDS);
+            assertTrue(response.contains("task") || response.contains("No matching tasks"), response);
+        }
+
+        String list = trashBot.handle("list");
+        assertTrue(list.contains("200.[T][ ] task"), list);
+        assertEquals(200, trashBot.handle("find task").lines().filter(line -> line.contains("[T]")).count());
+        trashBot.shutdown();
+    }
+
+    @Test
+    void testListedTasksAreReturnedAsRows() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        trashBot.handle("todo read book");
+        trashBot.handle("deadline return book /by 2026-12-01 1800");
+        trashBot.handle("todo buy milk");
+        trashBot.handle("mark 3");
+
+        Response list = trashBot.respond("list");
+        assertEquals("Here are the 3 tasks in your list:", list.text());
+        assertEquals(new TaskRow(3, "T", true, "buy milk", ""), list.rows().get(2));
+        String text = trashBot.handle("list");
+        for (TaskRow row : list.rows()) {
+            assertTrue(text.contains("\n " + row + "\n"), row + " in " + text);
+        }
+
+        Response find = trashBot.respond("find book");
+        assertEquals(List.of(1, 2), find.rows().stream().map(TaskRow::number).toList());
+        assertTrue(find.rows().get(1).details().startsWith("by: "));
+
+        Response none = trashBot.respond("find nothing");
+        assertFalse(none.hasRows());
+        assertEquals("No matching tasks found!", none.text());
+
+        Response add = trashBot.respond("todo write report");
+        assertFalse(add.hasRows());
+        assertTrue(add.text().contains("Now you have 4 tasks in the list."), add.text());
+    }
+
+    @Test
+    void testStreamedResponsesMatchTheTextResponses() throws IOException {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        assertStreamedAsText(trashBot, "list", "find book");
+
+        StringBuilder added = new StringBuilder();
+        assertTrue(trashBot.handle("todo read book", added));
+        assertTrue(added.toString().contains("Now you have 1 tasks in the list."), added.toString());
+        trashBot.handle("todo return book", new StringBuilder());
+        trashBot.handle("deadline buy milk /by 2026-12-01 1800", new StringBuilder());
+        trashBot.handle("mark 2", new StringBuilder());
+
+        assertStreamedAsText(trashBot, "list", "find book", "find~ bok", "find nothing", "query done:true",
+                "mark 9", "lst");
+
+        StringBuilder output = new StringBuilder();
+        assertFalse(trashBot.handle("bye", output));
+        assertEquals("", output.toString());
+    }
+
+    @Test
+    void testSlowSinksDoNotHoldUpChanges() throws Exception {
+        TrashBot trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        trashBot.processCommand("begin");
+        for (int i = 1; i <= 1000; i++) {
+            trashBot.processCommand("todo task number " + i);
+        }
+        trashBot.processCommand("commit");
+        assertStreamedAsText(trashBot, "list");
+        // invalidates the cached list, so that the next one is rendered page by page
+        trashBot.processCommand("unmark 1");
+
+        // the sink adds a task before taking the first page, which needs the write lock
+        StringBuilder streamed = new StringBuilder();
+        Appendable sink = new Appendable() {
+            @Override
+            public Appendable append(CharSequence text) throws IOException {
+                if (streamed.length() == 0) {
+                    try {
+                        trashBot.submit("todo added meanwhile").get(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IOException(e);
+                    }
+                }
+                streamed.append(text);
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence text, int start, int end) throws IOException {
+                return append(text.subSequence(start, end));
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                return append(String.valueOf(c));
+            }
+        };
+        assertTrue(trashBot.handle("list", sink));
+
+        String response = streamed.toString();
+        assertTrue(response.startsWith(trashBot.handle("list").substring(0, 100)), response);
+        assertTrue(response.endsWith("Please try again.)"), response);
+        assertFalse(response.contains("1000.[T]"), response);
+        assertTrue(trashBot.handle("list").contains("1001.[T][ ] added meanwhile"));
+    }
+
+    private static void assertStreamedAsText(TrashBot trashBot, String... inputs) throws IOException {
+        for (String input : inputs) {
+            StringBuilder streamed = new StringBuilder();
+            assertTrue(trashBot.handle(input, streamed));
+            // streamed first, since the streamed response could otherwise come from the cache
+            assertEquals(trashBot.handle(input), streamed.toString(), input);
+        }
+    }
+
+    private static String handle(TrashBot trashBot, String input) {
+        trashBot.processCommand(input);
+        return trashBot.getResponse();
+    }
+
+    /**
+     * Counts the writes that reach the underlying storage.
+     */
+    private static class CountingStorage implements DataPersistence {
+        private final DataPersistence delegate;
+        private int writeCount;
+
+        CountingStorage(DataPersistence delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void save(List<Task> tasks) throws IOException, DukeException {
+            writeCount++;
+            delegate.save(tasks);
+        }
+
+        @Override
+        public List<Task> load() throws IOException {
+            return delegate.load();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.trashbot.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.trashbot.exceptions.InvalidFormatException;
+
+class QueryParserTest {
+    @Test
+    void testPrecedenceAndImplicitAnd() throws InvalidFormatException {
+        Expression expression = new QueryParser("type:deadline done:false OR NOT text:report").parse();
+
+        assertTrue(expression instanceof Expression.Or);
+        assertEquals("(type:deadline AND done:false) OR NOT text:report", expression.toString());
+    }
+
+    @Test
+    void testParenthesesQuotesAndBareWords() throws InvalidFormatException {
+        Expression expression = new QueryParser("(Book or \"team meeting\") and due<=2026-12-01").parse();
+
+        assertEquals("(text:book OR text:\"team meeting\") AND due<=2026-12-01", expression.toString());
+    }
+
+    @Test
+    void testInvalidQueries() {
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("").parse());
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("(done:true").parse());
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("done:maybe").parse());
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("due<tomorrow").parse());
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("owner:me").parse());
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("text:\"open").parse());
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("done:true OR").parse());
+        assertThrows(InvalidFormatException.class, () -> new QueryParser("done:true )").parse());
+    }
+}
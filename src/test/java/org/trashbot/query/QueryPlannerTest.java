@@ -0,0 +1,142 @@
+package org.trashbot.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.trashbot.commands.QueryCommand;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.search.SearchIndex;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Event;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class QueryPlannerTest {
+    private static final String[] WORDS = {"report", "book", "meeting", "groceries", "essay"};
+    private static final String[] QUERIES = {
+        "type:deadline done:false due<2026-12-01 text:report",
+        "done:true OR type:event",
+        "NOT done:true AND (book OR essay)",
+        "due>=2026-06-01 due<=2026-06-30",
+        "due:2026-03-05 OR text:\"meeting 1\"",
+        "NOT (type:todo OR type:event) AND NOT due>2026-09-01",
+        "es AND type:todo",
+        "report book"
+    };
+
+    @Test
+    void testPlansMatchBruteForceAfterUpdates() throws DukeException {
+        Random random = new Random(5);
+        List<Task> tasks = new ArrayList<>();
+        SearchIndex index = new SearchIndex();
+
+        for (int step = 0; step < 1_500; step++) {
+            int action = random.nextInt(10);
+            if (tasks.isEmpty() || action < 6) {
+                Task task = randomTask(random, step);
+                tasks.add(task);
+                index.added(tasks, task);
+            } else if (action < 8) {
+                int position = random.nextInt(tasks.size());
+                tasks.remove(position);
+                index.removed(tasks, position);
+            } else {
+                int position = random.nextInt(tasks.size());
+                tasks.get(position).markAsDone();
+                index.updated(tasks, position);
+            }
+
+            if (step % 100 == 0) {
+                for (String query : QUERIES) {
+                    Expression expression = new QueryParser(query).parse();
+                    Plan plan = new QueryPlanner(tasks, index).plan(expression);
+                    assertEquals(bruteForce(tasks, expression), plan.execute(tasks, index),
+                            "step " + step + ", query " + query + "\n" + plan.explain());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPlannerStartsFromMostSelectiveIndex() throws DukeException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(i % 100 == 0
+                    ? new Deadline("submit report " + i, LocalDateTime.of(2026, 1, 1, 12, 0).plusDays(i / 100), false)
+                    : new Todo("read book " + i, i % 2 == 0));
+        }
+        SearchIndex index = new SearchIndex();
+        Plan plan = new QueryPlanner(tasks, index)
+                .plan(new QueryParser("type:deadline done:false due<2026-01-11 text:report").parse());
+        String explanation = plan.explain();
+
+        String[] lines = explanation.split("\n");
+        assertEquals("Index lookup due<2026-01-11 using deadline index (est. 10)", lines[lines.length - 1].trim(),
+                explanation);
+        assertTrue(explanation.contains("Filter text:report"), explanation);
+        assertEquals(10, plan.execute(tasks, index).cardinality());
+    }
+
+    @Test
+    void testQueryCommandOutput() throws DukeException {
+        List<Task> tasks = new ArrayList<>(List.of(
+                new Todo("read book", true),
+                new Deadline("submit report", LocalDateTime.of(2026, 11, 30, 18, 0), false),
+                new Event("team meeting", "Mon 2pm", "4pm", false)));
+        SearchIndex index = new SearchIndex();
+
+        assertEquals("____________________________________________________________\n"
+                + "Here are the matching tasks in the list:\n"
+                + " 2." + tasks.get(1) + "\n"
+                + " 3." + tasks.get(2) + "\n"
+                + "____________________________________________________________",
+                new QueryCommand("query done:false", index).execute(tasks, null));
+        assertTrue(new QueryCommand("query type:todo due<2026-12-01", index).execute(tasks, null)
+                .contains("No matching tasks found!"));
+
+        String explanation = new QueryCommand("query explain type:deadline OR book", index).execute(tasks, null);
+        assertTrue(explanation.contains("Query: type:deadline OR text:book"), explanation);
+        assertTrue(explanation.contains("Union (est. 2)"), explanation);
+    }
+
+    private static Task randomTask(Random random, int step) {
+        String description = WORDS[random.nextInt(WORDS.length)] + " " + step;
+        boolean isDone = random.nextBoolean();
+        return switch (random.nextInt(3)) {
+        case 0 -> new Todo(description, isDone);
+        case 1 -> new Deadline(description, LocalDateTime.of(2026, 1, 1, 0, 0).plusHours(random.nextInt(24 * 365)),
+                isDone);
+        default -> new Event(description, "today", "tomorrow", isDone);
+        };
+    }
+
+    private static BitSet bruteForce(List<Task> tasks, Expression expression) {
+        BitSet positions = new BitSet();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (matches(tasks.get(i), expression)) {
+                positions.set(i);
+            }
+        }
+        return positions;
+    }
+
+    private static boolean matches(Task task, Expression expression) {
+        if (expression instanceof Predicate predicate) {
+            return predicate.test(task);
+        }
+        if (expression instanceof Expression.Not not) {
+            return !matches(task, not.operand());
+        }
+        if (expression instanceof Expression.Or or) {
+            return or.operands().stream().anyMatch(operand -> matches(task, operand));
+        }
+        return ((Expression.And) expression).operands().stream().allMatch(operand -> matches(task, operand));
+    }
+}
@@ -0,0 +1,61 @@
+package org.trashbot.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BkTreeTest {
+    @Test
+    void testDistance() {
+        assertEquals(0, BkTree.distance("book", "book", BkTree.newRows("book")));
+        assertEquals(1, BkTree.distance("book", "bok", BkTree.newRows("bok")));
+        assertEquals(2, BkTree.distance("meeting", "meetnig", BkTree.newRows("meetnig")));
+        assertEquals(3, BkTree.distance("kitten", "sitting", BkTree.newRows("sitting")));
+        assertEquals(4, BkTree.distance("", "read", BkTree.newRows("read")));
+    }
+
+    @Test
+    void testSearchMatchesBruteForce() {
+        Random random = new Random(3);
+        BkTree tree = new BkTree();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String word = randomWord(random);
+            tree.add(word);
+            if (!words.contains(word)) {
+                words.add(word);
+            }
+        }
+        assertEquals(words.size(), tree.size());
+
+        for (int i = 0; i < 50; i++) {
+            String query = randomWord(random);
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                List<String> expected = new ArrayList<>();
+                for (String word : words) {
+                    if (BkTree.distance(word, query, BkTree.newRows(query)) <= maxDistance) {
+                        expected.add(word);
+                    }
+                }
+                List<String> actual = tree.search(query, maxDistance);
+                Collections.sort(expected);
+                Collections.sort(actual);
+                assertEquals(expected, actual, query + " within " + maxDistance);
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+}
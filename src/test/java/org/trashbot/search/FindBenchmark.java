@@ -0,0 +1,93 @@
+package org.trashbot.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.trashbot.commands.FindCommand;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+/**
+ * Compares a plain scan and the {@link TrigramIndex} on generated
+ * lists of 10k, 100k and 1M tasks, and times {@link FindCommand} end to end with and without
+ * the {@link SearchIndex}.
+ *
+ * <p>Run with {@code ./gradlew benchmark -Pbenchmark=org.trashbot.search.FindBenchmark}.</p>
+ */
+public class FindBenchmark {
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final String[] WORDS = {"read", "write", "submit", "review", "plan", "clean", "buy", "call"};
+    private static final String[] OBJECTS = {"report", "book", "groceries", "slides", "garden", "mum", "code"};
+    private static final String[] QUERIES = {"quarterly", "report", "read book", "arterl", "ad bo"};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    /**
+     * Generates the task lists and prints the average query time of each strategy.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        for (int size : SIZES) {
+            List<Task> tasks = generateTasks(size);
+            TrigramIndex trigramIndex = new TrigramIndex();
+            SearchIndex searchIndex = new SearchIndex();
+
+            double trigramBuildMillis = time(() -> trigramIndex.find(tasks, "warmup"));
+            searchIndex.find(tasks, "warmup");
+            System.out.printf("%,9d tasks: trigram index built in %8.1f ms (%,d trigrams)%n",
+                    size, trigramBuildMillis, trigramIndex.getKeyCount());
+
+            for (String query : QUERIES) {
+                double scanMillis = measure(t -> PostingIndex.scan(t, query).size(), tasks);
+                double trigramMillis = measure(t -> trigramIndex.find(t, query).size(), tasks);
+                System.out.printf("    %-12s scan %8.2f ms, trigram %8.2f ms%n",
+                        query, scanMillis, trigramMillis);
+
+                FindCommand scanCommand = new FindCommand(query);
+                FindCommand indexedCommand = new FindCommand(query, searchIndex);
+                double scanFindMillis = measure(t -> scanCommand.execute(t, null).length(), tasks);
+                double indexedFindMillis = measure(t -> indexedCommand.execute(t, null).length(), tasks);
+                System.out.printf("    %-12s find: scan %8.2f ms, indexed %8.2f ms%n",
+                        "", scanFindMillis, indexedFindMillis);
+            }
+        }
+    }
+
+    private static List<Task> generateTasks(int size) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String description = WORDS[i % WORDS.length] + " " + OBJECTS[(i / WORDS.length) % OBJECTS.length];
+            if (i % 10_000 == 0) {
+                description += " quarterly";
+            }
+            tasks.add(new Todo(description, i % 2 == 0));
+        }
+        return tasks;
+    }
+
+    private static double time(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static double measure(ToIntFunction<List<Task>> query, List<Task> tasks) {
+        int checksum = 0;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            checksum += query.applyAsInt(tasks);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            checksum += query.applyAsInt(tasks);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (checksum < 0) {
+            throw new IllegalStateException("Unreachable checksum");
+        }
+        return elapsed / 1e6 / MEASURED_RUNS;
+    }
+}
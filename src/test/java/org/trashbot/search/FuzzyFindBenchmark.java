@@ -0,0 +1,87 @@
+package org.trashbot.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+/**
+ * Measures {@link KeywordIndex#findFuzzy(List, String)} on generated lists of 100k and 1M tasks
+ * whose descriptions draw on a vocabulary of 20k made-up words.
+ *
+ * <p>Run with {@code ./gradlew benchmark -Pbenchmark=org.trashbot.search.FuzzyFindBenchmark}.</p>
+ */
+public class FuzzyFindBenchmark {
+    private static final int[] SIZES = {100_000, 1_000_000};
+    private static final int VOCABULARY_SIZE = 20_000;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "re", "su", "ten", "var", "po", "qui", "dan",
+        "el", "or", "bri", "ast", "nu", "fal", "gor", "hi", "jo", "zu"};
+    private static final String[] QUERIES = {"meetnig", "repotr", "grocerys", "bok", "quartrly"};
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 200;
+
+    /**
+     * Generates the task lists and prints the average fuzzy query time.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        String[] vocabulary = generateVocabulary(random);
+
+        for (int size : SIZES) {
+            List<Task> tasks = generateTasks(size, vocabulary, random);
+            KeywordIndex index = new KeywordIndex();
+
+            long buildStart = System.nanoTime();
+            index.findFuzzy(tasks, "warmup");
+            double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+            System.out.printf("%,9d tasks: index built in %8.1f ms, %,d tokens%n",
+                    size, buildMillis, index.getVocabularySize());
+
+            for (String query : QUERIES) {
+                int matches = 0;
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    matches = index.findFuzzy(tasks, query).size();
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    matches = index.findFuzzy(tasks, query).size();
+                }
+                double millis = (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+                System.out.printf("    %-10s %8.3f ms, %,d matches%n", query, millis, matches);
+            }
+        }
+    }
+
+    private static String[] generateVocabulary(Random random) {
+        String[] words = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = word.toString();
+        }
+        words[0] = "meeting";
+        words[1] = "report";
+        words[2] = "groceries";
+        words[3] = "book";
+        words[4] = "quarterly";
+        return words;
+    }
+
+    private static List<Task> generateTasks(int size, String[] vocabulary, Random random) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // a skewed choice makes common words common, as in real task lists
+            String first = vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))];
+            String second = vocabulary[random.nextInt(vocabulary.length)];
+            tasks.add(new Todo(first + " " + second, false));
+        }
+        return tasks;
+    }
+}
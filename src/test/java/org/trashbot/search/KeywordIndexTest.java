@@ -0,0 +1,109 @@
+package org.trashbot.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.trashbot.commands.FindCommand;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class KeywordIndexTest {
+    private static final String[] WORDS = {"read", "book", "return", "Books", "eat", "bread", "meeting", "team"};
+
+    @Test
+    void testRemovingSeveralPositions() {
+        List<Task> tasks = new ArrayList<>();
+        KeywordIndex index = new KeywordIndex();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new Todo("task " + i, false));
+        }
+        index.findFuzzy(tasks, "task");
+
+        tasks.remove(7);
+        tasks.remove(3);
+        tasks.remove(1);
+        index.removed(tasks, 1, 3, 7);
+
+        assertEquals(List.of(4), index.findFuzzy(tasks, "task 6"));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), index.findFuzzy(tasks, "task"));
+    }
+
+    @Test
+    void testFuzzyFindToleratesTypos() {
+        List<Task> tasks = new ArrayList<>(List.of(
+                new Todo("read book", false),
+                new Todo("Return BOOK to library", false),
+                new Todo("eat bread", false),
+                new Todo("team meeting", false)));
+        KeywordIndex index = new KeywordIndex();
+
+        assertEquals(List.of(0, 1), index.findFuzzy(tasks, "bok"));
+        assertEquals(List.of(3), index.findFuzzy(tasks, "meetnig"));
+        assertEquals(List.of(1), index.findFuzzy(tasks, "retrun libary"));
+        assertEquals(List.of(), index.findFuzzy(tasks, "retrun cake"));
+        assertEquals(List.of(), index.findFuzzy(tasks, "to bok xyz"));
+        assertEquals(List.of(1), index.findFuzzy(tasks, "to"));
+    }
+
+    @Test
+    void testFuzzyFindMatchesBruteForceAfterUpdates() {
+        Random random = new Random(11);
+        List<Task> tasks = new ArrayList<>();
+        KeywordIndex index = new KeywordIndex();
+        index.findFuzzy(tasks, "book");
+
+        for (int step = 0; step < 1_000; step++) {
+            if (tasks.isEmpty() || random.nextInt(3) > 0) {
+                Task task = new Todo(WORDS[random.nextInt(WORDS.length)] + " "
+                        + WORDS[random.nextInt(WORDS.length)] + " " + step, false);
+                tasks.add(task);
+                index.added(tasks, task);
+            } else {
+                int position = random.nextInt(tasks.size());
+                tasks.remove(position);
+                index.removed(tasks, position);
+            }
+
+            if (step % 50 == 0) {
+                for (String term : List.of("bok", "raed", "meting", "tem", "bread", "returm")) {
+                    assertEquals(fuzzyScan(tasks, term), index.findFuzzy(tasks, term),
+                            "step " + step + ", term " + term);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFuzzyFindCommandForms() {
+        List<Task> tasks = new ArrayList<>(List.of(
+                new Todo("read book", false),
+                new Todo("team meeting", true)));
+        String expected = "____________________________________________________________\n"
+                + "Here are the matching tasks in the list:\n"
+                + " 2.[T][X] team meeting\n"
+                + "____________________________________________________________";
+
+        assertEquals(expected, new FindCommand("find~ meetnig").execute(tasks, null));
+        assertEquals(expected, new FindCommand("find --fuzzy Meetnig", new SearchIndex()).execute(tasks, null));
+        assertTrue(new FindCommand("find meetnig").execute(tasks, null).contains("No matching tasks found!"));
+    }
+
+    private static List<Integer> fuzzyScan(List<Task> tasks, String term) {
+        int[][] rows = BkTree.newRows(term);
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            for (String token : KeywordIndex.tokenize(tasks.get(i).getDescription())) {
+                if (BkTree.distance(token, term, rows) <= KeywordIndex.maxDistanceFor(term)) {
+                    positions.add(i);
+                    break;
+                }
+            }
+        }
+        return positions;
+    }
+}
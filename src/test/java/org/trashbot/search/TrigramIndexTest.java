@@ -0,0 +1,84 @@
+package org.trashbot.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.trashbot.commands.FindCommand;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class TrigramIndexTest {
+    private static final String[] WORDS = {"read", "book", "return", "Books", "eat", "bread", "meeting", "team"};
+    private static final String[] TERMS = {"book", "ead", "d bo", "ks t", "return books", "eeti", "xyz", "ea", "k", ""};
+
+    @Test
+    void testFindMatchesSubstringsLikeScan() {
+        List<Task> tasks = new ArrayList<>(List.of(
+                new Todo("read book", false),
+                new Todo("Return BOOK to library", false),
+                new Todo("eat bread", false),
+                new Todo("team meeting", false)));
+        TrigramIndex index = new TrigramIndex();
+
+        assertEquals(List.of(0, 1), index.find(tasks, "book"));
+        assertEquals(List.of(0, 2), index.find(tasks, "read"));
+        assertEquals(List.of(0), index.find(tasks, "d bo"));
+        assertEquals(List.of(1), index.find(tasks, "book to"));
+        assertEquals(List.of(), index.find(tasks, "cake"));
+        assertEquals(List.of(0, 2, 3), index.find(tasks, "ea"));
+        assertEquals(List.of(0, 1, 2, 3), index.find(tasks, ""));
+        assertTrue(index.getKeyCount() > 0);
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchScan() {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        TrigramIndex index = new TrigramIndex();
+        index.find(tasks, "book");
+
+        for (int step = 0; step < 2_000; step++) {
+            if (tasks.isEmpty() || random.nextInt(3) > 0) {
+                Task task = new Todo(WORDS[random.nextInt(WORDS.length)] + " "
+                        + WORDS[random.nextInt(WORDS.length)] + " " + step, false);
+                tasks.add(task);
+                index.added(tasks, task);
+            } else {
+                int position = random.nextInt(tasks.size());
+                tasks.remove(position);
+                index.removed(tasks, position);
+            }
+
+            if (step % 50 == 0) {
+                for (String term : TERMS) {
+                    assertEquals(PostingIndex.scan(tasks, term), index.find(tasks, term),
+                            "step " + step + ", term " + term);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFindCommandOutputUnchangedByIndex() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(i % 3 == 0
+                    ? new Deadline(WORDS[i % WORDS.length] + " essay " + i,
+                            LocalDateTime.of(2024, 12, 1, 18, 0), i % 2 == 0)
+                    : new Todo(WORDS[i % WORDS.length] + " " + WORDS[(i / 3) % WORDS.length], i % 2 == 0));
+        }
+        SearchIndex index = new SearchIndex();
+
+        for (String query : List.of("find book", "find ay 1", "find ea", "find nothing", "find BOOKS")) {
+            assertEquals(new FindCommand(query).execute(tasks, null),
+                    new FindCommand(query, index).execute(tasks, null), query);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.trashbot.server;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A blocking client of the {@link TaskServer} protocol, for tests and load tests.
+ */
+class LineClient implements Closeable {
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final OutputStream writer;
+
+    LineClient(InetSocketAddress address) throws IOException {
+        socket = new Socket(address.getAddress(), address.getPort());
+        socket.setTcpNoDelay(true);
+        reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        writer = socket.getOutputStream();
+    }
+
+    /**
+     * Sends commands without waiting for their responses.
+     */
+    void send(String... commands) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (String command : commands) {
+            lines.append(command).append('\n');
+        }
+        writer.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        writer.flush();
+    }
+
+    /**
+     * Reads the next response, or returns null if the server closed the connection.
+     */
+    String receive() throws IOException {
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.equals(TaskServer.END_OF_RESPONSE)) {
+                return response.toString();
+            }
+            if (!response.isEmpty()) {
+                response.append('\n');
+            }
+            response.append(line.startsWith(TaskServer.END_OF_RESPONSE) ? line.substring(1) : line);
+        }
+        return null;
+    }
+
+    String request(String command) throws IOException {
+        send(command);
+        return receive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
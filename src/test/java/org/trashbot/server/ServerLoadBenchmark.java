@@ -0,0 +1,120 @@
+package org.trashbot.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.trashbot.core.TrashBot;
+
+/**
+ * Drives thousands of simulated clients against a local {@link TaskServer} and reports the
+ * throughput, the latency percentiles and the number of commands rejected as busy.
+ *
+ * <p>Every client keeps its connection open for the whole run. A fixed number of driver threads
+ * take turns over the clients, each sending a command and waiting for its response, so the
+ * number of commands in flight equals the number of driver threads. One command in ten adds a
+ * task; the rest list, find or query. Tasks are saved with the configured storage backend.</p>
+ *
+ * <p>Run with {@code ./gradlew benchmark -Pbenchmark=org.trashbot.server.ServerLoadBenchmark}. The
+ * optional arguments are the number of clients, driver threads and commands per client.</p>
+ */
+public class ServerLoadBenchmark {
+    private static final String[] READS = {"list", "find task 1", "query done:false text:task", "find~ tsak"};
+
+    /**
+     * Runs the load test.
+     *
+     * @param args number of clients, driver threads and commands per client
+     * @throws Exception if the server cannot be started or a client fails
+     */
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int driverCount = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int commandsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Path directory = Files.createTempDirectory("trashbot-load");
+        TrashBot trashBot = new TrashBot(directory.resolve("TrashBot.sav").toString());
+        for (int i = 0; i < 1_000; i++) {
+            trashBot.handle("todo task " + i);
+        }
+
+        int workerCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+        try (TaskServer server = new TaskServer(trashBot, 0, workerCount, TaskServer.DEFAULT_QUEUE_CAPACITY)) {
+            server.start();
+            InetSocketAddress address = server.getAddress();
+
+            List<LineClient> clients = new ArrayList<>(clientCount);
+            for (int i = 0; i < clientCount; i++) {
+                clients.add(new LineClient(address));
+            }
+            System.out.printf("%,d clients connected, %d drivers, %d workers%n",
+                    clientCount, driverCount, workerCount);
+
+            long[] latencies = new long[clientCount * commandsPerClient];
+            AtomicLong busyCount = new AtomicLong();
+            ExecutorService drivers = Executors.newFixedThreadPool(driverCount);
+            long start = System.nanoTime();
+            List<Future<?>> runs = new ArrayList<>();
+            for (int d = 0; d < driverCount; d++) {
+                int driver = d;
+                runs.add(drivers.submit(() -> {
+                    for (int round = 0; round < commandsPerClient; round++) {
+                        for (int c = driver; c < clientCount; c += driverCount) {
+                            int sample = c * commandsPerClient + round;
+                            String command = sample % 10 == 0
+                                    ? "todo load " + sample
+                                    : READS[sample % READS.length];
+                            long sent = System.nanoTime();
+                            String response = clients.get(c).request(command);
+                            latencies[sample] = System.nanoTime() - sent;
+                            if (TaskServer.BUSY_RESPONSE.equals(response)) {
+                                busyCount.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            drivers.shutdown();
+
+            Arrays.sort(latencies);
+            System.out.printf("%,d commands in %.2f s: %,.0f commands/s, %,d busy%n",
+                    latencies.length, seconds, latencies.length / seconds, busyCount.get());
+            System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+
+            clients.forEach(ServerLoadBenchmark::closeQuietly);
+        } finally {
+            trashBot.shutdown();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double fraction) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, sortedNanos.length * fraction)] / 1e6;
+    }
+
+    private static void closeQuietly(LineClient client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            // the run is over
+        }
+    }
+}
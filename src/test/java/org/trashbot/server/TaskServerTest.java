@@ -0,0 +1,86 @@
+package org.trashbot.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.core.TrashBot;
+import org.trashbot.storage.FileStorage;
+
+class TaskServerTest {
+    @TempDir
+    Path tempDir;
+
+    private TrashBot trashBot;
+    private TaskServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        trashBot = new TrashBot(new FileStorage(tempDir.resolve("tasks.txt").toString()));
+        server = new TaskServer(trashBot, 0, 2, 16);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+        trashBot.shutdown();
+    }
+
+    @Test
+    void testClientsShareTheTaskList() throws IOException {
+        try (LineClient first = new LineClient(server.getAddress());
+                LineClient second = new LineClient(server.getAddress())) {
+            assertTrue(first.request("todo read book").contains("Now you have 1 tasks"));
+            assertTrue(second.request("todo return book").contains("Now you have 2 tasks"));
+            String list = first.request("list");
+            assertTrue(list.contains("1.[T][ ] read book") && list.contains("2.[T][ ] return book"), list);
+        }
+    }
+
+    @Test
+    void testPipelinedCommandsAreAnsweredInOrder() throws IOException {
+        try (LineClient client = new LineClient(server.getAddress())) {
+            client.send("todo one", "todo two", "mark 2", "lst", "bye", "todo never");
+            assertTrue(client.receive().contains("one"));
+            assertTrue(client.receive().contains("two"));
+            assertTrue(client.receive().contains("[T][X] two"));
+            assertTrue(client.receive().startsWith("The input lst is unknown!"));
+            assertEquals(TaskServer.GOODBYE_RESPONSE, client.receive());
+            assertNull(client.receive());
+        }
+        assertEquals(5, server.getCommandCount());
+    }
+
+    @Test
+    void testLongResponsesAreStreamedInChunks() throws IOException {
+        trashBot.handle("begin");
+        for (int i = 1; i <= 2_000; i++) {
+            trashBot.handle("todo task " + i);
+        }
+        trashBot.handle("todo .starts with the end marker");
+        trashBot.handle("commit");
+
+        try (LineClient client = new LineClient(server.getAddress())) {
+            String list = client.request("list");
+            assertTrue(list.length() > 4 * TaskServer.CHUNK_SIZE, "only " + list.length() + " characters");
+            assertEquals(trashBot.handle("list"), list);
+            assertEquals(trashBot.handle("find task 1999"), client.request("find task 1999"));
+            assertTrue(client.request("todo after").contains("Now you have 2002 tasks"));
+        }
+    }
+
+    @Test
+    void testEncodeEscapesTheEndMarker() {
+        String frame = StandardCharsets.UTF_8.decode(TaskServer.encode("a\n.\n..b")).toString();
+        assertEquals("a\n..\n...b\n.\n", frame);
+    }
+}
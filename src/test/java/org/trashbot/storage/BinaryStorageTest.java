@@ -0,0 +1,70 @@
+package org.trashbot.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Event;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class BinaryStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        BinaryStorage storage = new BinaryStorage(file.toString());
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("eat mee hoon kway", true));
+        tasks.add(new Deadline("watch netflix", LocalDateTime.of(2020, 9, 11, 23, 59), false));
+        tasks.add(new Event("dance with barney", "2pm", "4pm", true));
+
+        storage.save(tasks);
+        List<Task> loaded = new BinaryStorage(file.toString()).load();
+
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.get(0) instanceof Todo);
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("eat mee hoon kway", loaded.get(0).getDescription());
+        assertFalse(loaded.get(1).isDone());
+        assertEquals(LocalDateTime.of(2020, 9, 11, 23, 59), ((Deadline) loaded.get(1)).getDeadline());
+        assertEquals("2pm", ((Event) loaded.get(2)).getFrom());
+        assertEquals("4pm", ((Event) loaded.get(2)).getTo());
+    }
+
+    @Test
+    void testMigratesTextSaveFile() throws IOException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        Files.writeString(file, "T | 1 | read book\nE | 0 | dance | 2pm | 4pm\n");
+
+        List<Task> loaded = new BinaryStorage(file.toString()).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertEquals("TBOT", new String(Files.readAllBytes(file), 0, 4, StandardCharsets.US_ASCII));
+        assertEquals(2, new BinaryStorage(file.toString()).load().size());
+    }
+
+    @Test
+    void testRejectsUnknownVersion() throws IOException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        Files.write(file, new byte[] {'T', 'B', 'O', 'T', 0, 99, 0, 0, 0, 0});
+
+        assertThrows(IOException.class, () -> new BinaryStorage(file.toString()).load());
+    }
+}
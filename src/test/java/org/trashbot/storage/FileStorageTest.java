@@ -6,7 +6,19 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.trashbot.exceptions.DukeException;
 import org.trashbot.tasks.Deadline;
 import org.trashbot.tasks.Event;
@@ -16,6 +28,9 @@ import org.trashbot.tasks.Todo;
 class FileStorageTest {
     private FileStorage storage = new FileStorage("test.txt");
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void testConvertStringToValidTodo() {
         String input = "T | 1 | eat mee hoon kway";
@@ -72,4 +87,117 @@ class FileStorageTest {
         Task task = storage.convertStringToTask(input);
         assertNull(task);
     }
+
+    @Test
+    void testSaveIsAtomicAndLeavesNoTempFile() throws IOException, DukeException {
+        Path file = tempDir.resolve("data/TrashBot.sav");
+        FileStorage fileStorage = new FileStorage(file.toString());
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("todo read book"));
+
+        fileStorage.save(tasks);
+
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(tempDir.resolve("data/TrashBot.sav.tmp")));
+        assertEquals("read book", fileStorage.load().get(0).getDescription());
+    }
+
+    @Test
+    void testConcurrentSavesAreGroupCommitted() throws Exception {
+        Path file = tempDir.resolve("TrashBot.sav");
+        CountDownLatch firstCommitStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCommit = new CountDownLatch(1);
+        FileStorage fileStorage = new FileStorage(file.toString()) {
+            @Override
+            void writeAndForce(Path path, List<Task> tasks) throws IOException, DukeException {
+                if (firstCommitStarted.getCount() > 0) {
+                    firstCommitStarted.countDown();
+                    try {
+                        releaseFirstCommit.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+                super.writeAndForce(path, tasks);
+            }
+        };
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new Todo("todo task " + i));
+        }
+
+        int saves = 16;
+        List<FutureTask<Void>> results = new ArrayList<>();
+        List<Thread> waiting = new ArrayList<>();
+        for (int i = 0; i < saves; i++) {
+            FutureTask<Void> result = new FutureTask<>(() -> {
+                fileStorage.save(tasks);
+                return null;
+            });
+            Thread thread = new Thread(result);
+            results.add(result);
+            thread.start();
+            if (i == 0) {
+                assertTrue(firstCommitStarted.await(10, TimeUnit.SECONDS));
+            } else {
+                waiting.add(thread);
+            }
+        }
+        // every other save waits for the first commit, so they can all share the next one
+        for (Thread thread : waiting) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+        }
+        releaseFirstCommit.countDown();
+        for (FutureTask<Void> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(2, fileStorage.getCommitCount());
+        assertEquals(1000, fileStorage.load().size());
+    }
+
+    @Test
+    void testParallelLoadMatchesSequentialLoad() throws IOException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append("T | ").append(i % 2).append(" | task ").append(i).append(" \u00e9\r\n");
+            if (i % 100 == 0) {
+                content.append("\n");
+            }
+            content.append("E | 0 | event ").append(i).append(" | 2pm | 4pm\n");
+        }
+        Files.writeString(file, content.toString());
+
+        List<Task> sequential = storage.loadSequentially(file);
+        List<Task> parallel = new ParallelTaskLoader(storage, 64, ForkJoinPool.commonPool()).load(file);
+
+        assertEquals(1000, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).toString(), parallel.get(i).toString());
+        }
+    }
+
+    @Test
+    void testLatin1FileLoadsTheSameSequentiallyAndInParallel() throws IOException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append("T | 0 | caf\u00e9 ").append(i).append("\n");
+        }
+        Files.write(file, content.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        List<Task> sequential = storage.loadSequentially(file);
+        List<Task> parallel = new ParallelTaskLoader(storage, 64, ForkJoinPool.commonPool()).load(file);
+
+        assertEquals(200, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals("caf\ufffd 0", sequential.get(0).getDescription());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).toString(), parallel.get(i).toString());
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package org.trashbot.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Deadline;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class JournalStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReplayAddMarkDelete() throws IOException, DukeException {
+        String file = tempDir.resolve("data/TrashBot.sav").toString();
+        JournalStorage storage = new JournalStorage(file);
+        List<Task> tasks = storage.load();
+
+        addTask(storage, tasks, new Todo("todo read book"));
+        addTask(storage, tasks, new Deadline("deadline return book /by 2023-09-11 0133"));
+        addTask(storage, tasks, new Todo("todo eat"));
+
+        tasks.get(1).markAsDone();
+        storage.update(tasks, 1);
+
+        tasks.remove(0);
+        storage.remove(tasks, 0);
+
+        List<Task> loaded = new JournalStorage(file).load();
+        assertEquals(2, loaded.size());
+        assertEquals("return book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("eat", loaded.get(1).getDescription());
+        assertFalse(loaded.get(1).isDone());
+    }
+
+    @Test
+    void testMutationDoesNotRewriteSnapshot() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        JournalStorage storage = new JournalStorage(file.toString());
+        List<Task> tasks = storage.load();
+        addTask(storage, tasks, new Todo("todo read book"));
+        storage.save(tasks);
+
+        long snapshotSize = Files.size(file);
+        tasks.get(0).markAsDone();
+        storage.update(tasks, 0);
+
+        assertEquals(snapshotSize, Files.size(file));
+        assertTrue(storage.getJournalSize() > 0);
+        assertTrue(new JournalStorage(file.toString()).load().get(0).isDone());
+    }
+
+    @Test
+    void testCompactionTruncatesJournal() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        JournalStorage storage = new JournalStorage(file.toString(), 64);
+        List<Task> tasks = storage.load();
+
+        for (int i = 0; i < 20; i++) {
+            addTask(storage, tasks, new Todo("todo task " + i));
+        }
+        storage.awaitCompaction();
+
+        assertTrue(Files.size(file) > 0);
+        List<Task> loaded = new JournalStorage(file.toString()).load();
+        assertEquals(20, loaded.size());
+        assertEquals("task 19", loaded.get(19).getDescription());
+    }
+
+    @Test
+    void testReplayCostPolicyCompactsAndReportsMetrics() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        JournalStorage storage = new JournalStorage(file.toString(), CompactionPolicy.replayCost(10));
+        List<Task> tasks = storage.load();
+
+        for (int i = 0; i < 10; i++) {
+            addTask(storage, tasks, new Todo("todo task " + i));
+        }
+        storage.awaitCompaction();
+
+        CompactionMetrics metrics = storage.getMetrics();
+        assertEquals(0, metrics.logRecords());
+        assertEquals(0, metrics.logBytes());
+        assertEquals(1, metrics.compactionCount());
+        assertTrue(metrics.lastBytesReclaimed() > 0);
+        assertEquals(10, new JournalStorage(file.toString()).load().size());
+    }
+
+    @Test
+    void testCloseWaitsForCompaction() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        JournalStorage storage = new JournalStorage(file.toString(), CompactionPolicy.replayCost(10));
+        List<Task> tasks = storage.load();
+
+        for (int i = 0; i < 10; i++) {
+            addTask(storage, tasks, new Todo("todo task " + i));
+        }
+        storage.close();
+
+        assertEquals(1, storage.getMetrics().compactionCount());
+        assertFalse(Files.exists(tempDir.resolve("TrashBot.sav.compacting")));
+        assertEquals(10, new JournalStorage(file.toString()).load().size());
+    }
+
+    @Test
+    void testIdlePolicyCompactsInBackground() throws IOException, DukeException, InterruptedException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        JournalStorage storage = new JournalStorage(file.toString(), CompactionPolicy.idle(200));
+        List<Task> tasks = storage.load();
+        addTask(storage, tasks, new Todo("todo read book"));
+
+        long deadline = System.currentTimeMillis() + 10 * JournalStorage.POLICY_CHECK_INTERVAL_MILLIS;
+        while (storage.getMetrics().compactionCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(1, storage.getMetrics().compactionCount());
+        assertFalse(Files.exists(Path.of(file + ".journal")));
+        assertEquals("read book", new JournalStorage(file.toString()).load().get(0).getDescription());
+    }
+
+    @Test
+    void testSaveAfterSingleMarkWritesOneRecord() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        List<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            initial.add(new Todo("task " + i, false));
+        }
+        new JournalStorage(file.toString()).save(initial);
+
+        JournalStorage storage = new JournalStorage(file.toString(), Long.MAX_VALUE);
+        List<Task> tasks = storage.load();
+        long snapshotSize = Files.size(file);
+
+        tasks.get(500_000).markAsDone();
+        storage.save(tasks);
+
+        assertEquals(snapshotSize, Files.size(file));
+        List<String> records = Files.readAllLines(Path.of(file + ".journal"));
+        assertEquals(List.of("M | 500000"), records);
+        assertTrue(new JournalStorage(file.toString()).load().get(500_000).isDone());
+    }
+
+    private void addTask(JournalStorage storage, List<Task> tasks, Task task) throws IOException, DukeException {
+        tasks.add(task);
+        storage.append(tasks, task);
+    }
+}
@@ -0,0 +1,88 @@
+package org.trashbot.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.trashbot.tasks.Task;
+
+/**
+ * Compares the sequential reader against the memory-mapped parallel loader
+ * on generated save files of 100k and 1M tasks.
+ *
+ * <p>Run with {@code ./gradlew benchmark -Pbenchmark=org.trashbot.storage.LoadBenchmark}.</p>
+ */
+public class LoadBenchmark {
+    private static final int[] SIZES = {100_000, 1_000_000};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    /**
+     * Generates the save files and prints the average load time of each loader.
+     *
+     * @param args unused
+     * @throws IOException if a save file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("trashbot-bench");
+        FileStorage storage = new FileStorage(directory.resolve("unused.sav").toString());
+        ParallelTaskLoader parallelLoader = new ParallelTaskLoader(storage);
+
+        for (int size : SIZES) {
+            Path file = directory.resolve("tasks-" + size + ".sav");
+            writeSaveFile(file, size);
+
+            double sequentialMillis = measure(() -> storage.loadSequentially(file), size);
+            double parallelMillis = measure(() -> parallelLoader.load(file), size);
+
+            System.out.printf("%,9d tasks (%,d bytes): sequential %8.1f ms, parallel %8.1f ms, speedup %.2fx%n",
+                    size, Files.size(file), sequentialMillis, parallelMillis, sequentialMillis / parallelMillis);
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    private static void writeSaveFile(Path file, int size) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < size; i++) {
+                switch (i % 3) {
+                case 0:
+                    writer.write("T | " + (i % 2) + " | read chapter " + i);
+                    break;
+                case 1:
+                    writer.write("D | " + (i % 2) + " | submit report " + i + " | Sep 11 2025 11:59pm");
+                    break;
+                default:
+                    writer.write("E | " + (i % 2) + " | team meeting " + i + " | 2pm | 4pm");
+                    break;
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    private static double measure(Loader loader, int expectedSize) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            check(loader.load(), expectedSize);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            check(loader.load(), expectedSize);
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_RUNS;
+    }
+
+    private static void check(List<Task> tasks, int expectedSize) {
+        if (tasks.size() != expectedSize) {
+            throw new IllegalStateException("Expected " + expectedSize + " tasks but loaded " + tasks.size());
+        }
+    }
+
+    private interface Loader {
+        List<Task> load() throws IOException;
+    }
+}
@@ -0,0 +1,95 @@
+package org.trashbot.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class PagedStorageTest {
+    private static final int TASK_COUNT = 50_000;
+    private static final int CACHE_SIZE = 100;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLoadDecodesNothingUntilAccessed() throws IOException, DukeException {
+        Path file = createSaveFile();
+        new PagedStorage(file.toString(), CACHE_SIZE).load();
+        assertTrue(Files.exists(Path.of(file + ".idx")));
+
+        PagedTaskList tasks = (PagedTaskList) new PagedStorage(file.toString(), CACHE_SIZE).load();
+        assertEquals(TASK_COUNT, tasks.size());
+        assertEquals(0, tasks.getResidentCount());
+
+        assertEquals("task 42", tasks.get(42).getDescription());
+        for (int i = 0; i < TASK_COUNT; i++) {
+            tasks.get(i);
+        }
+        assertEquals(CACHE_SIZE, tasks.getResidentCount());
+    }
+
+    @Test
+    void testMutationsArePersisted() throws IOException, DukeException {
+        Path file = createSaveFile();
+        PagedStorage storage = new PagedStorage(file.toString(), CACHE_SIZE);
+        List<Task> tasks = storage.load();
+
+        tasks.get(7).markAsDone();
+        storage.update(tasks, 7);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            tasks.get(i);
+        }
+
+        Task added = new Todo("added", false);
+        tasks.add(added);
+        storage.append(tasks, added);
+        tasks.remove(0);
+        storage.remove(tasks, 0);
+        storage.flush();
+
+        List<Task> loaded = new PagedStorage(file.toString(), CACHE_SIZE).load();
+        assertEquals(TASK_COUNT, loaded.size());
+        assertEquals("task 1", loaded.get(0).getDescription());
+        assertTrue(loaded.get(6).isDone());
+        assertFalse(loaded.get(7).isDone());
+        assertEquals("added", loaded.get(TASK_COUNT - 1).getDescription());
+    }
+
+    @Test
+    void testStaleIndexIsRebuilt() throws IOException, DukeException {
+        Path file = createSaveFile();
+        PagedStorage storage = new PagedStorage(file.toString(), CACHE_SIZE);
+        List<Task> tasks = storage.load();
+        Task added = new Todo("added", false);
+        tasks.add(added);
+        storage.append(tasks, added);
+
+        assertFalse(Files.exists(Path.of(file + ".idx")));
+        List<Task> loaded = new PagedStorage(file.toString(), CACHE_SIZE).load();
+        assertEquals(TASK_COUNT + 1, loaded.size());
+        assertEquals("added", loaded.get(TASK_COUNT).getDescription());
+        assertTrue(Files.exists(Path.of(file + ".idx")));
+    }
+
+    private Path createSaveFile() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            tasks.add(new Todo("task " + i, false));
+        }
+        new RecordStorage(file.toString()).save(tasks);
+        return file;
+    }
+}
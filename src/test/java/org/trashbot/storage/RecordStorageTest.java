@@ -0,0 +1,81 @@
+package org.trashbot.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class RecordStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMarkIsWrittenInPlace() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        RecordStorage storage = new RecordStorage(file.toString());
+        List<Task> tasks = storage.load();
+        addTask(storage, tasks, new Todo("todo read book"));
+        addTask(storage, tasks, new Todo("todo eat"));
+
+        long sizeBefore = Files.size(file);
+        tasks.get(1).markAsDone();
+        storage.update(tasks, 1);
+
+        assertEquals(sizeBefore, Files.size(file));
+        List<Task> loaded = new RecordStorage(file.toString()).load();
+        assertFalse(loaded.get(0).isDone());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    void testDeleteLeavesTombstoneUntilCompaction() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        RecordStorage storage = new RecordStorage(file.toString());
+        List<Task> tasks = storage.load();
+        for (int i = 0; i < RecordStorage.MIN_TOMBSTONES_FOR_COMPACTION * 2; i++) {
+            addTask(storage, tasks, new Todo("todo task " + i));
+        }
+
+        tasks.remove(0);
+        storage.remove(tasks, 0);
+        assertEquals(1, storage.getTombstoneCount());
+        assertEquals("task 1", new RecordStorage(file.toString()).load().get(0).getDescription());
+
+        while (tasks.size() > 1) {
+            tasks.remove(0);
+            storage.remove(tasks, 0);
+        }
+        assertTrue(storage.getTombstoneCount() < RecordStorage.MIN_TOMBSTONES_FOR_COMPACTION);
+
+        List<Task> loaded = new RecordStorage(file.toString()).load();
+        assertEquals(1, loaded.size());
+        assertEquals(tasks.get(0).getDescription(), loaded.get(0).getDescription());
+    }
+
+    @Test
+    void testMigratesTextSaveFile() throws IOException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        Files.writeString(file, "T | 1 | read book\n");
+
+        List<Task> loaded = new RecordStorage(file.toString()).load();
+
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals(1, new RecordStorage(file.toString()).load().size());
+    }
+
+    private void addTask(RecordStorage storage, List<Task> tasks, Task task) throws IOException, DukeException {
+        tasks.add(task);
+        storage.append(tasks, task);
+    }
+}
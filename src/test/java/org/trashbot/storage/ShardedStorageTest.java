@@ -0,0 +1,112 @@
+package org.trashbot.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class ShardedStorageTest {
+    private static final int SEGMENT_SIZE = 4;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMarkRewritesOnlyItsSegment() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        ShardedStorage storage = createStorage(file);
+        List<Task> tasks = storage.load();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new Todo("task " + i, false));
+        }
+        storage.save(tasks);
+        assertEquals(3, storage.getSegmentCount());
+        List<String> before = listSegments(file);
+
+        tasks.get(5).markAsDone();
+        storage.update(tasks, 5);
+
+        List<String> after = listSegments(file);
+        assertEquals(3, after.size());
+        assertEquals(2, after.stream().filter(before::contains).count());
+
+        List<Task> loaded = createStorage(file).load();
+        assertEquals(10, loaded.size());
+        assertTrue(loaded.get(5).isDone());
+        assertFalse(loaded.get(4).isDone());
+    }
+
+    @Test
+    void testAppendAndRemoveKeepOrder() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        ShardedStorage storage = createStorage(file);
+        List<Task> tasks = storage.load();
+        for (int i = 0; i < 9; i++) {
+            Task task = new Todo("task " + i, false);
+            tasks.add(task);
+            storage.append(tasks, task);
+        }
+        assertEquals(3, storage.getSegmentCount());
+
+        for (int i = 3; i >= 0; i--) {
+            tasks.remove(i);
+        }
+        storage.remove(tasks, 0, 1, 2, 3);
+        assertEquals(2, storage.getSegmentCount());
+
+        List<Task> loaded = createStorage(file).load();
+        assertEquals(List.of("task 4", "task 5", "task 6", "task 7", "task 8"),
+                loaded.stream().map(Task::getDescription).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testTextFileIsMigrated() throws IOException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            lines.add("T | 0 | task " + i);
+        }
+        Files.write(file, lines);
+
+        List<Task> migrated = createStorage(file).load();
+        assertEquals(6, migrated.size());
+        assertEquals(2, listSegments(file).size());
+        assertEquals("task 5", createStorage(file).load().get(5).getDescription());
+    }
+
+    @Test
+    void testUnreferencedSegmentsAreDeletedOnLoad() throws IOException, DukeException {
+        Path file = tempDir.resolve("TrashBot.sav");
+        ShardedStorage storage = createStorage(file);
+        storage.save(List.of(new Todo("read book", false)));
+        Files.writeString(Path.of(file + ".segments", "segment-99.sav"), "T | 0 | orphan\n");
+
+        List<Task> loaded = createStorage(file).load();
+        assertEquals(1, loaded.size());
+        assertEquals(1, listSegments(file).size());
+    }
+
+    private ShardedStorage createStorage(Path file) {
+        return new ShardedStorage(file.toString(), SEGMENT_SIZE, ForkJoinPool.commonPool());
+    }
+
+    private List<String> listSegments(Path file) throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(file + ".segments"))) {
+            return files.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+}
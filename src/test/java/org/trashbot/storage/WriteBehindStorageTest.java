@@ -0,0 +1,119 @@
+package org.trashbot.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.trashbot.exceptions.DukeException;
+import org.trashbot.tasks.Task;
+import org.trashbot.tasks.Todo;
+
+class WriteBehindStorageTest {
+    @Test
+    void testSavesWithinDebounceWindowAreCoalesced() throws IOException, DukeException {
+        CountingStorage delegate = new CountingStorage();
+        WriteBehindStorage storage = new WriteBehindStorage(delegate, 10_000);
+        List<Task> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Task task = new Todo("todo task " + i);
+            tasks.add(task);
+            storage.append(tasks, task);
+        }
+        assertEquals(0, delegate.saves);
+
+        storage.flush();
+        assertEquals(1, delegate.saves);
+        assertEquals(5, delegate.lastSaved.size());
+        assertEquals(0, storage.getLagMillis());
+    }
+
+    @Test
+    void testSavesDoNotShareTasksWithTheWriter() throws IOException, DukeException {
+        CountingStorage delegate = new CountingStorage();
+        WriteBehindStorage storage = new WriteBehindStorage(delegate, 10_000);
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("todo task"));
+
+        storage.save(tasks);
+        tasks.get(0).markAsDone();
+        storage.flush();
+
+        assertEquals(1, delegate.lastSaved.size());
+        assertNotSame(tasks.get(0), delegate.lastSaved.get(0));
+        assertFalse(delegate.lastSaved.get(0).isDone());
+        assertEquals("[T][ ] task", delegate.lastSaved.get(0).toString());
+    }
+
+    @Test
+    void testSaveAfterFailedWriteIsKeptAndRetried() throws Exception {
+        FailingStorage delegate = new FailingStorage();
+        WriteBehindStorage storage = new WriteBehindStorage(delegate, 0);
+        List<Task> tasks = new ArrayList<>();
+
+        boolean isFailureReported = false;
+        for (int i = 0; i < 500 && !isFailureReported; i++) {
+            tasks.add(new Todo("todo task " + i));
+            try {
+                storage.save(tasks);
+            } catch (IOException e) {
+                isFailureReported = true;
+            }
+            Thread.sleep(5);
+        }
+        assertTrue(isFailureReported);
+
+        delegate.isFailing = false;
+        storage.flush();
+        assertEquals(tasks.size(), delegate.lastSaved.size());
+    }
+
+    @Test
+    void testFlushWithNothingPendingDoesNotWrite() throws IOException, DukeException {
+        CountingStorage delegate = new CountingStorage();
+        WriteBehindStorage storage = new WriteBehindStorage(delegate, 0);
+
+        storage.flush();
+        assertEquals(0, delegate.saves);
+    }
+
+    private static class FailingStorage implements DataPersistence {
+        private volatile boolean isFailing = true;
+        private List<Task> lastSaved = new ArrayList<>();
+
+        @Override
+        public void save(List<Task> tasks) throws IOException {
+            if (isFailing) {
+                throw new IOException("Disk full");
+            }
+            lastSaved = tasks;
+        }
+
+        @Override
+        public List<Task> load() {
+            return new ArrayList<>(lastSaved);
+        }
+    }
+
+    private static class CountingStorage implements DataPersistence {
+        private int saves;
+        private List<Task> lastSaved = new ArrayList<>();
+
+        @Override
+        public void save(List<Task> tasks) {
+            saves++;
+            lastSaved = tasks;
+        }
+
+        @Override
+        public List<Task> load() {
+            return new ArrayList<>(lastSaved);
+        }
+    }
+}
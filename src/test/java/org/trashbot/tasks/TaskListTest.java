@@ -0,0 +1,93 @@
+package org.trashbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TaskListTest {
+    @Test
+    void testSingleMarkInLargeListIsOneChange() {
+        List<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            initial.add(new Todo("task " + i, false));
+        }
+        TaskList tasks = new TaskList(initial);
+        tasks.trackChanges();
+
+        tasks.get(123_456).markAsDone();
+
+        List<TaskChange> changes = tasks.drainChanges();
+        assertEquals(1, changes.size());
+        assertEquals(TaskChange.Type.UPDATE, changes.get(0).type());
+        assertEquals(123_456, changes.get(0).index());
+        assertFalse(tasks.get(123_456).isDirty());
+        assertFalse(tasks.hasChanges());
+    }
+
+    @Test
+    void testStructuralChangesAreLoggedInOrder() {
+        TaskList tasks = new TaskList(List.of(new Todo("a", false), new Todo("b", false)));
+        tasks.trackChanges();
+
+        Task c = new Todo("c", false);
+        tasks.add(c);
+        tasks.get(1).markAsDone();
+        tasks.remove(0);
+        c.markAsDone();
+
+        List<TaskChange> changes = tasks.drainChanges();
+        assertEquals(3, changes.size());
+        assertEquals(TaskChange.Type.INSERT, changes.get(0).type());
+        assertEquals(2, changes.get(0).index());
+        assertSame(c, changes.get(0).task());
+        assertEquals(TaskChange.Type.REMOVE, changes.get(1).type());
+        assertEquals(0, changes.get(1).index());
+        assertEquals(TaskChange.Type.UPDATE, changes.get(2).type());
+        assertEquals(0, changes.get(2).index());
+    }
+
+    @Test
+    void testUpdatesUseIndexesAfterStructuralChanges() {
+        List<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            initial.add(new Todo("task " + i, false));
+        }
+        TaskList tasks = new TaskList(initial);
+        tasks.trackChanges();
+
+        Task five = tasks.get(5);
+        Task nine = tasks.get(9);
+        tasks.add(0, new Todo("first", false));
+        tasks.subList(1, 4).clear();
+        Task removed = tasks.remove(1);
+        five.markAsDone();
+        nine.markAsDone();
+        removed.markAsDone();
+
+        List<TaskChange> changes = tasks.drainChanges();
+        List<TaskChange> updates = changes.stream().filter(change -> change.type() == TaskChange.Type.UPDATE).toList();
+        assertEquals(2, updates.size());
+        for (TaskChange update : updates) {
+            assertSame(update.task(), tasks.get(update.index()));
+        }
+        assertEquals(List.of(1, 1, 1, 1), changes.stream().skip(1)
+                .filter(change -> change.type() == TaskChange.Type.REMOVE).map(TaskChange::index).toList());
+        assertFalse(removed.isDirty());
+    }
+
+    @Test
+    void testUntrackedListLogsNothing() {
+        TaskList tasks = new TaskList(List.of(new Todo("a", false)));
+        tasks.get(0).markAsDone();
+        tasks.add(new Todo("b", false));
+
+        assertTrue(tasks.get(0).isDirty());
+        assertFalse(tasks.hasChanges());
+    }
+}